@@ -0,0 +1,74 @@
+package dev.yurets.db_demo.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потокове читання CSV (RFC 4180): кома - роздільник, поля в лапках можуть містити
+ * коми, переноси рядків і подвоєні лапки (""). Весь файл у пам'ять не читається.
+ */
+final class CsvReader {
+
+    private final Reader reader;
+    private int line = 1;
+    private int recordLine;
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Наступний запис (null - кінець файлу)
+     */
+    List<String> next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Незакриті лапки у записі з рядка " + recordLine);
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c == -1) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Рядок файлу, з якого почався останній прочитаний запис
+     */
+    int getRecordLine() {
+        return recordLine;
+    }
+}
@@ -0,0 +1,627 @@
+package dev.yurets.db_demo.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.dto.ImportReject;
+import dev.yurets.db_demo.dto.ImportReport;
+import dev.yurets.db_demo.dto.ReferenceItem;
+import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.search.SearchIndexLoader;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Масовий імпорт поставок з маніфестів логістичних партнерів (CSV або NDJSON)
+ *
+ * Файл читається потоком, рядок за рядком:
+ * 1. Рядок перевіряється тими самими правилами, що й у createDelivery (WeaponDeliveryService.isValidStatus);
+ *    зброя і донор шукаються за ID або назвою в довідниках ReferenceDataCache, без запиту на кожен рядок.
+ * 2. Коректні рядки пишуться в тимчасову таблицю delivery_import: у PostgreSQL - через COPY
+ *    (pgjdbc CopyManager), в інших БД - пакетними INSERT.
+ * 3. Один MERGE переносить їх у weapon_deliveries: поставка з тим самим трекінг-номером
+ *    оновлюється, решта вставляються. Повторний імпорт того ж маніфесту не створює дублікатів.
+ *    ID новим поставкам видаються пулами, як у Hibernate: одне значення послідовності на 50 рядків.
+ *
+ * Некоректні рядки не зупиняють імпорт - вони потрапляють у звіт з номером рядка і причиною.
+ * Записи в обхід JPA не проходять через entity listeners, тому індекс пошуку, версії таблиць
+ * та інші вузли (InvalidationBus) оновлюються тут явно, після коміту.
+ * MERGE потребує PostgreSQL 15+.
+ */
+@Slf4j
+@Service
+public class DeliveryImportService {
+
+    // Скільки відхилених рядків повертати у звіті (лічильник rejected рахує всі)
+    public static final int MAX_REPORTED_REJECTS = 1000;
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    // = allocationSize у WeaponDelivery (і INCREMENT BY послідовності): одне значення послідовності - пул ID
+    private static final int ID_POOL = 50;
+    private static final String ID_SEQUENCE = "weapon_deliveries_id_seq";
+
+    private static final String STAGING_DDL = "CREATE LOCAL TEMPORARY TABLE delivery_import ("
+            + "source_line BIGINT NOT NULL, delivery_date DATE NOT NULL, quantity_delivered INTEGER NOT NULL, "
+            + "delivery_status VARCHAR(255) NOT NULL, tracking_number VARCHAR(255), "
+            + "weapon_id BIGINT NOT NULL, donor_id BIGINT NOT NULL, id BIGINT) ON COMMIT DROP";
+
+    private static final String STAGING_COLUMNS =
+            "source_line, delivery_date, quantity_delivered, delivery_status, tracking_number, weapon_id, donor_id";
+
+    private static final String COPY_SQL =
+            "COPY delivery_import (" + STAGING_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO delivery_import (" + STAGING_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Зброю або донора видалили вже після того, як рядок пройшов перевірку за довідником
+    private static final String MISSING_REFERENCES_SQL = "SELECT s.source_line FROM delivery_import s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM weapons w WHERE w.id = s.weapon_id) "
+            + "OR NOT EXISTS (SELECT 1 FROM donors d WHERE d.id = s.donor_id)";
+
+    private static final String VALID_ROWS = "SELECT s.* FROM delivery_import s "
+            + "JOIN weapons w ON w.id = s.weapon_id JOIN donors d ON d.id = s.donor_id";
+
+    private static final String COUNT_MATCHED_SQL = "SELECT COUNT(*) FROM weapon_deliveries t "
+            + "JOIN (" + VALID_ROWS + ") s ON t.tracking_number = s.tracking_number";
+
+    private static final String NEW_ROWS = VALID_ROWS
+            + " WHERE NOT EXISTS (SELECT 1 FROM weapon_deliveries t WHERE t.tracking_number = s.tracking_number)";
+
+    private static final String COUNT_NEW_SQL = "SELECT COUNT(*) FROM (" + NEW_ROWS + ") n";
+
+    // Верхні межі пулів ID (по одному значенню послідовності на ID_POOL нових рядків)
+    private static final String ID_BLOCKS_DDL = "CREATE LOCAL TEMPORARY TABLE delivery_import_ids ("
+            + "block_no BIGINT NOT NULL, hi BIGINT NOT NULL) ON COMMIT DROP";
+
+    private static final String ID_BLOCK_INSERT_SQL = "INSERT INTO delivery_import_ids (block_no, hi) VALUES (?, ?)";
+
+    private static final String NEXT_IDS_PG_SQL = "SELECT nextval('" + ID_SEQUENCE + "') FROM generate_series(1, ?)";
+
+    private static final String NEXT_IDS_SQL = "SELECT NEXT VALUE FOR " + ID_SEQUENCE + " FROM SYSTEM_RANGE(1, ?)";
+
+    // n-й новий рядок (з 1) отримує ID з пулу (hi - ID_POOL, hi], як у pooled-оптимізатора Hibernate
+    private static final String ASSIGN_IDS_SQL = "MERGE INTO delivery_import d USING ("
+            + "SELECT n.source_line, b.hi - " + (ID_POOL - 1) + " + MOD(n.rn - 1, " + ID_POOL + ") AS id FROM ("
+            + "SELECT v.source_line, ROW_NUMBER() OVER (ORDER BY v.source_line) AS rn FROM (" + NEW_ROWS + ") v) n "
+            + "JOIN delivery_import_ids b ON b.block_no = (n.rn - 1) / " + ID_POOL + ") a "
+            + "ON d.source_line = a.source_line WHEN MATCHED THEN UPDATE SET id = a.id";
+
+    private static final String MERGE_SQL = "MERGE INTO weapon_deliveries t USING (" + VALID_ROWS + ") s "
+            + "ON t.tracking_number = s.tracking_number "
+            + "WHEN MATCHED THEN UPDATE SET delivery_date = s.delivery_date, "
+            + "quantity_delivered = s.quantity_delivered, delivery_status = s.delivery_status, "
+            + "weapon_id = s.weapon_id, donor_id = s.donor_id, version = t.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT "
+            + "(id, delivery_date, quantity_delivered, delivery_status, tracking_number, weapon_id, donor_id, version) "
+            // ID призначені заздалегідь (assignIds); nextval - тільки якщо запис з тим самим трекінг-номером
+            // видалили вже після підрахунку нових рядків
+            + "VALUES (COALESCE(s.id, nextval('" + ID_SEQUENCE + "')), s.delivery_date, s.quantity_delivered, "
+            + "s.delivery_status, s.tracking_number, s.weapon_id, s.donor_id, 0)";
+
+    // Трекінг-номери - єдине поле поставки в пошуковому індексі
+    private static final String MERGED_TRACKING_SQL = "SELECT t.id, t.tracking_number FROM weapon_deliveries t "
+            + "JOIN delivery_import s ON t.tracking_number = s.tracking_number";
+
+    /**
+     * Формат файлу (визначається за Content-Type запиту)
+     */
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataCache referenceDataCache;
+    private final TableVersions tableVersions;
+    private final SearchIndexLoader searchIndexLoader;
+    private final InvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+
+    public DeliveryImportService(JdbcTemplate jdbcTemplate,
+                                 ReferenceDataCache referenceDataCache,
+                                 TableVersions tableVersions,
+                                 SearchIndexLoader searchIndexLoader,
+                                 InvalidationBus invalidationBus,
+                                 ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.referenceDataCache = referenceDataCache;
+        this.tableVersions = tableVersions;
+        this.searchIndexLoader = searchIndexLoader;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Імпортувати поставки з потоку (одна транзакція: або всі коректні рядки, або нічого)
+     * IllegalArgumentException - файл не можна розібрати цілком (немає потрібних колонок у заголовку CSV)
+     */
+    @Transactional
+    public ImportReport importDeliveries(InputStream body, Format format) {
+        long start = System.currentTimeMillis();
+        Parser parser = new Parser(
+                new References(referenceDataCache.getWeapons(), "Зброя обов'язкова", "Зброю"),
+                new References(referenceDataCache.getDonors(), "Донор обов'язковий", "Донора"));
+
+        jdbcTemplate.execute(STAGING_DDL);
+        long received = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            Staging staging = connection.isWrapperFor(PGConnection.class)
+                    ? new CopyStaging(connection)
+                    : new BatchStaging(connection);
+            try {
+                long rows = format == Format.CSV ? readCsv(body, parser, staging) : readNdjson(body, parser, staging);
+                staging.finish();
+                return rows;
+            } catch (RuntimeException | SQLException e) {
+                staging.abort();
+                throw e;
+            }
+        });
+
+        for (Long line : jdbcTemplate.queryForList(MISSING_REFERENCES_SQL, Long.class)) {
+            parser.reject(line, "Зброю або донора видалено під час імпорту");
+        }
+        long updated = jdbcTemplate.queryForObject(COUNT_MATCHED_SQL, Long.class);
+        assignIds();
+        long merged = jdbcTemplate.update(MERGE_SQL);
+
+        Map<Long, String> trackingNumbers = new HashMap<>();
+        jdbcTemplate.query(MERGED_TRACKING_SQL, (RowCallbackHandler) rs ->
+                trackingNumbers.put(rs.getLong(1), rs.getString(2)));
+        afterCommit(() -> searchIndexLoader.indexDeliveries(trackingNumbers));
+        tableVersions.bump(DataTable.DELIVERY);
+        invalidationBus.publishAll(WeaponDelivery.class);
+
+        List<ImportReject> rejects = parser.rejects;
+        rejects.sort(Comparator.comparingLong(ImportReject::getLine));
+        ImportReport report = new ImportReport(received, merged - updated, updated, parser.rejected,
+                rejects, System.currentTimeMillis() - start);
+        log.info("[IMPORT] Імпорт поставок ({}): {} рядків, {} нових, {} оновлено, {} відхилено за {} мс",
+                format, received, report.getInserted(), updated, parser.rejected, report.getDurationMs());
+        return report;
+    }
+
+    /**
+     * ID для нових рядків: одне значення послідовності на ID_POOL рядків, як у Hibernate для WeaponDelivery
+     * (nextval на кожен рядок при INCREMENT BY 50 витрачав би 50 значень на одну поставку)
+     */
+    private void assignIds() {
+        long rows = jdbcTemplate.queryForObject(COUNT_NEW_SQL, Long.class);
+        if (rows == 0) {
+            return;
+        }
+        long blocks = (rows + ID_POOL - 1) / ID_POOL;
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        List<Long> his = new ArrayList<>();
+        while (his.size() < blocks) {
+            for (Long hi : jdbcTemplate.queryForList(postgres ? NEXT_IDS_PG_SQL : NEXT_IDS_SQL, Long.class,
+                    blocks - his.size())) {
+                // Перше значення нової послідовності (1) - не межа повного пулу, Hibernate його так теж не бере
+                if (hi >= ID_POOL) {
+                    his.add(hi);
+                }
+            }
+        }
+
+        jdbcTemplate.execute(ID_BLOCKS_DDL);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < his.size(); i++) {
+            batch.add(new Object[]{(long) i, his.get(i)});
+        }
+        jdbcTemplate.batchUpdate(ID_BLOCK_INSERT_SQL, batch);
+        jdbcTemplate.update(ASSIGN_IDS_SQL);
+    }
+
+    private long readCsv(InputStream body, Parser parser, Staging staging) throws SQLException {
+        CsvReader csv = new CsvReader(reader(body));
+        try {
+            List<String> header = csv.next();
+            if (header == null) {
+                return 0;
+            }
+            List<String> columns = new ArrayList<>();
+            header.forEach(name -> columns.add(Parser.key(name)));
+            Parser.requireColumns(columns);
+
+            long rows = 0;
+            for (List<String> record = csv.next(); record != null; record = csv.next()) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                rows++;
+                long line = csv.getRecordLine();
+                if (record.size() != columns.size()) {
+                    parser.reject(line, "Очікувалось колонок: " + columns.size() + ", отримано: " + record.size());
+                    continue;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    values.put(columns.get(i), record.get(i));
+                }
+                Row row = parser.parse(line, values);
+                if (row != null) {
+                    staging.add(row);
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long readNdjson(InputStream body, Parser parser, Staging staging) throws SQLException {
+        try (BufferedReader reader = reader(body)) {
+            long rows = 0;
+            long line = 0;
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                rows++;
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    parser.reject(line, "Некоректний JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (!node.isObject()) {
+                    parser.reject(line, "Очікувався JSON-об'єкт");
+                    continue;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = it.next();
+                    values.put(Parser.key(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText());
+                }
+                Row row = parser.parse(line, values);
+                if (row != null) {
+                    staging.add(row);
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), COPY_BUFFER_CHARS);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Перевірений рядок, готовий до завантаження в delivery_import
+     */
+    private static final class Row {
+        private final long line;
+        private final LocalDate deliveryDate;
+        private final int quantityDelivered;
+        private final String deliveryStatus;
+        private final String trackingNumber;
+        private final long weaponId;
+        private final long donorId;
+
+        private Row(long line, LocalDate deliveryDate, int quantityDelivered, String deliveryStatus,
+                    String trackingNumber, long weaponId, long donorId) {
+            this.line = line;
+            this.deliveryDate = deliveryDate;
+            this.quantityDelivered = quantityDelivered;
+            this.deliveryStatus = deliveryStatus;
+            this.trackingNumber = trackingNumber;
+            this.weaponId = weaponId;
+            this.donorId = donorId;
+        }
+    }
+
+    /**
+     * Перевірка рядків і збір відхилених
+     */
+    private static final class Parser {
+        private final References weapons;
+        private final References donors;
+        private final Set<String> trackingNumbers = new HashSet<>();
+        private final List<ImportReject> rejects = new ArrayList<>();
+        private long rejected;
+
+        private Parser(References weapons, References donors) {
+            this.weapons = weapons;
+            this.donors = donors;
+        }
+
+        /**
+         * Назва колонки / поля без урахування регістру та "_": delivery_date = deliveryDate
+         */
+        private static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT).replace("_", "");
+        }
+
+        private static void requireColumns(List<String> columns) {
+            for (String required : List.of("deliverydate", "quantitydelivered", "deliverystatus")) {
+                if (!columns.contains(required)) {
+                    throw new IllegalArgumentException("У заголовку CSV немає колонки " + required);
+                }
+            }
+            if (!columns.contains("weaponid") && !columns.contains("weaponname")) {
+                throw new IllegalArgumentException("У заголовку CSV немає колонки weaponId або weaponName");
+            }
+            if (!columns.contains("donorid") && !columns.contains("donorname")) {
+                throw new IllegalArgumentException("У заголовку CSV немає колонки donorId або donorName");
+            }
+        }
+
+        /**
+         * Перевірений рядок або null (рядок відхилено)
+         */
+        private Row parse(long line, Map<String, String> values) {
+            try {
+                LocalDate date = date(text(values, "deliverydate"));
+                int quantity = quantity(text(values, "quantitydelivered"));
+                String status = text(values, "deliverystatus");
+                if (status == null) {
+                    throw new IllegalArgumentException("Статус поставки обов'язковий");
+                }
+                if (!WeaponDeliveryService.isValidStatus(status)) {
+                    throw new IllegalArgumentException("Невірний статус. Дозволені: planned, in_transit, delivered");
+                }
+                String tracking = text(values, "trackingnumber");
+                if (tracking != null && tracking.length() > MAX_TEXT_LENGTH) {
+                    throw new IllegalArgumentException("Трекінг-номер довший за " + MAX_TEXT_LENGTH + " символів");
+                }
+                long weaponId = weapons.resolve(text(values, "weaponid"), text(values, "weaponname"));
+                long donorId = donors.resolve(text(values, "donorid"), text(values, "donorname"));
+                // Останньою: відхилений рядок не має займати трекінг-номер
+                if (tracking != null && !trackingNumbers.add(tracking)) {
+                    throw new IllegalArgumentException("Трекінг-номер " + tracking + " повторюється у файлі");
+                }
+                return new Row(line, date, quantity, status, tracking, weaponId, donorId);
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+                return null;
+            }
+        }
+
+        private void reject(long line, String error) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(new ImportReject(line, error));
+            }
+        }
+
+        private static String text(Map<String, String> values, String key) {
+            String value = values.get(key);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        private static LocalDate date(String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Дата поставки обов'язкова");
+            }
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Невірна дата поставки: " + value + " (очікується РРРР-ММ-ДД)");
+            }
+        }
+
+        private static int quantity(String value) {
+            int quantity;
+            try {
+                quantity = value == null ? 0 : Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Кількість має бути цілим числом");
+            }
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Кількість має бути додатною");
+            }
+            return quantity;
+        }
+    }
+
+    /**
+     * Довідник для пошуку посилань: ID, що існують, і назва → ID (без урахування регістру)
+     */
+    private static final class References {
+        private final Set<Long> ids = new HashSet<>();
+        // null - кілька записів з такою назвою
+        private final Map<String, Long> names = new HashMap<>();
+        private final String requiredMessage;
+        private final String accusative;
+
+        private References(List<ReferenceItem> items, String requiredMessage, String accusative) {
+            for (ReferenceItem item : items) {
+                ids.add(item.getId());
+                String name = item.getName().trim().toLowerCase(Locale.ROOT);
+                names.put(name, names.containsKey(name) ? null : item.getId());
+            }
+            this.requiredMessage = requiredMessage;
+            this.accusative = accusative;
+        }
+
+        private long resolve(String id, String name) {
+            if (id != null) {
+                long parsed;
+                try {
+                    parsed = Long.parseLong(id);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Невірний ID: " + id);
+                }
+                if (!ids.contains(parsed)) {
+                    throw new IllegalArgumentException(accusative + " з ID " + parsed + " не знайдено!");
+                }
+                return parsed;
+            }
+            if (name == null) {
+                throw new IllegalArgumentException(requiredMessage);
+            }
+            String key = name.toLowerCase(Locale.ROOT);
+            if (!names.containsKey(key)) {
+                throw new IllegalArgumentException(accusative + " з назвою '" + name + "' не знайдено!");
+            }
+            Long resolved = names.get(key);
+            if (resolved == null) {
+                throw new IllegalArgumentException("Назва '" + name + "' неоднозначна, вкажіть ID");
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * Куди пишуться перевірені рядки (тимчасова таблиця delivery_import)
+     */
+    private interface Staging {
+        void add(Row row) throws SQLException;
+
+        void finish() throws SQLException;
+
+        void abort() throws SQLException;
+    }
+
+    /**
+     * PostgreSQL: COPY ... FROM STDIN у форматі CSV, блоками по COPY_BUFFER_CHARS
+     */
+    private static final class CopyStaging implements Staging {
+        private final CopyIn copy;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 512);
+
+        private CopyStaging(Connection connection) throws SQLException {
+            this.copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        }
+
+        @Override
+        public void add(Row row) throws SQLException {
+            buffer.append(row.line).append(',')
+                    .append(row.deliveryDate).append(',')
+                    .append(row.quantityDelivered).append(',');
+            quote(row.deliveryStatus);
+            buffer.append(',');
+            // Порожнє поле без лапок - NULL
+            if (row.trackingNumber != null) {
+                quote(row.trackingNumber);
+            }
+            buffer.append(',').append(row.weaponId).append(',').append(row.donorId).append('\n');
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            flush();
+            copy.endCopy();
+        }
+
+        @Override
+        public void abort() throws SQLException {
+            // Інакше з'єднання лишиться в режимі COPY і не зможе відкотити транзакцію
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+
+        private void quote(String value) {
+            buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Інші БД (H2 у тестах): пакетні INSERT по INSERT_BATCH_SIZE рядків
+     */
+    private static final class BatchStaging implements Staging {
+        private final PreparedStatement statement;
+        private int pending;
+
+        private BatchStaging(Connection connection) throws SQLException {
+            this.statement = connection.prepareStatement(INSERT_SQL);
+        }
+
+        @Override
+        public void add(Row row) throws SQLException {
+            statement.setLong(1, row.line);
+            statement.setDate(2, Date.valueOf(row.deliveryDate));
+            statement.setInt(3, row.quantityDelivered);
+            statement.setString(4, row.deliveryStatus);
+            statement.setString(5, row.trackingNumber);
+            statement.setLong(6, row.weaponId);
+            statement.setLong(7, row.donorId);
+            statement.addBatch();
+            if (++pending >= INSERT_BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+            statement.close();
+        }
+
+        @Override
+        public void abort() throws SQLException {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package dev.yurets.db_demo.bulk;
+
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.dto.TransitionReport;
+import dev.yurets.db_demo.dto.TransitionSkip;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Масові переходи статусу запитів на допомогу: схвалення, відхилення, доставка
+ *
+ * Запити вибираються списком ID та/або фільтром (пріоритет, країна-отримувач, період)
+ * і переводяться одним умовним UPDATE ... WHERE status = <вихідний статус>, без завантаження сутностей.
+ * Запит, який тим часом змінив інший рецензент, просто не потрапляє під умову - і потрапляє у пропущені.
+ * У PostgreSQL змінені рядки повертає RETURNING; в інших БД (H2 у тестах) - SELECT ... FOR UPDATE
+ * з тією ж умовою, потім UPDATE за знайденими ID.
+ *
+ * Записи в обхід JPA не проходять через entity listeners, тому лічильники RequestCounters,
+ * версії таблиць та інші вузли (InvalidationBus) оновлюються тут явно, після коміту.
+ * Індекс пошуку не змінюється - статус у ньому не індексується.
+ */
+@Slf4j
+@Service
+public class RequestTransitionService {
+
+    // Більші списки - частинами або фільтром
+    public static final int MAX_IDS = 10_000;
+
+    private static final String RETURNED_COLUMNS = "id, priority, requesting_country_id";
+
+    /**
+     * Дозволені масові переходи (ті самі правила, що й approveRequest / rejectRequest)
+     */
+    public enum Action {
+        APPROVE("PENDING", "APPROVED"),
+        REJECT("PENDING", "REJECTED"),
+        DELIVER("APPROVED", "DELIVERED");
+
+        private final String from;
+        private final String to;
+
+        Action(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public static Action parse(String value) {
+            for (Action action : values()) {
+                if (action.name().equalsIgnoreCase(value)) {
+                    return action;
+                }
+            }
+            throw new IllegalArgumentException("Невідома дія: " + value + ". Дозволені: approve, reject, deliver");
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RequestCounters requestCounters;
+    private final TableVersions tableVersions;
+    private final InvalidationBus invalidationBus;
+
+    public RequestTransitionService(NamedParameterJdbcTemplate jdbcTemplate,
+                                    RequestCounters requestCounters,
+                                    TableVersions tableVersions,
+                                    InvalidationBus invalidationBus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requestCounters = requestCounters;
+        this.tableVersions = tableVersions;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Перевести вибрані запити зі статусу action.from в action.to (одна транзакція)
+     * ids та фільтри поєднуються через AND; null - без обмеження. Потрібен хоча б один з них.
+     * rejectionReason - тільки для REJECT
+     */
+    @Transactional
+    public TransitionReport transition(Action action, List<Long> ids, String priority,
+                                       Long requestingCountryId, Long periodId, String rejectionReason) {
+        long start = System.currentTimeMillis();
+        Set<Long> requested = requestedIds(ids);
+        String normalizedPriority = normalizePriority(priority);
+        if (requested.isEmpty() && normalizedPriority == null && requestingCountryId == null && periodId == null) {
+            throw new IllegalArgumentException(
+                    "Вкажіть ids або хоча б один фільтр (priority, requestingCountryId, periodId)");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", action.from)
+                .addValue("to", action.to)
+                .addValue("reason", rejectionReason != null ? rejectionReason.trim() : null)
+                .addValue("ids", requested)
+                .addValue("priority", normalizedPriority)
+                .addValue("countryId", requestingCountryId)
+                .addValue("periodId", periodId);
+        String selection = selection(requested, normalizedPriority, requestingCountryId, periodId);
+        String condition = "status = :from"
+                + (action == Action.APPROVE ? " AND donor_country_id IS NOT NULL" : "")
+                + " AND " + selection;
+        // version + 1 - щоб PUT з If-Match і compareAndSetStatus побачили зміну (@Version)
+        String assignments = "status = :to, version = version + 1"
+                + (action == Action.REJECT ? ", rejection_reason = :reason" : "");
+
+        // ID → клітинка лічильників до переходу (пріоритет і країна не змінюються)
+        Map<Long, RequestCounters.Cell> moved = new TreeMap<>();
+        RowCallbackHandler collect = rs -> moved.put(rs.getLong(1),
+                RequestCounters.cell(action.from, rs.getString(2), rs.getLong(3)));
+
+        boolean returning = Boolean.TRUE.equals(jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        if (returning) {
+            jdbcTemplate.query("UPDATE aid_requests SET " + assignments + " WHERE " + condition
+                    + " RETURNING " + RETURNED_COLUMNS, params, collect);
+        } else {
+            jdbcTemplate.query("SELECT " + RETURNED_COLUMNS + " FROM aid_requests WHERE " + condition
+                    + " FOR UPDATE", params, collect);
+            if (!moved.isEmpty()) {
+                params.addValue("locked", moved.keySet());
+                jdbcTemplate.update("UPDATE aid_requests SET " + assignments + " WHERE id IN (:locked)", params);
+            }
+        }
+
+        List<TransitionSkip> skipped = requested.isEmpty()
+                ? skippedByFilter(action, selection, params)
+                : skippedByIds(action, requested, moved.keySet(), normalizedPriority, requestingCountryId, periodId, params);
+
+        if (!moved.isEmpty()) {
+            requestCounters.moveStatus(moved.values(), action.to);
+            tableVersions.bump(DataTable.REQUEST);
+            invalidationBus.publish(AidRequest.class, moved.keySet());
+        }
+
+        TransitionReport report = new TransitionReport(action.from, action.to, new ArrayList<>(moved.keySet()),
+                skipped, System.currentTimeMillis() - start);
+        log.info("[BULK] Масовий перехід {} → {}: {} змінено, {} пропущено за {} мс",
+                action.from, action.to, moved.size(), skipped.size(), report.getDurationMs());
+        return report;
+    }
+
+    private static Set<Long> requestedIds(List<Long> ids) {
+        if (ids == null) {
+            return Set.of();
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Список ids містить порожні елементи");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("Занадто багато ids (максимум " + MAX_IDS + ")");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    private static String normalizePriority(String priority) {
+        if (priority == null || priority.isBlank()) {
+            return null;
+        }
+        String upper = priority.trim().toUpperCase(Locale.ROOT);
+        if (!RequestCounters.PRIORITIES.contains(upper)) {
+            throw new IllegalArgumentException("Невірний пріоритет");
+        }
+        return upper;
+    }
+
+    private static String selection(Set<Long> ids, String priority, Long countryId, Long periodId) {
+        List<String> conditions = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            conditions.add("id IN (:ids)");
+        }
+        if (priority != null) {
+            conditions.add("priority = :priority");
+        }
+        if (countryId != null) {
+            conditions.add("requesting_country_id = :countryId");
+        }
+        if (periodId != null) {
+            conditions.add("period_id = :periodId");
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    /**
+     * Вибір фільтром: після UPDATE у вихідному статусі лишаються тільки запити,
+     * що не пройшли додаткову умову (схвалення без країни-донора)
+     */
+    private List<TransitionSkip> skippedByFilter(Action action, String selection, MapSqlParameterSource params) {
+        if (action != Action.APPROVE) {
+            return List.of();
+        }
+        List<TransitionSkip> skipped = new ArrayList<>();
+        jdbcTemplate.query("SELECT id FROM aid_requests WHERE status = :from AND donor_country_id IS NULL AND "
+                        + selection + " ORDER BY id", params,
+                (RowCallbackHandler) rs -> skipped.add(new TransitionSkip(rs.getLong(1),
+                        "Неможливо схвалити запит без призначеної країни-донора")));
+        return skipped;
+    }
+
+    /**
+     * Вибір за ID: причина для кожного ID, що не змінив статус (одним запитом за всіма такими ID)
+     */
+    private List<TransitionSkip> skippedByIds(Action action, Set<Long> requested, Set<Long> moved,
+                                              String priority, Long countryId, Long periodId,
+                                              MapSqlParameterSource params) {
+        List<Long> rest = requested.stream().filter(id -> !moved.contains(id)).sorted().toList();
+        if (rest.isEmpty()) {
+            return List.of();
+        }
+        params.addValue("rest", rest);
+        Map<Long, String> reasons = new HashMap<>();
+        jdbcTemplate.query("SELECT id, status, priority, requesting_country_id, period_id, donor_country_id "
+                        + "FROM aid_requests WHERE id IN (:rest)", params,
+                (RowCallbackHandler) rs -> {
+                    String reason;
+                    if (!action.from.equals(rs.getString(2))) {
+                        reason = "Поточний статус " + rs.getString(2) + ", потрібен " + action.from;
+                    } else if ((priority != null && !priority.equals(rs.getString(3)))
+                            || (countryId != null && !Objects.equals(countryId, rs.getObject(4, Long.class)))
+                            || (periodId != null && !Objects.equals(periodId, rs.getObject(5, Long.class)))) {
+                        reason = "Не відповідає фільтру";
+                    } else if (action == Action.APPROVE && rs.getObject(6, Long.class) == null) {
+                        reason = "Неможливо схвалити запит без призначеної країни-донора";
+                    } else {
+                        reason = "Статус змінено паралельно";
+                    }
+                    reasons.put(rs.getLong(1), reason);
+                });
+
+        List<TransitionSkip> skipped = new ArrayList<>();
+        for (Long id : rest) {
+            skipped.add(new TransitionSkip(id, reasons.getOrDefault(id, "Запит не знайдено")));
+        }
+        return skipped;
+    }
+}
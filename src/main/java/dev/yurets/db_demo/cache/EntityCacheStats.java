@@ -0,0 +1,51 @@
+package dev.yurets.db_demo.cache;
+
+import dev.yurets.db_demo.config.CacheConfig;
+import dev.yurets.db_demo.dto.CacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Статистика кешу другого рівня Hibernate по регіонах (див. CacheConfig)
+ * Влучання/промахи - зі статистики Hibernate, розмір - з самого кешу Caffeine
+ */
+@Component
+public class EntityCacheStats {
+
+    private final Statistics statistics;
+    private final CacheManager jcacheManager;
+
+    public EntityCacheStats(EntityManagerFactory entityManagerFactory, CacheManager jcacheManager) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.jcacheManager = jcacheManager;
+    }
+
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (String region : CacheConfig.ENTITY_REGIONS) {
+            stats.add(stats(region));
+        }
+        stats.add(stats(CacheConfig.QUERY_REGION));
+        return stats;
+    }
+
+    private CacheStats stats(String region) {
+        CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+        long hits = regionStats == null ? 0 : regionStats.getHitCount();
+        long misses = regionStats == null ? 0 : regionStats.getMissCount();
+        return new CacheStats(region, hits, misses, size(region));
+    }
+
+    private long size(String region) {
+        Cache<Object, Object> cache = jcacheManager.getCache(region);
+        return cache == null ? 0 : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
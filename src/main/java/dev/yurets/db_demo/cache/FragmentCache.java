@@ -0,0 +1,96 @@
+package dev.yurets.db_demo.cache;
+
+import dev.yurets.db_demo.dto.CacheStats;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-process кеш готових HTML-фрагментів (секції сторінки /viewAll)
+ *
+ * Фрагмент зберігається разом з версіями таблиць, з яких він відрендерений (TableVersions),
+ * так само як довідники в ReferenceDataCache: після зміни таблиці перерендерюються
+ * тільки ті фрагменти, що від неї залежать, решта сторінки береться з пам'яті.
+ *
+ * Ключ фрагмента задає той, хто викликає, і має містити все, від чого залежить HTML,
+ * крім даних (наприклад, роль користувача - від неї залежить колонка "Дії").
+ */
+@Slf4j
+@Component
+public class FragmentCache {
+
+    private final TableVersions tableVersions;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public FragmentCache(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Отримати фрагмент з кешу або відрендерити його, якщо змінилась хоча б одна з таблиць
+     */
+    public String get(String key, Supplier<String> renderer, DataTable... tables) {
+        // Версію беремо ДО рендерингу: якщо таблиця зміниться під час запиту,
+        // наступний виклик побачить нову версію і відрендерить фрагмент ще раз
+        String version = tableVersions.etag(tables);
+        Entry entry = entries.computeIfAbsent(key, Entry::new);
+        Snapshot current = entry.snapshot;
+        if (current != null && current.version.equals(version)) {
+            entry.hits.increment();
+            return current.html;
+        }
+        entry.misses.increment();
+        String html = renderer.get();
+        entry.snapshot = new Snapshot(version, html);
+        log.debug("Фрагмент {} відрендерено: {} символів", key, html.length());
+        return html;
+    }
+
+    /**
+     * Статистика влучань/промахів по кожному фрагменту (size - довжина HTML у символах)
+     */
+    public List<CacheStats> getStats() {
+        return entries.values().stream()
+                .sorted(Comparator.comparing(entry -> entry.key))
+                .map(Entry::stats)
+                .collect(Collectors.toList());
+    }
+
+    private static final class Entry {
+        private final String key;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private volatile Snapshot snapshot;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+
+        private CacheStats stats() {
+            Snapshot current = snapshot;
+            return new CacheStats(key, hits.sum(), misses.sum(), current == null ? 0 : current.html.length());
+        }
+    }
+
+    private static final class Snapshot {
+        private final String version;
+        private final String html;
+
+        private Snapshot(String version, String html) {
+            this.version = version;
+            this.html = html;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.yurets.db_demo.cache;
+
+import dev.yurets.db_demo.dto.LookupItem;
+import dev.yurets.db_demo.dto.ReferenceItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Незмінний індекс для автодоповнення: підписи довідника, відсортовані за нижнім регістром
+ *
+ * Усі підписи з заданим префіксом лежать у масиві підряд, тому пошук - один бінарний
+ * пошук початку діапазону і перегляд тільки тих записів, що повертаються у відповідь.
+ * Будується разом зі знімком довідника в ReferenceDataCache і не змінюється після цього.
+ */
+public final class PrefixIndex {
+
+    private final String[] keys;
+    private final LookupItem[] items;
+
+    public PrefixIndex(List<ReferenceItem> references) {
+        LookupItem[] sorted = references.stream()
+                .map(item -> new LookupItem(item.getId(), label(item)))
+                .sorted(Comparator.comparing((LookupItem item) -> normalize(item.getLabel()))
+                        .thenComparing(LookupItem::getId))
+                .toArray(LookupItem[]::new);
+        this.items = sorted;
+        this.keys = Arrays.stream(sorted).map(item -> normalize(item.getLabel())).toArray(String[]::new);
+    }
+
+    /**
+     * Записи, підпис яких починається з prefix (без урахування регістру), за алфавітом
+     * Порожній або null префікс - перші limit записів
+     */
+    public List<LookupItem> find(String prefix, int limit) {
+        String p = prefix == null ? "" : normalize(prefix);
+        List<LookupItem> result = new ArrayList<>(Math.min(limit, items.length));
+        for (int i = lowerBound(p); i < keys.length && result.size() < limit && keys[i].startsWith(p); i++) {
+            result.add(items[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Підпис як у випадаючих списках webpage.html: "назва (уточнення)"
+     */
+    private static String label(ReferenceItem item) {
+        return item.getDetail() == null ? item.getName() : item.getName() + " (" + item.getDetail() + ")";
+    }
+
+    // Перший індекс, ключ якого не менший за prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
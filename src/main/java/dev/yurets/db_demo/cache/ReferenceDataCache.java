@@ -0,0 +1,168 @@
+package dev.yurets.db_demo.cache;
+
+import dev.yurets.db_demo.dto.CacheStats;
+import dev.yurets.db_demo.dto.LookupItem;
+import dev.yurets.db_demo.dto.ReferenceItem;
+import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.repository.DonorRepository;
+import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.WeaponRepository;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process кеш довідників для випадаючих списків (webpage.html)
+ *
+ * Кожен довідник зберігається разом з версіями таблиць, з яких він побудований (TableVersions).
+ * Сервіси вже викликають tableVersions.bump() після коміту кожного create/update/delete,
+ * тому запис стає недійсним рівно тоді, коли змінюються його таблиці -
+ * окремої інвалідації в сервісах не потрібно.
+ *
+ * Поки таблиці не змінювались, повторне відображення сторінки не робить жодного запиту до БД.
+ *
+ * Разом зі списком будується PrefixIndex для автодоповнення (GET /api/lookup/...).
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    public static final int DEFAULT_LOOKUP_LIMIT = 20;
+    public static final int MAX_LOOKUP_LIMIT = 100;
+
+    private final TableVersions tableVersions;
+
+    private final Entry countries;
+    private final Entry periods;
+    private final Entry weapons;
+    private final Entry donors;
+
+    public ReferenceDataCache(CountryRepository countryRepository,
+                              PeriodRepository periodRepository,
+                              WeaponRepository weaponRepository,
+                              DonorRepository donorRepository,
+                              TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+        // Період і донор показуються з назвою країни, тому залежать і від COUNTRY
+        this.countries = new Entry("countries", countryRepository::findReferenceItems,
+                DataTable.COUNTRY);
+        this.periods = new Entry("periods", periodRepository::findReferenceItems,
+                DataTable.PERIOD, DataTable.COUNTRY);
+        this.weapons = new Entry("weapons", weaponRepository::findReferenceItems,
+                DataTable.WEAPON);
+        this.donors = new Entry("donors", donorRepository::findReferenceItems,
+                DataTable.DONOR, DataTable.COUNTRY);
+    }
+
+    public List<ReferenceItem> getCountries() {
+        return countries.get();
+    }
+
+    public List<ReferenceItem> getPeriods() {
+        return periods.get();
+    }
+
+    public List<ReferenceItem> getWeapons() {
+        return weapons.get();
+    }
+
+    public List<ReferenceItem> getDonors() {
+        return donors.get();
+    }
+
+    // --- Автодоповнення: записи, підпис яких починається з prefix ---
+
+    public List<LookupItem> lookupCountries(String prefix, Integer limit) {
+        return lookup(countries, prefix, limit);
+    }
+
+    public List<LookupItem> lookupPeriods(String prefix, Integer limit) {
+        return lookup(periods, prefix, limit);
+    }
+
+    public List<LookupItem> lookupWeapons(String prefix, Integer limit) {
+        return lookup(weapons, prefix, limit);
+    }
+
+    public List<LookupItem> lookupDonors(String prefix, Integer limit) {
+        return lookup(donors, prefix, limit);
+    }
+
+    /**
+     * Статистика влучань/промахів по кожному довіднику
+     */
+    public List<CacheStats> getStats() {
+        return List.of(countries.stats(), periods.stats(), weapons.stats(), donors.stats());
+    }
+
+    private static List<LookupItem> lookup(Entry entry, String prefix, Integer limit) {
+        int size = limit == null ? DEFAULT_LOOKUP_LIMIT : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("Параметр limit має бути додатним");
+        }
+        return entry.snapshot().index.find(prefix, Math.min(size, MAX_LOOKUP_LIMIT));
+    }
+
+    /**
+     * Довідник з версіями таблиць, на яких він побудований
+     */
+    private final class Entry {
+        private final String name;
+        private final Supplier<List<ReferenceItem>> loader;
+        private final DataTable[] tables;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private volatile Snapshot snapshot;
+
+        private Entry(String name, Supplier<List<ReferenceItem>> loader, DataTable... tables) {
+            this.name = name;
+            this.loader = loader;
+            this.tables = tables;
+        }
+
+        private List<ReferenceItem> get() {
+            return snapshot().items;
+        }
+
+        private Snapshot snapshot() {
+            // Версію беремо ДО завантаження: якщо таблиця зміниться під час запиту,
+            // наступний виклик побачить нову версію і перезавантажить список
+            String version = tableVersions.etag(tables);
+            Snapshot current = snapshot;
+            if (current != null && current.version.equals(version)) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            List<ReferenceItem> items = List.copyOf(loader.get());
+            Snapshot loaded = new Snapshot(version, items, new PrefixIndex(items));
+            snapshot = loaded;
+            log.debug("Довідник {} завантажено з БД: {} записів", name, items.size());
+            return loaded;
+        }
+
+        private CacheStats stats() {
+            Snapshot current = snapshot;
+            return new CacheStats(name, hits.sum(), misses.sum(), current == null ? 0 : current.items.size());
+        }
+    }
+
+    private static final class Snapshot {
+        private final String version;
+        private final List<ReferenceItem> items;
+        private final PrefixIndex index;
+
+        private Snapshot(String version, List<ReferenceItem> items, PrefixIndex index) {
+            this.version = version;
+            this.items = items;
+            this.index = index;
+        }
+    }
+}
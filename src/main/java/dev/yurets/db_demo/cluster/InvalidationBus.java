@@ -0,0 +1,219 @@
+package dev.yurets.db_demo.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Шина інвалідації in-process кешів між екземплярами застосунку (PostgreSQL NOTIFY)
+ *
+ * Кожна зміна сутності (InvalidationEntityListener) додається до набору змін поточної транзакції;
+ * після коміту весь набір відправляється одним pg_notify: "<вузол>;Country:5,Period:7,...".
+ * Інші вузли отримують його через InvalidationSubscriber і скидають свої кеші (LocalCacheEvictor),
+ * власні повідомлення вузол пропускає - його кеші вже оновлені локально.
+ *
+ * Відправка - окремим з'єднанням з пулу: з'єднання транзакції після коміту
+ * ще прив'язане до потоку, і NOTIFY на ньому не був би закомічений.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    // pg_notify приймає до 8000 байт; зміни з великої транзакції розбиваються на кілька повідомлень
+    private static final int MAX_PAYLOAD = 7900;
+
+    private static final String NODE_SEPARATOR = ";";
+    private static final String CHANGE_SEPARATOR = ",";
+
+    // Замість ID: змінились усі записи типу
+    public static final String ALL = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String channel;
+    private final boolean enabled;
+
+    public InvalidationBus(DataSource dataSource,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${app.cluster.invalidation.enabled:true}") boolean enabled,
+                           @Value("${app.cluster.invalidation.channel:db_demo_invalidation}") String channel) {
+        // Назва каналу підставляється в LISTEN без параметрів, тому дозволено тільки ідентифікатор
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Невірна назва каналу інвалідації: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.channel = channel;
+        this.enabled = enabled && isPostgres(dataSource);
+    }
+
+    /**
+     * Чи підключений застосунок саме до PostgreSQL (за з'єднанням, а не за URL у властивостях:
+     * у тестах @DataJpaTest джерело даних підмінене на H2, а spring.datasource.url лишається PostgreSQL)
+     */
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            log.warn("[CLUSTER] Не вдалося визначити тип БД, інвалідацію між вузлами вимкнено: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Повідомити інші вузли про зміну сутності (після коміту поточної транзакції, якщо вона є)
+     */
+    public void publish(Object entity) {
+        if (!enabled) {
+            return;
+        }
+        Object id = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+        add(entity.getClass().getSimpleName() + ":" + id);
+    }
+
+    /**
+     * Повідомити про зміну невідомої кількості записів типу (масові операції в обхід JPA):
+     * інші вузли скидають усі записи цього типу - "WeaponDelivery:*"
+     */
+    public void publishAll(Class<?> entityClass) {
+        if (!enabled) {
+            return;
+        }
+        add(entityClass.getSimpleName() + ":" + ALL);
+    }
+
+    /**
+     * Повідомити про зміну записів за ID без завантаження сутностей (масові UPDATE в обхід JPA)
+     */
+    public void publish(Class<?> entityClass, Collection<Long> ids) {
+        if (!enabled) {
+            return;
+        }
+        ids.forEach(id -> add(entityClass.getSimpleName() + ":" + id));
+    }
+
+    /**
+     * Надіслати готові зміни одразу, без набору поточної транзакції
+     * Для викликів з afterCommit, коли транзакція вже закомічена (зсуви RequestCounters)
+     */
+    public void publishCommitted(Collection<String> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        send(changes);
+    }
+
+    private void add(String change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> changes = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Set<String> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+                }
+            });
+            changes = batch;
+        }
+        changes.add(change);
+    }
+
+    private void send(Collection<String> changes) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads(nodeId, changes)) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            log.debug("[CLUSTER] Надіслано {} змін: {}", changes.size(), changes);
+        } catch (SQLException e) {
+            // Дані вже закомічені - інші вузли побачать їх після TTL кешів або перепідключення
+            log.warn("[CLUSTER] Не вдалося надіслати інвалідацію ({} змін): {}", changes.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Повідомлення для набору змін: "<вузол>;зміна,зміна,..." не довші за MAX_PAYLOAD
+     */
+    public static List<String> payloads(String nodeId, Collection<String> changes) {
+        List<String> payloads = new ArrayList<>();
+        String prefix = nodeId + NODE_SEPARATOR;
+        StringBuilder payload = new StringBuilder(prefix);
+        for (String change : changes) {
+            if (payload.length() > prefix.length()
+                    && payload.length() + CHANGE_SEPARATOR.length() + change.length() > MAX_PAYLOAD) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(prefix);
+            }
+            if (payload.length() > prefix.length()) {
+                payload.append(CHANGE_SEPARATOR);
+            }
+            payload.append(change);
+        }
+        if (payload.length() > prefix.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * Вузол, що надіслав повідомлення
+     */
+    public static String node(String payload) {
+        int separator = payload.indexOf(NODE_SEPARATOR);
+        return separator < 0 ? "" : payload.substring(0, separator);
+    }
+
+    /**
+     * Зміни з повідомлення ("Country:5", ...)
+     */
+    public static List<String> changes(String payload) {
+        String body = payload.substring(payload.indexOf(NODE_SEPARATOR) + 1);
+        return body.isEmpty() ? List.of() : Arrays.asList(body.split(CHANGE_SEPARATOR));
+    }
+}
@@ -0,0 +1,32 @@
+package dev.yurets.db_demo.cluster;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener, що повідомляє інші вузли про зміни сутностей (InvalidationBus)
+ *
+ * Спрацьовує для кожної зміни всередині транзакцій сервісів, включно з каскадними
+ * видаленнями (країна → періоди → зброя → поставки), тож жоден шлях запису не пропускається.
+ * ObjectProvider - бо в JPA-тестах (@DataJpaTest) бін шини відсутній.
+ */
+@Component
+public class InvalidationEntityListener {
+
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+
+    public InvalidationEntityListener(ObjectProvider<InvalidationBus> invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        invalidationBus.ifAvailable(bus -> bus.publish(entity));
+    }
+}
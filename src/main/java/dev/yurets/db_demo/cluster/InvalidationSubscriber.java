@@ -0,0 +1,130 @@
+package dev.yurets.db_demo.cluster;
+
+import dev.yurets.db_demo.config.StartupOrder;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Слухач каналу інвалідації (PostgreSQL LISTEN) - по одному потоку на вузол
+ *
+ * Тримає окреме з'єднання поза пулом (LISTEN діє, поки відкрите з'єднання) і чекає
+ * повідомлень InvalidationBus. Усі повідомлення, що прийшли разом, обробляються
+ * однією пачкою (каскадне видалення на іншому вузлі - один прохід по кешах).
+ *
+ * Після розриву з'єднання слухач перепідключається; повідомлення за час розриву
+ * втрачені, тому після перепідключення скидаються всі локальні кеші.
+ */
+@Slf4j
+@Component
+public class InvalidationSubscriber {
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final InvalidationBus invalidationBus;
+    private final DataSourceProperties dataSourceProperties;
+    private final LocalCacheEvictor localCacheEvictor;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public InvalidationSubscriber(InvalidationBus invalidationBus,
+                                  DataSourceProperties dataSourceProperties,
+                                  LocalCacheEvictor localCacheEvictor) {
+        this.invalidationBus = invalidationBus;
+        this.dataSourceProperties = dataSourceProperties;
+        this.localCacheEvictor = localCacheEvictor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(StartupOrder.SUBSCRIBE)
+    public synchronized void start() {
+        if (!invalidationBus.isEnabled()) {
+            log.info("[CLUSTER] Інвалідацію між вузлами вимкнено (потрібна PostgreSQL)");
+            return;
+        }
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "cluster-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + invalidationBus.getChannel());
+                }
+                log.info("[CLUSTER] Підписано на канал {} (вузол {})",
+                        invalidationBus.getChannel(), invalidationBus.getNodeId());
+                if (reconnect) {
+                    localCacheEvictor.evictAll();
+                }
+                reconnect = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    handle(pgConnection.getNotifications(POLL_TIMEOUT_MS));
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("[CLUSTER] Помилка слухача інвалідації, перепідключення через {} мс: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(PGNotification[] notifications) {
+        if (notifications == null || notifications.length == 0) {
+            return;
+        }
+        // Список, а не множина: однакові зсуви лічильників з різних транзакцій мають застосуватись обидва
+        List<String> changes = new ArrayList<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            // Власні зміни вже застосовані локально
+            if (!invalidationBus.getNodeId().equals(InvalidationBus.node(payload))) {
+                changes.addAll(InvalidationBus.changes(payload));
+            }
+        }
+        if (!changes.isEmpty()) {
+            localCacheEvictor.evict(changes);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package dev.yurets.db_demo.cluster;
+
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.ApiToken;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.model.User;
+import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.search.SearchIndexLoader;
+import dev.yurets.db_demo.security.ApiTokenIndex;
+import dev.yurets.db_demo.security.CachingAuthenticationProvider;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Скидає in-process кеші цього вузла після змін, зроблених на іншому вузлі
+ *
+ * Порядок важливий: спочатку кеш другого рівня Hibernate (сутності та запити),
+ * потім похідні структури, що перечитують БД, і тільки в кінці - версії таблиць.
+ * Інакше ReferenceDataCache / FragmentCache / ETag побачать нову версію
+ * і перезавантажаться зі старого кешу сутностей.
+ */
+@Slf4j
+@Component
+public class LocalCacheEvictor {
+
+    // Назва класу в повідомленні (InvalidationBus) → сутність
+    private static final Map<String, Class<?>> ENTITIES = Map.of(
+            "Country", Country.class,
+            "Period", Period.class,
+            "Weapon", Weapon.class,
+            "Donor", Donor.class,
+            "WeaponDelivery", WeaponDelivery.class,
+            "AidRequest", AidRequest.class,
+            "User", User.class,
+            "ApiToken", ApiToken.class);
+
+    private static final Map<Class<?>, DataTable> TABLES = Map.of(
+            Country.class, DataTable.COUNTRY,
+            Period.class, DataTable.PERIOD,
+            Weapon.class, DataTable.WEAPON,
+            Donor.class, DataTable.DONOR,
+            WeaponDelivery.class, DataTable.DELIVERY,
+            AidRequest.class, DataTable.REQUEST,
+            User.class, DataTable.USER);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TableVersions tableVersions;
+    private final SearchIndexLoader searchIndexLoader;
+    private final ApiTokenIndex apiTokenIndex;
+    private final RequestCounters requestCounters;
+    private final ObjectProvider<CachingAuthenticationProvider> authenticationProvider;
+
+    public LocalCacheEvictor(EntityManagerFactory entityManagerFactory,
+                             TableVersions tableVersions,
+                             SearchIndexLoader searchIndexLoader,
+                             ApiTokenIndex apiTokenIndex,
+                             RequestCounters requestCounters,
+                             ObjectProvider<CachingAuthenticationProvider> authenticationProvider) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tableVersions = tableVersions;
+        this.searchIndexLoader = searchIndexLoader;
+        this.apiTokenIndex = apiTokenIndex;
+        this.requestCounters = requestCounters;
+        this.authenticationProvider = authenticationProvider;
+    }
+
+    /**
+     * Застосувати зміни з інших вузлів ("Country:5", ...); невідомі записи пропускаються
+     */
+    public void evict(Collection<String> changes) {
+        Map<Class<?>, Set<Long>> ids = new LinkedHashMap<>();
+        // Типи, змінені масово ("WeaponDelivery:*"): окремі ID для них не потрібні
+        Set<Class<?>> all = new LinkedHashSet<>();
+        for (String change : changes) {
+            if (change.startsWith(RequestCounters.CHANGE_PREFIX)) {
+                requestCounters.applyRemote(change);
+                continue;
+            }
+            int separator = change.lastIndexOf(':');
+            Class<?> type = separator < 0 ? null : ENTITIES.get(change.substring(0, separator));
+            if (type != null && change.substring(separator + 1).equals(InvalidationBus.ALL)) {
+                all.add(type);
+                continue;
+            }
+            Long id = type == null ? null : parseId(change.substring(separator + 1));
+            if (id == null) {
+                log.debug("[CLUSTER] Невідома зміна: {}", change);
+                continue;
+            }
+            ids.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(id);
+        }
+        all.forEach(ids::remove);
+        if (ids.isEmpty() && all.isEmpty()) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        ids.forEach((type, set) -> set.forEach(id -> cache.evict(type, id)));
+        all.forEach(cache::evict);
+        // Результати кешованих запитів (findAll, findByCountryId...) могли змінитись від будь-якої зміни
+        cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+
+        if (all.isEmpty()) {
+            ids.forEach((type, set) -> set.forEach(id -> searchIndexLoader.reindex(type, id)));
+        } else {
+            searchIndexLoader.rebuild();
+        }
+        all.forEach(type -> ids.put(type, Set.of()));
+        if (ids.containsKey(User.class)) {
+            authenticationProvider.ifAvailable(CachingAuthenticationProvider::invalidateAll);
+        }
+        if (ids.containsKey(User.class) || ids.containsKey(ApiToken.class)) {
+            apiTokenIndex.load();
+        }
+        // Окремі запити лічильники отримують зсувами (RequestCount:...), повне перерахування - тільки для масових змін
+        if (all.contains(AidRequest.class)) {
+            requestCounters.load();
+        }
+
+        Set<DataTable> tables = EnumSet.noneOf(DataTable.class);
+        for (Class<?> type : ids.keySet()) {
+            DataTable table = TABLES.get(type);
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        tableVersions.bump(tables.toArray(new DataTable[0]));
+        log.info("[CLUSTER] Застосовано зміни з інших вузлів: {}", tables);
+    }
+
+    /**
+     * Скинути все: після перепідключення повідомлення за час розриву могли бути втрачені
+     */
+    public void evictAll() {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+        searchIndexLoader.rebuild();
+        authenticationProvider.ifAvailable(CachingAuthenticationProvider::invalidateAll);
+        apiTokenIndex.load();
+        requestCounters.load();
+        tableVersions.bump(DataTable.values());
+        log.info("[CLUSTER] Усі локальні кеші скинуто");
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dev.yurets.db_demo.coalescing;
+
+import dev.yurets.db_demo.version.DataTable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Однакові одночасні виклики методу сервісу виконуються один раз (single-flight)
+ *
+ * Поки перший виклик з тими самими аргументами читає БД, решта чекають і отримують
+ * той самий результат (той самий об'єкт - змінювати його викликачам не можна).
+ * Тому позначати варто тільки методи, що повертають read-моделі, а не керовані сутності.
+ *
+ * tables - таблиці, з яких читає метод: виклик, що почався після коміту зміни
+ * цих таблиць, не приєднується до читання, розпочатого до коміту.
+ *
+ * Вмикається/вимикається для кожного методу окремо: app.coalescing.<value>.enabled
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalesced {
+
+    /**
+     * Назва для налаштувань і статистики (GET /api/cache/coalescing)
+     */
+    String value();
+
+    DataTable[] tables();
+}
@@ -0,0 +1,119 @@
+package dev.yurets.db_demo.coalescing;
+
+import dev.yurets.db_demo.dto.CoalescingStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight для методів з @Coalesced
+ *
+ * Перший виклик з даним ключем виконує читання, наступні (поки воно триває) чекають
+ * на його результат або виняток. Після завершення ключ звільняється - результат
+ * не кешується, наступний виклик знову читає БД.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final Environment environment;
+    private final boolean enabledByDefault;
+
+    // Назва методу (@Coalesced.value) → читання, що зараз виконуються, і лічильники
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(Environment environment) {
+        this.environment = environment;
+        this.enabledByDefault = environment.getProperty("app.coalescing.enabled", Boolean.class, true);
+    }
+
+    /**
+     * Виконати flight або приєднатися до вже розпочатого з тим самим ключем
+     */
+    public Object execute(String name, Object key, Flight flight) throws Throwable {
+        Target target = targets.computeIfAbsent(name, this::target);
+        target.calls.increment();
+        if (!target.enabled) {
+            target.executions.increment();
+            return flight.run();
+        }
+
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = target.inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            target.coalesced.increment();
+            return await(running);
+        }
+
+        target.executions.increment();
+        try {
+            Object result = flight.run();
+            own.complete(result);
+            return result;
+        } catch (Throwable e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            target.inFlight.remove(key, own);
+        }
+    }
+
+    public List<CoalescingStats> getStats() {
+        List<CoalescingStats> stats = new ArrayList<>();
+        targets.forEach((name, target) -> {
+            long calls = target.calls.sum();
+            long coalesced = target.coalesced.sum();
+            stats.add(new CoalescingStats(name, target.enabled, calls, target.executions.sum(), coalesced,
+                    calls == 0 ? 0 : (double) coalesced / calls));
+        });
+        stats.sort(Comparator.comparing(CoalescingStats::getName));
+        return stats;
+    }
+
+    private Target target(String name) {
+        boolean enabled = environment.getProperty("app.coalescing." + name + ".enabled", Boolean.class, enabledByDefault);
+        log.info("[COALESCING] {}: {}", name, enabled ? "увімкнено" : "вимкнено");
+        return new Target(enabled);
+    }
+
+    private static Object await(CompletableFuture<Object> running) throws Throwable {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            // Той самий виняток, що отримав виконавець (наприклад, IllegalArgumentException → 400)
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Очікування результату перервано", e);
+        }
+    }
+
+    /**
+     * Читання, результат якого можна розділити між викликачами
+     */
+    @FunctionalInterface
+    public interface Flight {
+        Object run() throws Throwable;
+    }
+
+    private static final class Target {
+        private final boolean enabled;
+        private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+
+        private Target(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.yurets.db_demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.model.Period;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Конфігурація кешу другого рівня Hibernate (JCache + Caffeine)
+ *
+ * Кешуються сутності, що змінюються рідко, але постійно читаються через findById
+ * і ліниві зв'язки: Country, Period, Donor (+ кеш запитів для їхніх finder-методів).
+ * Кожен регіон створюється тут явно з обмеженим розміром і TTL;
+ * регіон без конфігурації - помилка старту (missing_cache_strategy=fail).
+ *
+ * Статистика: GET /api/cache/entities
+ */
+@Configuration
+public class CacheConfig {
+
+    // Регіони сутностей - за замовчуванням Hibernate називає їх повним іменем класу
+    public static final List<String> ENTITY_REGIONS = List.of(
+            Country.class.getName(), Period.class.getName(), Donor.class.getName());
+
+    public static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Value("${app.cache.entity.max-size:10000}")
+    private long entityMaxSize;
+
+    @Value("${app.cache.entity.ttl:30m}")
+    private Duration entityTtl;
+
+    @Value("${app.cache.query.max-size:1000}")
+    private long queryMaxSize;
+
+    @Value("${app.cache.query.ttl:5m}")
+    private Duration queryTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jcacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Власний менеджер для кожного контексту Spring: тести піднімають кілька контекстів в одній JVM
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("db-demo:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, configuration(entityMaxSize, entityTtl));
+        }
+        cacheManager.createCache(QUERY_REGION, configuration(queryMaxSize, queryTtl));
+        // Мітки часу оновлення таблиць не можна витісняти: інакше кеш запитів поверне застарілі дані
+        cacheManager.createCache(TIMESTAMPS_REGION, configuration(0, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager jcacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, jcacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Лічильники влучань/промахів для /api/cache/entities (без журналу метрик кожної сесії)
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    /**
+     * maxSize = 0 та ttl = null - без обмежень
+     */
+    private static CaffeineConfiguration<Object, Object> configuration(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate кладе в кеш незмінні CacheEntry - копіювати їх при кожному зверненні не потрібно
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,57 @@
+package dev.yurets.db_demo.config;
+
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.coalescing.RequestCoalescer;
+import dev.yurets.db_demo.version.TableVersions;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Конфігурація об'єднання однакових одночасних читань (@Coalesced)
+ *
+ * Advisor стоїть перед транзакцією методу: ті, хто чекає на чужий результат,
+ * не відкривають транзакцію і не займають з'єднання з пулу.
+ * Виклики всередині вже відкритої транзакції не об'єднуються - вони мають бачити
+ * власні незакомічені зміни та знімок своєї транзакції (наприклад, BundleService).
+ */
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescingAdvisor(ObjectProvider<RequestCoalescer> coalescer,
+                                            ObjectProvider<TableVersions> tableVersions) {
+        MethodInterceptor interceptor = invocation -> {
+            Coalesced coalesced = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), Coalesced.class);
+            if (coalesced == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+                return invocation.proceed();
+            }
+            // Версії таблиць у ключі: після коміту зміни починається нове читання
+            List<Object> key = List.of(tableVersions.getObject().etag(coalesced.tables()),
+                    Arrays.asList(invocation.getArguments()));
+            return coalescer.getObject().execute(coalesced.value(), key, invocation::proceed);
+        };
+
+        StaticMethodMatcherPointcutAdvisor advisor = new StaticMethodMatcherPointcutAdvisor(interceptor) {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return AnnotatedElementUtils.hasAnnotation(method, Coalesced.class);
+            }
+        };
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
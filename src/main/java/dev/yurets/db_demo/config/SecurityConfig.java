@@ -1,29 +1,44 @@
 package dev.yurets.db_demo.config;
 
+import dev.yurets.db_demo.security.ApiTokenAuthenticationFilter;
+import dev.yurets.db_demo.security.ApiTokenIndex;
+import dev.yurets.db_demo.security.CachingAuthenticationProvider;
 import dev.yurets.db_demo.service.MyUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 /**
  * Конфігурація Spring Security
  * - BCrypt для хешування паролів
  * - Розмежування доступу за ролями
+ * - Кеш успішних перевірок пароля для HTTP Basic (CachingAuthenticationProvider)
+ * - Персональні API-токени (Authorization: Bearer) перед HTTP Basic
+ * - @PreAuthorize на методах контролерів (scope токена USER не може змінювати дані)
  */
 @Configuration
 @EnableWebSecurity
+@EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
     private final MyUserDetailsService userDetailsService;
+    private final ApiTokenIndex apiTokenIndex;
 
-    public SecurityConfig(MyUserDetailsService userDetailsService) {
+    public SecurityConfig(MyUserDetailsService userDetailsService, ApiTokenIndex apiTokenIndex) {
         this.userDetailsService = userDetailsService;
+        this.apiTokenIndex = apiTokenIndex;
     }
 
     @Bean
@@ -41,6 +56,9 @@ public class SecurityConfig {
                         // Публічні сторінки (доступні всім)
                         .antMatchers("/login", "/css/**", "/js/**", "/images/**", "/error/**").permitAll()
 
+                        // Проби для балансувальника / HEALTHCHECK (liveness, readiness)
+                        .antMatchers("/actuator/health", "/actuator/health/**").permitAll()
+
                         // REST API корінь (інформація про endpoints) - доступний всім
                         .antMatchers("/api").permitAll()
 
@@ -70,6 +88,9 @@ public class SecurityConfig {
                 .httpBasic()
                 .and()
 
+                // API-токени для машинних клієнтів: без запиту до БД і без BCrypt
+                .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenIndex), BasicAuthenticationFilter.class)
+
                 // Налаштування виходу
                 .logout(logout -> logout
                         .permitAll()
@@ -85,6 +106,20 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * Єдиний провайдер автентифікації (і для форми логіну, і для HTTP Basic):
+     * перевірка через БД + BCrypt, результат кешується на app.security.credential-cache.ttl
+     */
+    @Bean
+    public CachingAuthenticationProvider authenticationProvider(
+            @Value("${app.security.credential-cache.ttl:5m}") Duration ttl,
+            @Value("${app.security.credential-cache.max-size:1000}") long maxSize) {
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setUserDetailsService(userDetailsService);
+        dao.setPasswordEncoder(passwordEncoder());
+        return new CachingAuthenticationProvider(dao, ttl, maxSize);
+    }
+
     /**
      * BCrypt Password Encoder (10 раундів хешування)
      * ВАЖЛИВО: Використовуємо BCrypt, а не Base64!
@@ -0,0 +1,20 @@
+package dev.yurets.db_demo.config;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Порядок слухачів ApplicationReadyEvent (@Order на методах з @EventListener)
+ *
+ * Без явного @Order усі слухачі мають LOWEST_PRECEDENCE і виконуються в порядку реєстрації бінів.
+ * Спочатку підписка на зміни інших вузлів (щоб не пропустити повідомлення під час завантаження),
+ * потім in-memory структури з БД, прогрів - останнім: він читає вже наповнені індекс і лічильники.
+ */
+public final class StartupOrder {
+
+    public static final int SUBSCRIBE = Ordered.HIGHEST_PRECEDENCE;
+    public static final int LOAD = Ordered.HIGHEST_PRECEDENCE + 100;
+    public static final int WARMUP = Ordered.LOWEST_PRECEDENCE;
+
+    private StartupOrder() {
+    }
+}
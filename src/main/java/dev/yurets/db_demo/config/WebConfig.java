@@ -0,0 +1,27 @@
+package dev.yurets.db_demo.config;
+
+import dev.yurets.db_demo.version.ConditionalGetInterceptor;
+import dev.yurets.db_demo.version.TableVersions;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфігурація Spring MVC
+ * - Умовні GET-запити (ETag / Last-Modified) для REST API
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TableVersions tableVersions;
+
+    public WebConfig(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(tableVersions))
+                .addPathPatterns("/api/**");
+    }
+}
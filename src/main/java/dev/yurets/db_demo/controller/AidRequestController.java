@@ -5,6 +5,7 @@ import dev.yurets.db_demo.service.AidRequestService;
 import dev.yurets.db_demo.service.CountryService;
 import dev.yurets.db_demo.service.PeriodService;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -85,9 +86,11 @@ public class AidRequestController {
     /**
      * UPDATE: Оновити існуючий запит
      * POST /updateRequest
+     * version - приховане поле форми: версія, з якою форму відкрили
      */
     @PostMapping("/updateRequest")
     public String updateRequest(@RequestParam Long id,
+                                @RequestParam(required = false) Long version,
                                 @RequestParam String weaponType,
                                 @RequestParam String weaponName,
                                 @RequestParam Integer requestedQuantity,
@@ -98,7 +101,7 @@ public class AidRequestController {
                                 @RequestParam Long periodId,
                                 RedirectAttributes redirectAttributes) {
         try {
-            requestService.updateRequest(id, weaponType, weaponName, requestedQuantity,
+            requestService.updateRequest(id, version, weaponType, weaponName, requestedQuantity,
                     priority, requestReason, requestingCountryId, donorCountryId, periodId);
             redirectAttributes.addFlashAttribute("message", "Запит успішно оновлено!");
             return "redirect:/";
@@ -106,6 +109,10 @@ public class AidRequestController {
             log.error("Помилка при оновленні запиту: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("error", "Помилка: " + e.getMessage());
             return "redirect:/editRequest/" + id;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Конфлікт версій при оновленні запиту: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Запис щойно змінив інший користувач - оновіть сторінку та повторіть");
+            return "redirect:/editRequest/" + id;
         } catch (Exception e) {
             log.error("Несподівана помилка при оновленні запиту", e);
             redirectAttributes.addFlashAttribute("error", "Виникла несподівана помилка");
@@ -115,16 +122,22 @@ public class AidRequestController {
 
     /**
      * APPROVE: Схвалити запит
-     * GET /approveRequest/{id}
+     * GET /approveRequest/{id}?version=
+     * version - версія запиту на момент показу сторінки: якщо його вже змінили, схвалення не виконується
      */
     @GetMapping("/approveRequest/{id}")
-    public String approveRequest(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+    public String approveRequest(@PathVariable Long id,
+                                 @RequestParam(required = false) Long version,
+                                 RedirectAttributes redirectAttributes) {
         try {
-            requestService.approveRequest(id);
+            requestService.approveRequest(id, version);
             redirectAttributes.addFlashAttribute("message", "✅ Запит схвалено!");
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.error("Помилка при схваленні запиту: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("error", "Помилка: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Конфлікт версій при схваленні запиту: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Запис щойно змінив інший користувач - оновіть сторінку та повторіть");
         } catch (Exception e) {
             log.error("Несподівана помилка при схваленні запиту", e);
             redirectAttributes.addFlashAttribute("error", "Виникла помилка при схваленні запиту");
@@ -134,18 +147,22 @@ public class AidRequestController {
 
     /**
      * REJECT: Відхилити запит
-     * POST /rejectRequest/{id}
+     * POST /rejectRequest/{id}?version=
      */
     @PostMapping("/rejectRequest/{id}")
     public String rejectRequest(@PathVariable Long id,
+                                @RequestParam(required = false) Long version,
                                 @RequestParam String rejectionReason,
                                 RedirectAttributes redirectAttributes) {
         try {
-            requestService.rejectRequest(id, rejectionReason);
+            requestService.rejectRequest(id, version, rejectionReason);
             redirectAttributes.addFlashAttribute("message", "❌ Запит відхилено");
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.error("Помилка при відхиленні запиту: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("error", "Помилка: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Конфлікт версій при відхиленні запиту: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Запис щойно змінив інший користувач - оновіть сторінку та повторіть");
         } catch (Exception e) {
             log.error("Несподівана помилка при відхиленні запиту", e);
             redirectAttributes.addFlashAttribute("error", "Виникла помилка при відхиленні запиту");
@@ -12,7 +12,7 @@ import dev.yurets.db_demo.service.DonorService;
 import dev.yurets.db_demo.service.PeriodService;
 import dev.yurets.db_demo.service.WeaponDeliveryService;
 import dev.yurets.db_demo.service.WeaponService;
-import dev.yurets.db_demo.repository.UserRepository;
+import dev.yurets.db_demo.search.SearchQuery;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -21,11 +21,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Головний контролер
  * Відповідає за відображення головної сторінки з усіма даними
+ * (сторінка перегляду /viewAll - ViewTablesController)
  */
 @Slf4j
 @Controller
@@ -36,7 +36,6 @@ public class MainController {
     private final WeaponService weaponService;
     private final DonorService donorService;
     private final WeaponDeliveryService deliveryService;
-    private final UserRepository userRepository;
     private final AidRequestService requestService;
 
     public MainController(CountryService countryService,
@@ -44,14 +43,12 @@ public class MainController {
                           WeaponService weaponService,
                           DonorService donorService,
                           WeaponDeliveryService deliveryService,
-                          UserRepository userRepository,
                           AidRequestService requestService) {
         this.countryService = countryService;
         this.periodService = periodService;
         this.weaponService = weaponService;
         this.donorService = donorService;
         this.deliveryService = deliveryService;
-        this.userRepository = userRepository;
         this.requestService = requestService;
     }
 
@@ -60,7 +57,7 @@ public class MainController {
      * GET /
      *
      * ТІЛЬКИ ДЛЯ ADMIN!
-     * Завантажує всі дані з БД через сервіси і передає їх у HTML-шаблон.
+     * Виконує пошук по кожній секції в БД (до SearchQuery.LIMIT результатів) і передає їх у HTML-шаблон.
      */
     @GetMapping("/")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -74,75 +71,48 @@ public class MainController {
 
         log.info("[WEB] Завантаження головної сторінки (CRUD) - доступ ADMIN");
 
-        // Отримання всіх даних
-        List<Country> countries = countryService.getAllCountries();
-        List<Period> periods = periodService.getAllPeriods();
-        List<Weapon> weapons = weaponService.getAllWeapons();
-        List<Donor> donors = donorService.getAllDonors();
-        List<WeaponDelivery> deliveries = deliveryService.getAllDeliveries();
-        List<AidRequest> requests = requestService.getAllRequests();
+        // Списки показуються на сторінці тільки як результати пошуку,
+        // тому кожна секція робить запит до БД лише тоді, коли задано пошуковий запит
+        List<Country> countries = List.of();
+        List<Period> periods = List.of();
+        List<Weapon> weapons = List.of();
+        List<Donor> donors = List.of();
+        List<WeaponDelivery> deliveries = List.of();
+        List<AidRequest> requests = List.of();
 
         // Пошук країн
-        if (searchCountry != null && !searchCountry.trim().isEmpty()) {
-            String query = searchCountry.toLowerCase().trim();
-            countries = countries.stream()
-                    .filter(c -> c.getName().toLowerCase().contains(query))
-                    .collect(Collectors.toList());
+        if (SearchQuery.isPresent(searchCountry)) {
+            countries = countryService.searchCountries(searchCountry);
             model.addAttribute("searchCountry", searchCountry);
         }
 
         // Пошук періодів
-        if (searchPeriod != null && !searchPeriod.trim().isEmpty()) {
-            String query = searchPeriod.toLowerCase().trim();
-            periods = periods.stream()
-                    .filter(p -> p.getPeriodName().toLowerCase().contains(query) ||
-                            p.getCountry().getName().toLowerCase().contains(query))
-                    .collect(Collectors.toList());
+        if (SearchQuery.isPresent(searchPeriod)) {
+            periods = periodService.searchPeriods(searchPeriod);
             model.addAttribute("searchPeriod", searchPeriod);
         }
 
         // Пошук зброї
-        if (searchWeapon != null && !searchWeapon.trim().isEmpty()) {
-            String query = searchWeapon.toLowerCase().trim();
-            weapons = weapons.stream()
-                    .filter(w -> w.getWeaponName().toLowerCase().contains(query) ||
-                            w.getWeaponType().toLowerCase().contains(query))
-                    .collect(Collectors.toList());
+        if (SearchQuery.isPresent(searchWeapon)) {
+            weapons = weaponService.searchWeapons(searchWeapon);
             model.addAttribute("searchWeapon", searchWeapon);
         }
 
         // Пошук донорів
-        if (searchDonor != null && !searchDonor.trim().isEmpty()) {
-            String query = searchDonor.toLowerCase().trim();
-            donors = donors.stream()
-                    .filter(d -> d.getOrganizationName().toLowerCase().contains(query) ||
-                            d.getOrganizationType().toLowerCase().contains(query))
-                    .collect(Collectors.toList());
+        if (SearchQuery.isPresent(searchDonor)) {
+            donors = donorService.searchDonors(searchDonor);
             model.addAttribute("searchDonor", searchDonor);
         }
 
         // Пошук поставок
-        if (searchDelivery != null && !searchDelivery.trim().isEmpty()) {
-            String query = searchDelivery.toLowerCase().trim();
-            deliveries = deliveries.stream()
-                    .filter(d -> d.getWeapon().getWeaponName().toLowerCase().contains(query) ||
-                            d.getDonor().getOrganizationName().toLowerCase().contains(query) ||
-                            d.getDeliveryStatus().toLowerCase().contains(query))
-                    .collect(Collectors.toList());
+        if (SearchQuery.isPresent(searchDelivery)) {
+            deliveries = deliveryService.searchDeliveries(searchDelivery);
             model.addAttribute("searchDelivery", searchDelivery);
         }
 
-        // Пошук запитів (НОВИЙ)
-        if (searchRequest != null && !searchRequest.trim().isEmpty()) {
-            String query = searchRequest.toLowerCase().trim();
-            requests = requests.stream()
-                    .filter(r -> r.getWeaponName().toLowerCase().contains(query) ||
-                            r.getWeaponType().toLowerCase().contains(query) ||
-                            r.getRequestingCountry().getName().toLowerCase().contains(query) ||
-                            (r.getDonorCountry() != null && r.getDonorCountry().getName().toLowerCase().contains(query)) ||
-                            r.getStatus().toLowerCase().contains(query) ||
-                            r.getPriority().toLowerCase().contains(query))
-                    .collect(Collectors.toList());
+        // Пошук запитів
+        if (SearchQuery.isPresent(searchRequest)) {
+            requests = requestService.searchRequests(searchRequest);
             model.addAttribute("searchRequest", searchRequest);
         }
 
@@ -155,26 +125,4 @@ public class MainController {
 
         return "webpage";
     }
-
-    /**
-     * Сторінка перегляду таблиць (тільки Read)
-     * GET /viewAll
-     *
-     * ДОСТУПНО ДЛЯ USER ТА ADMIN
-     * Завантажує всі дані з БД для відображення без можливості редагування.
-     */
-    @GetMapping("/viewAll")
-    public String viewTables(Model model) {
-        log.info("[WEB] Завантаження сторінки перегляду таблиць");
-
-        model.addAttribute("countries", countryService.getAllCountries());
-        model.addAttribute("periods", periodService.getAllPeriods());
-        model.addAttribute("weapons", weaponService.getAllWeapons());
-        model.addAttribute("donors", donorService.getAllDonors());
-        model.addAttribute("deliveries", deliveryService.getAllDeliveries());
-        model.addAttribute("users", userRepository.findAll());
-        model.addAttribute("requests", requestService.getAllRequests());
-
-        return "view-tables";
-    }
 }
\ No newline at end of file
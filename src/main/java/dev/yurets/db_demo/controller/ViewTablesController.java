@@ -0,0 +1,103 @@
+package dev.yurets.db_demo.controller;
+
+import dev.yurets.db_demo.cache.FragmentCache;
+import dev.yurets.db_demo.service.ViewTablesService;
+import dev.yurets.db_demo.service.ViewTablesService.Section;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Контролер сторінки перегляду таблиць (тільки Read)
+ *
+ * Сторінка збирається з готових HTML-фрагментів: кожна секція (ViewTablesService.Section)
+ * рендериться окремо з view-tables-sections.html і кешується за версіями своїх таблиць.
+ * Поки дані не змінювались, повторний перегляд не робить жодного запиту до БД.
+ */
+@Slf4j
+@Controller
+public class ViewTablesController {
+
+    private static final String SECTIONS_TEMPLATE = "view-tables-sections";
+
+    private final ViewTablesService viewTablesService;
+    private final FragmentCache fragmentCache;
+    private final ITemplateEngine templateEngine;
+
+    public ViewTablesController(ViewTablesService viewTablesService,
+                                FragmentCache fragmentCache,
+                                ITemplateEngine templateEngine) {
+        this.viewTablesService = viewTablesService;
+        this.fragmentCache = fragmentCache;
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Сторінка перегляду таблиць
+     * GET /viewAll
+     *
+     * ДОСТУПНО ДЛЯ USER ТА ADMIN
+     * ADMIN бачить колонку "Дії" та секцію користувачів, тому фрагменти кешуються окремо для кожної ролі.
+     */
+    @GetMapping("/viewAll")
+    public String viewTables(Authentication authentication,
+                             HttpServletRequest request,
+                             HttpServletResponse response,
+                             Model model) {
+        log.info("[WEB] Завантаження сторінки перегляду таблиць");
+
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ADMIN".equals(authority.getAuthority()));
+
+        List<String> sections = new ArrayList<>();
+        for (Section section : Section.values()) {
+            if (section.isAdminOnly() && !admin) {
+                continue;
+            }
+            String key = section.getName() + (admin ? ":admin" : ":user");
+            sections.add(fragmentCache.get(key,
+                    () -> render(section, admin, request, response), section.getTables()));
+        }
+        model.addAttribute("sections", sections);
+
+        return "view-tables";
+    }
+
+    /**
+     * Відрендерити одну секцію (викликається тільки при промаху кешу)
+     */
+    private String render(Section section, boolean admin, HttpServletRequest request, HttpServletResponse response) {
+        Map<String, Object> variables = Map.of(
+                section.getName(), viewTablesService.load(section),
+                "admin", admin);
+        // Посилання у фрагменті спільні для всіх користувачів - без ;jsessionid у URL
+        WebContext context = new WebContext(request, new NoUrlRewriting(response),
+                request.getServletContext(), LocaleContextHolder.getLocale(), variables);
+        return templateEngine.process(SECTIONS_TEMPLATE, Set.of(section.getName()), context);
+    }
+
+    private static final class NoUrlRewriting extends HttpServletResponseWrapper {
+
+        private NoUrlRewriting(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+    }
+}
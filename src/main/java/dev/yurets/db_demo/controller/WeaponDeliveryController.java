@@ -6,6 +6,7 @@ import dev.yurets.db_demo.service.WeaponDeliveryService;
 import dev.yurets.db_demo.service.WeaponService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -86,9 +87,11 @@ public class WeaponDeliveryController {
     /**
      * UPDATE: Оновити існуючу поставку
      * POST /updateDelivery
+     * version - приховане поле форми: версія, з якою форму відкрили
      */
     @PostMapping("/updateDelivery")
     public String updateDelivery(@RequestParam Long id,
+                                 @RequestParam(required = false) Long version,
                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deliveryDate,
                                  @RequestParam Integer quantityDelivered,
                                  @RequestParam String deliveryStatus,
@@ -97,7 +100,7 @@ public class WeaponDeliveryController {
                                  @RequestParam Long donorId,
                                  RedirectAttributes redirectAttributes) {
         try {
-            deliveryService.updateDelivery(id, deliveryDate, quantityDelivered,
+            deliveryService.updateDelivery(id, version, deliveryDate, quantityDelivered,
                     deliveryStatus, trackingNumber, weaponId, donorId);
             redirectAttributes.addFlashAttribute("message", "Поставку успішно оновлено!");
             return "redirect:/";
@@ -109,6 +112,10 @@ public class WeaponDeliveryController {
             log.error("Помилка БД при оновленні поставки: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("error", "Помилка бази даних");
             return "redirect:/editDelivery/" + id;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Конфлікт версій при оновленні поставки: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Запис щойно змінив інший користувач - оновіть сторінку та повторіть");
+            return "redirect:/editDelivery/" + id;
         } catch (Exception e) {
             log.error("Несподівана помилка при оновленні поставки", e);
             redirectAttributes.addFlashAttribute("error", "Виникла несподівана помилка");
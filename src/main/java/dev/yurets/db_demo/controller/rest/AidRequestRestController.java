@@ -1,11 +1,24 @@
 package dev.yurets.db_demo.controller.rest;
 
+import dev.yurets.db_demo.bulk.RequestTransitionService;
+import dev.yurets.db_demo.dto.AidRequestView;
+import dev.yurets.db_demo.dto.RequestStats;
+import dev.yurets.db_demo.dto.TransitionReport;
 import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.service.AidRequestService;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -14,49 +27,124 @@ import java.util.List;
  * REST API контролер для роботи із запитами на допомогу
  *
  * Endpoints:
- * GET    /api/requests              - Отримати всі запити
+ * GET    /api/requests              - Отримати всі запити (?limit=&after= - посторінково)
+ * GET    /api/requests?stream=...   - Потоковий експорт всіх запитів (json або ndjson; разом з ?ids= - 400)
+ * GET    /api/requests?ids=1,2,3    - Отримати кілька запитів за ID
  * GET    /api/requests/{id}         - Отримати запит за ID
  * GET    /api/requests/status/{s}   - Отримати запити за статусом
  * GET    /api/requests/priority/{p} - Отримати запити за пріоритетом
+ * GET    /api/requests/stats        - Кількість запитів за статусом, пріоритетом і країною
  * POST   /api/requests              - Створити новий запит (тільки ADMIN)
  * PUT    /api/requests/{id}         - Оновити запит (тільки ADMIN)
  * PUT    /api/requests/{id}/approve - Схвалити запит (тільки ADMIN)
  * PUT    /api/requests/{id}/reject  - Відхилити запит (тільки ADMIN)
+ *        (PUT приймають If-Match: "<version>" - поле version з GET /api/requests/{id} або попереднього PUT;
+ *        інша версія - 412, паралельна зміна або
+ *        недозволений перехід статусу - 409)
+ * POST   /api/requests/bulk/{action} - Масово схвалити / відхилити / позначити доставленими (тільки ADMIN)
  * DELETE /api/requests/{id}         - Видалити запит (тільки ADMIN)
  */
 @Slf4j
 @RestController
+@VersionedBy({DataTable.REQUEST, DataTable.COUNTRY, DataTable.PERIOD})
 @RequestMapping("/api/requests")
 public class AidRequestRestController {
 
     private final AidRequestService requestService;
-
-    public AidRequestRestController(AidRequestService requestService) {
+    private final ObjectMapper objectMapper;
+    private final RequestCounters requestCounters;
+    private final RequestTransitionService transitionService;
+
+    public AidRequestRestController(AidRequestService requestService,
+                                    ObjectMapper objectMapper,
+                                    RequestCounters requestCounters,
+                                    RequestTransitionService transitionService) {
         this.requestService = requestService;
+        this.objectMapper = objectMapper;
+        this.requestCounters = requestCounters;
+        this.transitionService = transitionService;
     }
 
     /**
      * GET /api/requests
      * Отримати список всіх запитів
+     * З параметрами ?limit=N[&after=курсор] - keyset-пагінація:
+     * курсор наступної сторінки повертається в заголовках X-Next-Cursor та Link
      * Доступ: USER, ADMIN
      */
     @GetMapping
-    public ResponseEntity<List<AidRequest>> getAllRequests() {
+    public ResponseEntity<List<AidRequestView>> getAllRequests(@RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String fields) {
+        if (after != null || limit != null) {
+            log.info("[REST API] GET /api/requests?after={}&limit={} - Сторінка запитів", after, limit);
+            try {
+                return PageResponses.ok(requestService.getRequestsPage(after, limit, Fields.parse(fields)));
+            } catch (IllegalArgumentException e) {
+                log.error("[REST API] Помилка пагінації: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         log.info("[REST API] GET /api/requests - Запит всіх запитів на допомогу");
-        List<AidRequest> requests = requestService.getAllRequests();
+        List<AidRequestView> requests = requestService.getAllRequestViews(Fields.parse(fields));
         return ResponseEntity.ok(requests);
     }
 
+    /**
+     * GET /api/requests?stream=json | ?stream=ndjson
+     * Потоковий експорт всіх записів: рядки пишуться у відповідь у міру читання з БД
+     * (пам'ять не залежить від кількості рядків)
+     * Доступ: USER, ADMIN
+     */
+    @GetMapping(params = "stream")
+    public ResponseEntity<StreamingResponseBody> streamAllRequests(@RequestParam(name = "stream", defaultValue = "json") String format,
+                                                                   @RequestParam(required = false) String ids,
+                                                                   @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/requests?stream={} - Потоковий експорт запитів", format);
+        if (ids != null) {
+            log.error("[REST API] Помилка експорту: ?stream= експортує всі записи і не поєднується з ?ids=");
+            return ResponseEntity.badRequest().build();
+        }
+
+        Fields projection = Fields.parse(fields);
+        try {
+            return StreamResponses.<AidRequestView>ok(format, projection, objectMapper,
+                    rows -> requestService.streamRequestViews(projection, rows));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка експорту: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /api/requests?ids=1,2,3
+     * Отримати кілька запитів за ID одним запитом (замість окремого запиту на кожен ID)
+     */
+    @GetMapping(params = {"ids", "!stream"})
+    public ResponseEntity<List<AidRequestView>> getRequestsByIds(@RequestParam String ids,
+                                                                 @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/requests?ids={}", ids);
+        try {
+            return ResponseEntity.ok(requestService.getRequestViewsByIds(IdsParam.parse(ids), Fields.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * GET /api/requests/{id}
      * Отримати запит за ID
+     * Поле version завжди у відповіді - його значення надсилається в If-Match
      * Доступ: USER, ADMIN
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AidRequest> getRequestById(@PathVariable Long id) {
+    public ResponseEntity<AidRequestView> getRequestById(@PathVariable Long id,
+                                                         @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/requests/{} - Запит на допомогу", id);
 
-        return requestService.getRequestById(id)
+        return requestService.getRequestViewById(id, Fields.parse(fields).with("version"))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -67,9 +155,10 @@ public class AidRequestRestController {
      * Доступ: USER, ADMIN
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<AidRequest>> getRequestsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<AidRequestView>> getRequestsByStatus(@PathVariable String status,
+                                                                    @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/requests/status/{}", status);
-        List<AidRequest> requests = requestService.getRequestsByStatus(status);
+        List<AidRequestView> requests = requestService.getRequestViewsByStatus(status, Fields.parse(fields));
         return ResponseEntity.ok(requests);
     }
 
@@ -79,12 +168,32 @@ public class AidRequestRestController {
      * Доступ: USER, ADMIN
      */
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<AidRequest>> getRequestsByPriority(@PathVariable String priority) {
+    public ResponseEntity<List<AidRequestView>> getRequestsByPriority(@PathVariable String priority,
+                                                                      @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/requests/priority/{}", priority);
-        List<AidRequest> requests = requestService.getRequestsByPriority(priority);
+        List<AidRequestView> requests = requestService.getRequestViewsByPriority(priority, Fields.parse(fields));
         return ResponseEntity.ok(requests);
     }
 
+    /**
+     * GET /api/requests/stats?status=&priority=&countryId=
+     * Кількість запитів з розбивкою за статусом, пріоритетом і країною-отримувачем
+     * (in-memory лічильники, без запиту до БД). Параметри опціональні - звужують зріз.
+     * Доступ: USER, ADMIN
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<RequestStats> getRequestStats(@RequestParam(required = false) String status,
+                                                        @RequestParam(required = false) String priority,
+                                                        @RequestParam(required = false) Long countryId) {
+        log.info("[REST API] GET /api/requests/stats?status={}&priority={}&countryId={}", status, priority, countryId);
+        try {
+            return ResponseEntity.ok(requestCounters.getStats(status, priority, countryId));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка статистики запитів: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * POST /api/requests
      * Створити новий запит на допомогу
@@ -108,7 +217,7 @@ public class AidRequestRestController {
         log.info("[REST API] POST /api/requests - Створення запиту: {}", request.getWeaponName());
 
         try {
-            requestService.createRequest(
+            AidRequest created = requestService.createRequest(
                     request.getWeaponType(),
                     request.getWeaponName(),
                     request.getRequestedQuantity(),
@@ -119,12 +228,6 @@ public class AidRequestRestController {
                     request.getPeriod().getId()
             );
 
-            // Повертаємо створений запит
-            AidRequest created = requestService.getAllRequests().stream()
-                    .filter(r -> r.getWeaponName().equals(request.getWeaponName()))
-                    .findFirst()
-                    .orElseThrow();
-
             return ResponseEntity
                     .created(URI.create("/api/requests/" + created.getId()))
                     .body(created);
@@ -135,6 +238,20 @@ public class AidRequestRestController {
         }
     }
 
+    // Пакетне створення: JSON-масив, одна транзакція, пакетні INSERT; помилка в елементі відхиляє весь пакет
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<AidRequest>> createRequests(@RequestBody List<AidRequest> items) {
+        log.info("[REST API] POST /api/requests/batch - Пакет запитів: {}", items.size());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(requestService.createRequests(items));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.error("[REST API] Помилка валідації пакета: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * PUT /api/requests/{id}
      * Оновити існуючий запит
@@ -142,15 +259,17 @@ public class AidRequestRestController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<AidRequest> updateRequest(
+    public ResponseEntity<AidRequestView> updateRequest(
             @PathVariable Long id,
-            @RequestBody AidRequest request) {
+            @RequestBody AidRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("[REST API] PUT /api/requests/{} - Оновлення запиту", id);
 
         try {
             requestService.updateRequest(
                     id,
+                    IfMatch.version(ifMatch),
                     request.getWeaponType(),
                     request.getWeaponName(),
                     request.getRequestedQuantity(),
@@ -161,36 +280,43 @@ public class AidRequestRestController {
                     request.getPeriod().getId()
             );
 
-            return requestService.getRequestById(id)
-                    .map(ResponseEntity::ok)
-                    .orElse(ResponseEntity.notFound().build());
+            return updated(id);
 
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.error("[REST API] Помилка: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("[REST API] Конфлікт версій: {}", e.getMessage());
+            return IfMatch.conflict(ifMatch);
         }
     }
 
     /**
      * PUT /api/requests/{id}/approve
-     * Схвалити запит
+     * Схвалити запит (тільки з PENDING; якщо інший рецензент встиг першим - 409)
      * Доступ: тільки ADMIN
      */
     @PutMapping("/{id}/approve")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<AidRequest> approveRequest(@PathVariable Long id) {
+    public ResponseEntity<AidRequestView> approveRequest(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[REST API] PUT /api/requests/{}/approve - Схвалення запиту", id);
 
         try {
-            requestService.approveRequest(id);
+            requestService.approveRequest(id, IfMatch.version(ifMatch));
 
-            return requestService.getRequestById(id)
-                    .map(ResponseEntity::ok)
-                    .orElse(ResponseEntity.notFound().build());
+            return updated(id);
 
-        } catch (IllegalArgumentException | IllegalStateException e) {
+        } catch (IllegalArgumentException e) {
             log.error("[REST API] Помилка: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("[REST API] Перехід статусу неможливий: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("[REST API] Конфлікт версій: {}", e.getMessage());
+            return IfMatch.conflict(ifMatch);
         }
     }
 
@@ -206,22 +332,75 @@ public class AidRequestRestController {
      */
     @PutMapping("/{id}/reject")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<AidRequest> rejectRequest(
+    public ResponseEntity<AidRequestView> rejectRequest(
             @PathVariable Long id,
-            @RequestBody RejectRequestDto dto) {
+            @RequestBody RejectRequestDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("[REST API] PUT /api/requests/{}/reject - Відхилення запиту", id);
 
         try {
-            requestService.rejectRequest(id, dto.getRejectionReason());
+            requestService.rejectRequest(id, IfMatch.version(ifMatch), dto.getRejectionReason());
 
-            return requestService.getRequestById(id)
-                    .map(ResponseEntity::ok)
-                    .orElse(ResponseEntity.notFound().build());
+            return updated(id);
 
-        } catch (IllegalArgumentException | IllegalStateException e) {
+        } catch (IllegalArgumentException e) {
             log.error("[REST API] Помилка: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("[REST API] Перехід статусу неможливий: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("[REST API] Конфлікт версій: {}", e.getMessage());
+            return IfMatch.conflict(ifMatch);
+        }
+    }
+
+    /**
+     * Змінений запит з новою версією в полі version (для наступного If-Match)
+     */
+    private ResponseEntity<AidRequestView> updated(Long id) {
+        return requestService.getRequestViewById(id, Fields.ALL)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/requests/bulk/{action}
+     * Масовий перехід статусу: approve (PENDING → APPROVED), reject (PENDING → REJECTED),
+     * deliver (APPROVED → DELIVERED). Запити - за списком ID та/або фільтром, одним умовним UPDATE;
+     * у відповіді - ID, що змінили статус, і пропущені ID з причинами
+     * Доступ: тільки ADMIN
+     *
+     * Приклад JSON (усі поля опціональні, але потрібні ids або хоча б один фільтр):
+     * {
+     *   "ids": [1, 2, 3],
+     *   "priority": "URGENT",
+     *   "requestingCountryId": 1,
+     *   "periodId": 2,
+     *   "rejectionReason": "Insufficient resources"
+     * }
+     */
+    @PostMapping("/bulk/{action}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<TransitionReport> transitionRequests(
+            @PathVariable String action,
+            @RequestBody BulkTransitionDto dto) {
+
+        log.info("[REST API] POST /api/requests/bulk/{} - Масовий перехід статусу", action);
+
+        try {
+            return ResponseEntity.ok(transitionService.transition(
+                    RequestTransitionService.Action.parse(action),
+                    dto.getIds(),
+                    dto.getPriority(),
+                    dto.getRequestingCountryId(),
+                    dto.getPeriodId(),
+                    dto.getRejectionReason()
+            ));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка масового переходу: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -244,6 +423,57 @@ public class AidRequestRestController {
         }
     }
 
+    /**
+     * DTO для масового переходу статусу
+     */
+    public static class BulkTransitionDto {
+        private List<Long> ids;
+        private String priority;
+        private Long requestingCountryId;
+        private Long periodId;
+        private String rejectionReason;
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public void setPriority(String priority) {
+            this.priority = priority;
+        }
+
+        public Long getRequestingCountryId() {
+            return requestingCountryId;
+        }
+
+        public void setRequestingCountryId(Long requestingCountryId) {
+            this.requestingCountryId = requestingCountryId;
+        }
+
+        public Long getPeriodId() {
+            return periodId;
+        }
+
+        public void setPeriodId(Long periodId) {
+            this.periodId = periodId;
+        }
+
+        public String getRejectionReason() {
+            return rejectionReason;
+        }
+
+        public void setRejectionReason(String rejectionReason) {
+            this.rejectionReason = rejectionReason;
+        }
+    }
+
     /**
      * DTO для відхилення запиту
      */
@@ -29,9 +29,10 @@ public class ApiRootController {
 
         // Інформація про авторизацію
         Map<String, String> auth = new LinkedHashMap<>();
-        auth.put("type", "Basic Authentication");
+        auth.put("type", "Basic Authentication або API-токен (Bearer)");
         auth.put("admin", "admin:admin (повний доступ)");
         auth.put("user", "user:user (тільки GET запити)");
+        auth.put("token", "Authorization: Bearer <токен з POST /api/tokens>");
         response.put("authentication", auth);
 
         // Список endpoints (групуємо по ресурсах)
@@ -41,7 +42,9 @@ public class ApiRootController {
         List<Map<String, String>> countries = new ArrayList<>();
         countries.add(createEndpoint("GET", "/api/countries", "Отримати всі країни", "USER, ADMIN"));
         countries.add(createEndpoint("GET", "/api/countries/{id}", "Отримати країну за ID", "USER, ADMIN"));
+        countries.add(createEndpoint("GET", "/api/countries/{id}/tree", "Країна з періодами, зброєю, поставками та підсумками", "USER, ADMIN"));
         countries.add(createEndpoint("POST", "/api/countries", "Створити країну", "ADMIN"));
+        countries.add(createEndpoint("POST", "/api/countries/batch", "Пакетне створення країн (JSON-масив, одна транзакція)", "ADMIN"));
         countries.add(createEndpoint("PUT", "/api/countries/{id}", "Оновити країну", "ADMIN"));
         countries.add(createEndpoint("DELETE", "/api/countries/{id}", "Видалити країну", "ADMIN"));
         endpoints.put("countries", countries);
@@ -51,6 +54,7 @@ public class ApiRootController {
         periods.add(createEndpoint("GET", "/api/periods", "Отримати всі періоди", "USER, ADMIN"));
         periods.add(createEndpoint("GET", "/api/periods/{id}", "Отримати період за ID", "USER, ADMIN"));
         periods.add(createEndpoint("POST", "/api/periods", "Створити період", "ADMIN"));
+        periods.add(createEndpoint("POST", "/api/periods/batch", "Пакетне створення періодів (JSON-масив, одна транзакція)", "ADMIN"));
         periods.add(createEndpoint("PUT", "/api/periods/{id}", "Оновити період", "ADMIN"));
         periods.add(createEndpoint("DELETE", "/api/periods/{id}", "Видалити період", "ADMIN"));
         endpoints.put("periods", periods);
@@ -60,6 +64,7 @@ public class ApiRootController {
         weapons.add(createEndpoint("GET", "/api/weapons", "Отримати всю зброю", "USER, ADMIN"));
         weapons.add(createEndpoint("GET", "/api/weapons/{id}", "Отримати зброю за ID", "USER, ADMIN"));
         weapons.add(createEndpoint("POST", "/api/weapons", "Створити зброю", "ADMIN"));
+        weapons.add(createEndpoint("POST", "/api/weapons/batch", "Пакетне створення зброї (JSON-масив, одна транзакція)", "ADMIN"));
         weapons.add(createEndpoint("PUT", "/api/weapons/{id}", "Оновити зброю", "ADMIN"));
         weapons.add(createEndpoint("DELETE", "/api/weapons/{id}", "Видалити зброю", "ADMIN"));
         endpoints.put("weapons", weapons);
@@ -69,6 +74,7 @@ public class ApiRootController {
         donors.add(createEndpoint("GET", "/api/donors", "Отримати всіх донорів", "USER, ADMIN"));
         donors.add(createEndpoint("GET", "/api/donors/{id}", "Отримати донора за ID", "USER, ADMIN"));
         donors.add(createEndpoint("POST", "/api/donors", "Створити донора", "ADMIN"));
+        donors.add(createEndpoint("POST", "/api/donors/batch", "Пакетне створення донорів (JSON-масив, одна транзакція)", "ADMIN"));
         donors.add(createEndpoint("PUT", "/api/donors/{id}", "Оновити донора", "ADMIN"));
         donors.add(createEndpoint("DELETE", "/api/donors/{id}", "Видалити донора", "ADMIN"));
         endpoints.put("donors", donors);
@@ -76,17 +82,85 @@ public class ApiRootController {
         // Weapon Deliveries (NEW!)
         List<Map<String, String>> deliveries = new ArrayList<>();
         deliveries.add(createEndpoint("GET", "/api/deliveries", "Отримати всі поставки", "USER, ADMIN"));
+        deliveries.add(createEndpoint("GET", "/api/deliveries?stream=ndjson", "Потоковий експорт поставок (json або ndjson)", "USER, ADMIN"));
         deliveries.add(createEndpoint("GET", "/api/deliveries/{id}", "Отримати поставку за ID", "USER, ADMIN"));
         deliveries.add(createEndpoint("GET", "/api/deliveries/weapon/{id}", "Поставки конкретної зброї", "USER, ADMIN"));
         deliveries.add(createEndpoint("GET", "/api/deliveries/donor/{id}", "Поставки конкретного донора", "USER, ADMIN"));
         deliveries.add(createEndpoint("GET", "/api/deliveries/status/{status}", "Поставки за статусом", "USER, ADMIN"));
         deliveries.add(createEndpoint("POST", "/api/deliveries", "Створити поставку", "ADMIN"));
+        deliveries.add(createEndpoint("POST", "/api/deliveries/batch", "Пакетне створення поставок (JSON-масив, одна транзакція)", "ADMIN"));
+        deliveries.add(createEndpoint("POST", "/api/deliveries/import", "Масовий імпорт поставок (text/csv або application/x-ndjson)", "ADMIN"));
         deliveries.add(createEndpoint("PUT", "/api/deliveries/{id}", "Оновити поставку", "ADMIN"));
         deliveries.add(createEndpoint("DELETE", "/api/deliveries/{id}", "Видалити поставку", "ADMIN"));
         endpoints.put("deliveries", deliveries);
 
+        // Search
+        List<Map<String, String>> search = new ArrayList<>();
+        search.add(createEndpoint("GET", "/api/search?q=...", "Пошук за фрагментом назви по всіх сутностях", "USER, ADMIN"));
+        endpoints.put("search", search);
+
+        // Lookup
+        List<Map<String, String>> lookup = new ArrayList<>();
+        lookup.add(createEndpoint("GET", "/api/lookup/countries?prefix=...", "Автодоповнення: пари (id, підпис) країн", "USER, ADMIN"));
+        lookup.add(createEndpoint("GET", "/api/lookup/periods?prefix=...", "Автодоповнення: пари (id, підпис) періодів", "USER, ADMIN"));
+        lookup.add(createEndpoint("GET", "/api/lookup/weapons?prefix=...", "Автодоповнення: пари (id, підпис) зброї", "USER, ADMIN"));
+        lookup.add(createEndpoint("GET", "/api/lookup/donors?prefix=...", "Автодоповнення: пари (id, підпис) донорів", "USER, ADMIN"));
+        endpoints.put("lookup", lookup);
+
+        // Stats
+        List<Map<String, String>> stats = new ArrayList<>();
+        stats.add(createEndpoint("GET", "/api/requests/stats?status=&priority=&countryId=", "Кількість запитів за статусом, пріоритетом і країною", "USER, ADMIN"));
+        endpoints.put("stats", stats);
+
+        // Bundle
+        List<Map<String, String>> bundle = new ArrayList<>();
+        bundle.add(createEndpoint("GET", "/api/bundle?include=countries,periods,donors", "Кілька колекцій одним запитом", "USER, ADMIN"));
+        endpoints.put("bundle", bundle);
+
+        // Cache
+        List<Map<String, String>> cache = new ArrayList<>();
+        cache.add(createEndpoint("GET", "/api/cache/reference", "Статистика кешу довідників (влучання/промахи)", "USER, ADMIN"));
+        cache.add(createEndpoint("GET", "/api/cache/entities", "Статистика кешу другого рівня Hibernate", "USER, ADMIN"));
+        cache.add(createEndpoint("GET", "/api/cache/fragments", "Статистика кешу HTML-фрагментів сторінки /viewAll", "USER, ADMIN"));
+        cache.add(createEndpoint("GET", "/api/cache/coalescing", "Об'єднання однакових одночасних читань (частка об'єднаних викликів)", "USER, ADMIN"));
+        endpoints.put("cache", cache);
+
+        // API tokens
+        List<Map<String, String>> tokens = new ArrayList<>();
+        tokens.add(createEndpoint("GET", "/api/tokens", "Мої API-токени", "USER, ADMIN"));
+        tokens.add(createEndpoint("POST", "/api/tokens", "Випустити API-токен (токен показується один раз)", "USER, ADMIN"));
+        tokens.add(createEndpoint("DELETE", "/api/tokens/{id}", "Відкликати API-токен", "USER, ADMIN"));
+        endpoints.put("tokens", tokens);
+
         response.put("endpoints", endpoints);
 
+        // Keyset-пагінація для всіх списків
+        Map<String, String> pagination = new LinkedHashMap<>();
+        pagination.put("parameters", "?limit=N&after=<курсор> (limit за замовчуванням 50, максимум 500)");
+        pagination.put("next_page", "Заголовки X-Next-Cursor та Link: <...>; rel=\"next\" (відсутні на останній сторінці)");
+        pagination.put("example", "curl -i -u admin:admin \"http://localhost:8080/api/deliveries?limit=100\"");
+        response.put("pagination", pagination);
+
+        // Часткова вибірка полів для всіх GET-запитів
+        Map<String, String> sparseFields = new LinkedHashMap<>();
+        sparseFields.put("parameters", "?fields=id,status,... (невідомі поля ігноруються)");
+        sparseFields.put("description", "У відповіді тільки перелічені поля; з БД читаються тільки відповідні колонки");
+        sparseFields.put("example", "curl -u admin:admin \"http://localhost:8080/api/requests?fields=id,status,priority\"");
+        response.put("fields", sparseFields);
+
+        // Кілька записів за ID
+        Map<String, String> multiGet = new LinkedHashMap<>();
+        multiGet.put("parameters", "?ids=1,2,3 (максимум 500 ID)");
+        multiGet.put("example", "curl -u admin:admin \"http://localhost:8080/api/weapons?ids=1,2,3\"");
+        response.put("ids", multiGet);
+
+        // Умовні GET-запити
+        Map<String, String> conditional = new LinkedHashMap<>();
+        conditional.put("headers", "Відповіді містять ETag та Last-Modified");
+        conditional.put("description", "If-None-Match / If-Modified-Since з актуальним значенням - 304 Not Modified без запиту до БД");
+        conditional.put("example", "curl -i -u admin:admin -H 'If-None-Match: \"<etag>\"' http://localhost:8080/api/countries");
+        response.put("conditional_get", conditional);
+
         // Додаємо приклади використання
         Map<String, String> examples = new LinkedHashMap<>();
         examples.put("curl_get", "curl -u admin:admin http://localhost:8080/api/countries");
@@ -0,0 +1,74 @@
+package dev.yurets.db_demo.controller.rest;
+
+import dev.yurets.db_demo.dto.ApiTokenView;
+import dev.yurets.db_demo.service.ApiTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API контролер для персональних API-токенів поточного користувача
+ *
+ * Endpoints:
+ * GET    /api/tokens      - Токени поточного користувача (без самих токенів)
+ * POST   /api/tokens      - Випустити токен: {"name": "...", "scope": "USER|ADMIN"}
+ * DELETE /api/tokens/{id} - Відкликати токен
+ *
+ * Токен передається в заголовку: Authorization: Bearer mad_...
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/tokens")
+public class ApiTokenRestController {
+
+    private final ApiTokenService apiTokenService;
+
+    public ApiTokenRestController(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ApiTokenView>> getTokens(Principal principal) {
+        log.info("[REST API] GET /api/tokens - Токени користувача {}", principal.getName());
+        return ResponseEntity.ok(apiTokenService.getTokens(principal.getName()));
+    }
+
+    /**
+     * POST /api/tokens
+     * Відповідь містить поле token - зберігайте його: повторно отримати неможливо
+     */
+    @PostMapping
+    public ResponseEntity<ApiTokenView> createToken(@RequestBody Map<String, String> body, Principal principal) {
+        log.info("[REST API] POST /api/tokens - {} для {}", body.get("name"), principal.getName());
+
+        try {
+            ApiTokenView created = apiTokenService.createToken(principal.getName(), body.get("name"), body.get("scope"));
+            return ResponseEntity
+                    .created(URI.create("/api/tokens/" + created.getId()))
+                    .body(created);
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteToken(@PathVariable Long id, Principal principal) {
+        log.info("[REST API] DELETE /api/tokens/{} - Відкликання токена", id);
+
+        return apiTokenService.deleteToken(principal.getName(), id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
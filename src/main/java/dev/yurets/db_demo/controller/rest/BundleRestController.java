@@ -0,0 +1,63 @@
+package dev.yurets.db_demo.controller.rest;
+
+import dev.yurets.db_demo.service.BundleService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * REST API контролер для отримання кількох колекцій одним запитом
+ *
+ * Endpoints:
+ * GET /api/bundle?include=countries,periods,donors - Кілька колекцій в одній відповіді
+ *
+ * Доступні колекції: countries, periods, weapons, donors, deliveries, requests.
+ * Відповідь - JSON-об'єкт { "countries": [...], "periods": [...], ... },
+ * всі колекції прочитані в одній транзакції (див. BundleService).
+ */
+@Slf4j
+@RestController
+@VersionedBy({DataTable.COUNTRY, DataTable.PERIOD, DataTable.WEAPON,
+        DataTable.DONOR, DataTable.DELIVERY, DataTable.REQUEST})
+@RequestMapping("/api/bundle")
+public class BundleRestController {
+
+    private final BundleService bundleService;
+
+    public BundleRestController(BundleService bundleService) {
+        this.bundleService = bundleService;
+    }
+
+    /**
+     * GET /api/bundle?include=countries,periods,donors
+     * Доступ: USER, ADMIN
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, List<?>>> getBundle(@RequestParam(defaultValue = "") String include) {
+        log.info("[REST API] GET /api/bundle?include={} - Запит кількох колекцій", include);
+
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : include.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+
+        try {
+            return ResponseEntity.ok(bundleService.getBundle(names));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
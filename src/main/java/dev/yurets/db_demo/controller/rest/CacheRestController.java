@@ -0,0 +1,84 @@
+package dev.yurets.db_demo.controller.rest;
+
+import dev.yurets.db_demo.cache.EntityCacheStats;
+import dev.yurets.db_demo.cache.FragmentCache;
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.coalescing.RequestCoalescer;
+import dev.yurets.db_demo.dto.CacheStats;
+import dev.yurets.db_demo.dto.CoalescingStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API контролер для статистики in-process кешів
+ *
+ * Endpoints:
+ * GET /api/cache/reference - Влучання/промахи кешу довідників для випадаючих списків
+ * GET /api/cache/entities  - Влучання/промахи кешу другого рівня Hibernate (сутності та запити)
+ * GET /api/cache/fragments - Влучання/промахи кешу HTML-фрагментів сторінки /viewAll
+ * GET /api/cache/coalescing - Скільки викликів @Coalesced отримали результат чужого читання
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/cache")
+public class CacheRestController {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final EntityCacheStats entityCacheStats;
+    private final FragmentCache fragmentCache;
+    private final RequestCoalescer requestCoalescer;
+
+    public CacheRestController(ReferenceDataCache referenceDataCache,
+                               EntityCacheStats entityCacheStats,
+                               FragmentCache fragmentCache,
+                               RequestCoalescer requestCoalescer) {
+        this.referenceDataCache = referenceDataCache;
+        this.entityCacheStats = entityCacheStats;
+        this.fragmentCache = fragmentCache;
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * GET /api/cache/reference
+     */
+    @GetMapping("/reference")
+    public ResponseEntity<List<CacheStats>> getReferenceStats() {
+        log.info("[REST API] GET /api/cache/reference - Статистика кешу довідників");
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+
+    /**
+     * GET /api/cache/entities
+     * Регіони сутностей Country, Period, Donor та регіон кешу запитів
+     */
+    @GetMapping("/entities")
+    public ResponseEntity<List<CacheStats>> getEntityStats() {
+        log.info("[REST API] GET /api/cache/entities - Статистика кешу другого рівня");
+        return ResponseEntity.ok(entityCacheStats.getStats());
+    }
+
+    /**
+     * GET /api/cache/fragments
+     * Окремо для кожної секції та ролі (size - довжина HTML у символах)
+     */
+    @GetMapping("/fragments")
+    public ResponseEntity<List<CacheStats>> getFragmentStats() {
+        log.info("[REST API] GET /api/cache/fragments - Статистика кешу HTML-фрагментів");
+        return ResponseEntity.ok(fragmentCache.getStats());
+    }
+
+    /**
+     * GET /api/cache/coalescing
+     * Для кожного методу з @Coalesced, що вже викликався
+     */
+    @GetMapping("/coalescing")
+    public ResponseEntity<List<CoalescingStats>> getCoalescingStats() {
+        log.info("[REST API] GET /api/cache/coalescing - Статистика об'єднання читань");
+        return ResponseEntity.ok(requestCoalescer.getStats());
+    }
+}
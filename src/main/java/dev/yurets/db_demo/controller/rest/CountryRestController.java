@@ -1,8 +1,13 @@
 package dev.yurets.db_demo.controller.rest;
 
+import dev.yurets.db_demo.dto.CountryTreeNode;
 import dev.yurets.db_demo.model.Country;
 import dev.yurets.db_demo.service.CountryService;
+import dev.yurets.db_demo.service.CountryTreeService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -14,35 +19,68 @@ import java.util.List;
  * REST API контролер для роботи з країнами
  *
  * Endpoints:
- * GET    /api/countries       - Отримати всі країни
- * GET    /api/countries/{id}  - Отримати країну за ID
- * POST   /api/countries       - Створити нову країну (тільки ADMIN)
- * PUT    /api/countries/{id}  - Оновити країну (тільки ADMIN)
- * DELETE /api/countries/{id}  - Видалити країну (тільки ADMIN)
+ * GET    /api/countries           - Отримати всі країни (?limit=&after= - посторінково)
+ * GET    /api/countries?ids=1,2,3 - Отримати кілька країн за ID
+ * GET    /api/countries/{id}      - Отримати країну за ID
+ * GET    /api/countries/{id}/tree - Країна з періодами, зброєю, поставками та підсумками
+ * POST   /api/countries           - Створити нову країну (тільки ADMIN)
+ * PUT    /api/countries/{id}      - Оновити країну (тільки ADMIN)
+ * DELETE /api/countries/{id}      - Видалити країну (тільки ADMIN)
  */
 @Slf4j
 @RestController
+@VersionedBy(DataTable.COUNTRY)
 @RequestMapping("/api/countries")
 public class CountryRestController {
 
     private final CountryService countryService;
+    private final CountryTreeService countryTreeService;
 
-    public CountryRestController(CountryService countryService) {
+    public CountryRestController(CountryService countryService, CountryTreeService countryTreeService) {
         this.countryService = countryService;
+        this.countryTreeService = countryTreeService;
     }
 
     /**
      * GET /api/countries
      * Отримати список всіх країн
+     * З параметрами ?limit=N[&after=курсор] - keyset-пагінація:
+     * курсор наступної сторінки повертається в заголовках X-Next-Cursor та Link
      * Доступ: USER, ADMIN
      */
     @GetMapping
-    public ResponseEntity<List<Country>> getAllCountries() {
+    public ResponseEntity<List<Country>> getAllCountries(@RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            log.info("[REST API] GET /api/countries?after={}&limit={} - Сторінка країн", after, limit);
+            try {
+                return PageResponses.ok(countryService.getCountriesPage(after, limit));
+            } catch (IllegalArgumentException e) {
+                log.error("[REST API] Помилка пагінації: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         log.info("[REST API] GET /api/countries - Запит всіх країн");
         List<Country> countries = countryService.getAllCountries();
         return ResponseEntity.ok(countries);
     }
 
+    /**
+     * GET /api/countries?ids=1,2,3
+     * Отримати кілька країн за ID одним запитом (замість окремого запиту на кожен ID)
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Country>> getCountriesByIds(@RequestParam String ids) {
+        log.info("[REST API] GET /api/countries?ids={}", ids);
+        try {
+            return ResponseEntity.ok(countryService.getCountriesByIds(IdsParam.parse(ids)));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * GET /api/countries/{id}
      * Отримати країну за ID
@@ -57,6 +95,22 @@ public class CountryRestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * GET /api/countries/{id}/tree
+     * Отримати країну з усіма періодами, зброєю та поставками (з підсумками на кожному рівні)
+     * Дерево завантажується фіксованою кількістю запитів незалежно від розміру
+     * Доступ: USER, ADMIN
+     */
+    @GetMapping("/{id}/tree")
+    @VersionedBy({DataTable.COUNTRY, DataTable.PERIOD, DataTable.WEAPON, DataTable.DELIVERY, DataTable.DONOR})
+    public ResponseEntity<CountryTreeNode> getCountryTree(@PathVariable Long id) {
+        log.info("[REST API] GET /api/countries/{}/tree - Дерево країни", id);
+
+        return countryTreeService.getCountryTree(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * POST /api/countries
      * Створити нову країну
@@ -70,12 +124,7 @@ public class CountryRestController {
         try {
             // Встановлюємо статус (якщо не вказано - за замовчуванням TRUE)
             // Просто використовуємо значення напряму
-            countryService.createCountry(country.getName(), country.getTotalAidUsd(), country.isOpen());
-
-            Country created = countryService.getAllCountries().stream()
-                    .filter(c -> c.getName().equals(country.getName()))
-                    .findFirst()
-                    .orElseThrow();
+            Country created = countryService.createCountry(country.getName(), country.getTotalAidUsd(), country.isOpen());
 
             return ResponseEntity
                     .created(URI.create("/api/countries/" + created.getId()))
@@ -87,6 +136,20 @@ public class CountryRestController {
         }
     }
 
+    // Пакетне створення: JSON-масив, одна транзакція, пакетні INSERT; помилка в елементі відхиляє весь пакет
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<Country>> createCountries(@RequestBody List<Country> items) {
+        log.info("[REST API] POST /api/countries/batch - Пакет країн: {}", items.size());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(countryService.createCountries(items));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка валідації пакета: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Country> updateCountry(
@@ -96,8 +159,10 @@ public class CountryRestController {
         log.info("[REST API] PUT /api/countries/{} - Оновлення країни", id);
 
         try {
-            // Просто використовуємо значення напряму
-            countryService.createCountry(country.getName(), country.getTotalAidUsd(), country.isOpen());
+            if (countryService.getCountryById(id).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            countryService.updateCountry(id, country.getName(), country.getTotalAidUsd(), country.isOpen());
 
             return countryService.getCountryById(id)
                     .map(ResponseEntity::ok)
@@ -1,8 +1,13 @@
 package dev.yurets.db_demo.controller.rest;
 
+import dev.yurets.db_demo.dto.DonorView;
 import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.service.DonorService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +20,7 @@ import java.util.List;
  */
 @Slf4j
 @RestController
+@VersionedBy({DataTable.DONOR, DataTable.COUNTRY})
 @RequestMapping("/api/donors")
 public class DonorRestController {
 
@@ -25,15 +31,40 @@ public class DonorRestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Donor>> getAllDonors() {
+    public ResponseEntity<List<DonorView>> getAllDonors(@RequestParam(required = false) String after,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String fields) {
+        if (after != null || limit != null) {
+            log.info("[REST API] GET /api/donors?after={}&limit={} - Сторінка донорів", after, limit);
+            try {
+                return PageResponses.ok(donorService.getDonorsPage(after, limit, Fields.parse(fields)));
+            } catch (IllegalArgumentException e) {
+                log.error("[REST API] Помилка пагінації: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         log.info("[REST API] GET /api/donors");
-        return ResponseEntity.ok(donorService.getAllDonors());
+        return ResponseEntity.ok(donorService.getAllDonorViews(Fields.parse(fields)));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<DonorView>> getDonorsByIds(@RequestParam String ids,
+                                                          @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/donors?ids={}", ids);
+        try {
+            return ResponseEntity.ok(donorService.getDonorViewsByIds(IdsParam.parse(ids), Fields.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Donor> getDonorById(@PathVariable Long id) {
+    public ResponseEntity<DonorView> getDonorById(@PathVariable Long id,
+                                                  @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/donors/{}", id);
-        return donorService.getDonorById(id)
+        return donorService.getDonorViewById(id, Fields.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -44,18 +75,13 @@ public class DonorRestController {
         log.info("[REST API] POST /api/donors - {}", donor.getOrganizationName());
 
         try {
-            donorService.createDonor(
+            Donor created = donorService.createDonor(
                     donor.getOrganizationName(),
                     donor.getOrganizationType(),
                     donor.getContactInfo(),
                     donor.getCountry().getId()
             );
 
-            Donor created = donorService.getAllDonors().stream()
-                    .filter(d -> d.getOrganizationName().equals(donor.getOrganizationName()))
-                    .findFirst()
-                    .orElseThrow();
-
             return ResponseEntity
                     .created(URI.create("/api/donors/" + created.getId()))
                     .body(created);
@@ -65,9 +91,23 @@ public class DonorRestController {
         }
     }
 
+    // Пакетне створення: JSON-масив, одна транзакція, пакетні INSERT; помилка в елементі відхиляє весь пакет
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<Donor>> createDonors(@RequestBody List<Donor> items) {
+        log.info("[REST API] POST /api/donors/batch - Пакет донорів: {}", items.size());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(donorService.createDonors(items));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка валідації пакета: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Donor> updateDonor(@PathVariable Long id, @RequestBody Donor donor) {
+    public ResponseEntity<DonorView> updateDonor(@PathVariable Long id, @RequestBody Donor donor) {
         log.info("[REST API] PUT /api/donors/{}", id);
 
         try {
@@ -79,7 +119,7 @@ public class DonorRestController {
                     donor.getCountry().getId()
             );
 
-            return donorService.getDonorById(id)
+            return donorService.getDonorViewById(id, Fields.ALL)
                     .map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
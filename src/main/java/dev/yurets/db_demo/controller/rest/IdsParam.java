@@ -0,0 +1,40 @@
+package dev.yurets.db_demo.controller.rest;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Розбір параметра ?ids=1,2,3 для отримання кількох записів одним запитом
+ */
+public final class IdsParam {
+
+    public static final int MAX_IDS = 500;
+
+    private IdsParam() {
+    }
+
+    /**
+     * Повторювані ID об'єднуються; порожній список, нечислові значення
+     * та більше MAX_IDS ID - IllegalArgumentException
+     */
+    public static Set<Long> parse(String param) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String part : param.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            try {
+                ids.add(Long.valueOf(part.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некоректний ID у параметрі ids: " + part.trim());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Параметр ids не може бути порожнім");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("Занадто багато ID (максимум " + MAX_IDS + ")");
+        }
+        return ids;
+    }
+}
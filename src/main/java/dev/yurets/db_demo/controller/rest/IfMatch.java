@@ -0,0 +1,43 @@
+package dev.yurets.db_demo.controller.rest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Заголовок If-Match для оптимістичного блокування (PUT запитів і поставок)
+ *
+ * Значення - версія рядка з поля version відповіді на GET /{id} або PUT, наприклад If-Match: "3".
+ * Це не ETag відповіді: ETag на GET - версії таблиць для умовних запитів (If-None-Match).
+ * Версія не збігається - 412 Precondition Failed; запис змінено паралельно без If-Match - 409 Conflict.
+ */
+public final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    /**
+     * Очікувана версія; null - заголовка немає або "*" (будь-яка версія)
+     * Кілька значень, слабкі (W/) та нечислові ETag - IllegalArgumentException
+     */
+    public static Long version(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некоректний If-Match: очікувалась версія запису, наприклад \"3\"");
+        }
+    }
+
+    /**
+     * Статус відповіді на конфлікт версій: 412, якщо клієнт надіслав If-Match, інакше 409
+     */
+    public static <T> ResponseEntity<T> conflict(String header) {
+        return ResponseEntity.status(version(header) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+    }
+}
@@ -0,0 +1,79 @@
+package dev.yurets.db_demo.controller.rest;
+
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.dto.LookupItem;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * REST API контролер для автодоповнення у формах: тільки пари (id, підпис)
+ *
+ * Endpoints:
+ * GET /api/lookup/countries?prefix=...&limit=N - Країни
+ * GET /api/lookup/periods?prefix=...&limit=N   - Періоди ("назва (країна)")
+ * GET /api/lookup/weapons?prefix=...&limit=N   - Зброя ("назва (тип)")
+ * GET /api/lookup/donors?prefix=...&limit=N    - Донори ("назва (країна)")
+ *
+ * Відповідь береться з in-memory індексу ReferenceDataCache (бінарний пошук по
+ * відсортованих підписах), запит до БД - тільки після зміни таблиць довідника.
+ * limit за замовчуванням 20, максимум 100.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/lookup")
+public class LookupRestController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public LookupRestController(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @GetMapping("/countries")
+    @VersionedBy(DataTable.COUNTRY)
+    public ResponseEntity<List<LookupItem>> lookupCountries(@RequestParam(required = false) String prefix,
+                                                            @RequestParam(required = false) Integer limit) {
+        return lookup("countries", prefix, limit, referenceDataCache::lookupCountries);
+    }
+
+    @GetMapping("/periods")
+    @VersionedBy({DataTable.PERIOD, DataTable.COUNTRY})
+    public ResponseEntity<List<LookupItem>> lookupPeriods(@RequestParam(required = false) String prefix,
+                                                          @RequestParam(required = false) Integer limit) {
+        return lookup("periods", prefix, limit, referenceDataCache::lookupPeriods);
+    }
+
+    @GetMapping("/weapons")
+    @VersionedBy(DataTable.WEAPON)
+    public ResponseEntity<List<LookupItem>> lookupWeapons(@RequestParam(required = false) String prefix,
+                                                          @RequestParam(required = false) Integer limit) {
+        return lookup("weapons", prefix, limit, referenceDataCache::lookupWeapons);
+    }
+
+    @GetMapping("/donors")
+    @VersionedBy({DataTable.DONOR, DataTable.COUNTRY})
+    public ResponseEntity<List<LookupItem>> lookupDonors(@RequestParam(required = false) String prefix,
+                                                         @RequestParam(required = false) Integer limit) {
+        return lookup("donors", prefix, limit, referenceDataCache::lookupDonors);
+    }
+
+    private static ResponseEntity<List<LookupItem>> lookup(String entity, String prefix, Integer limit,
+                                                           BiFunction<String, Integer, List<LookupItem>> finder) {
+        log.debug("[REST API] GET /api/lookup/{}?prefix={}", entity, prefix);
+        try {
+            return ResponseEntity.ok(finder.apply(prefix, limit));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка автодоповнення: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
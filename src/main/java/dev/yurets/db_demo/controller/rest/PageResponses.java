@@ -0,0 +1,38 @@
+package dev.yurets.db_demo.controller.rest;
+
+import dev.yurets.db_demo.pagination.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Формування відповіді для keyset-пагінації
+ *
+ * Тіло відповіді лишається звичайним JSON-масивом (сумісно з існуючими клієнтами),
+ * а курсор наступної сторінки передається в заголовках:
+ * X-Next-Cursor: <курсор>
+ * Link: </api/...?after=<курсор>&limit=N>; rel="next"
+ */
+public final class PageResponses {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    public static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .replaceQueryParam("limit", page.getLimit())
+                    .build()
+                    .toUriString();
+            headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+            headers.set(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(page.getItems());
+    }
+}
@@ -1,8 +1,13 @@
 package dev.yurets.db_demo.controller.rest;
 
+import dev.yurets.db_demo.dto.PeriodView;
 import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.service.PeriodService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -14,14 +19,16 @@ import java.util.List;
  * REST API контролер для роботи з періодами
  *
  * Endpoints:
- * GET    /api/periods       - Отримати всі періоди
- * GET    /api/periods/{id}  - Отримати період за ID
- * POST   /api/periods       - Створити новий період (тільки ADMIN)
- * PUT    /api/periods/{id}  - Оновити період (тільки ADMIN)
- * DELETE /api/periods/{id}  - Видалити період (тільки ADMIN)
+ * GET    /api/periods           - Отримати всі періоди (?limit=&after= - посторінково)
+ * GET    /api/periods?ids=1,2,3 - Отримати кілька періодів за ID
+ * GET    /api/periods/{id}      - Отримати період за ID
+ * POST   /api/periods           - Створити новий період (тільки ADMIN)
+ * PUT    /api/periods/{id}      - Оновити період (тільки ADMIN)
+ * DELETE /api/periods/{id}      - Видалити період (тільки ADMIN)
  */
 @Slf4j
 @RestController
+@VersionedBy({DataTable.PERIOD, DataTable.COUNTRY})
 @RequestMapping("/api/periods")
 public class PeriodRestController {
 
@@ -34,23 +41,54 @@ public class PeriodRestController {
     /**
      * GET /api/periods
      * Отримати список всіх періодів
+     * З параметрами ?limit=N[&after=курсор] - keyset-пагінація:
+     * курсор наступної сторінки повертається в заголовках X-Next-Cursor та Link
      */
     @GetMapping
-    public ResponseEntity<List<Period>> getAllPeriods() {
+    public ResponseEntity<List<PeriodView>> getAllPeriods(@RequestParam(required = false) String after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String fields) {
+        if (after != null || limit != null) {
+            log.info("[REST API] GET /api/periods?after={}&limit={} - Сторінка періодів", after, limit);
+            try {
+                return PageResponses.ok(periodService.getPeriodsPage(after, limit, Fields.parse(fields)));
+            } catch (IllegalArgumentException e) {
+                log.error("[REST API] Помилка пагінації: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         log.info("[REST API] GET /api/periods - Запит всіх періодів");
-        List<Period> periods = periodService.getAllPeriods();
+        List<PeriodView> periods = periodService.getAllPeriodViews(Fields.parse(fields));
         return ResponseEntity.ok(periods);
     }
 
+    /**
+     * GET /api/periods?ids=1,2,3
+     * Отримати кілька періодів за ID одним запитом (замість окремого запиту на кожен ID)
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<PeriodView>> getPeriodsByIds(@RequestParam String ids,
+                                                            @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/periods?ids={}", ids);
+        try {
+            return ResponseEntity.ok(periodService.getPeriodViewsByIds(IdsParam.parse(ids), Fields.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * GET /api/periods/{id}
      * Отримати період за ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Period> getPeriodById(@PathVariable Long id) {
+    public ResponseEntity<PeriodView> getPeriodById(@PathVariable Long id,
+                                                    @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/periods/{} - Запит періоду", id);
 
-        return periodService.getPeriodById(id)
+        return periodService.getPeriodViewById(id, Fields.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -75,7 +113,7 @@ public class PeriodRestController {
         log.info("[REST API] POST /api/periods - Створення періоду: {}", period.getPeriodName());
 
         try {
-            periodService.createPeriod(
+            Period created = periodService.createPeriod(
                     period.getPeriodName(),
                     period.getStartDate(),
                     period.getEndDate(),
@@ -83,12 +121,6 @@ public class PeriodRestController {
                     period.getCountry().getId()
             );
 
-            // Повертаємо створений період
-            Period created = periodService.getAllPeriods().stream()
-                    .filter(p -> p.getPeriodName().equals(period.getPeriodName()))
-                    .findFirst()
-                    .orElseThrow();
-
             return ResponseEntity
                     .created(URI.create("/api/periods/" + created.getId()))
                     .body(created);
@@ -99,6 +131,20 @@ public class PeriodRestController {
         }
     }
 
+    // Пакетне створення: JSON-масив, одна транзакція, пакетні INSERT; помилка в елементі відхиляє весь пакет
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<Period>> createPeriods(@RequestBody List<Period> items) {
+        log.info("[REST API] POST /api/periods/batch - Пакет періодів: {}", items.size());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(periodService.createPeriods(items));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка валідації пакета: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * PUT /api/periods/{id}
      * Оновити існуючий період
@@ -106,7 +152,7 @@ public class PeriodRestController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Period> updatePeriod(
+    public ResponseEntity<PeriodView> updatePeriod(
             @PathVariable Long id,
             @RequestBody Period period) {
 
@@ -122,7 +168,7 @@ public class PeriodRestController {
                     period.getCountry().getId()
             );
 
-            return periodService.getPeriodById(id)
+            return periodService.getPeriodViewById(id, Fields.ALL)
                     .map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
 
@@ -0,0 +1,51 @@
+package dev.yurets.db_demo.controller.rest;
+
+import dev.yurets.db_demo.dto.SearchHit;
+import dev.yurets.db_demo.search.SearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API контролер для пошуку за фрагментами назв по всіх сутностях
+ *
+ * Endpoints:
+ * GET /api/search?q=...&limit=N - Знайти країни, періоди, зброю, донорів, поставки та запити
+ *
+ * Пошук виконується по in-memory індексу (SearchIndex), без запитів до БД.
+ * Індексуються: назва країни, назва періоду, назва і тип зброї, назва донора,
+ * трекінг-номер поставки, назва зброї в запиті.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+public class SearchRestController {
+
+    private final SearchIndex searchIndex;
+
+    public SearchRestController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * GET /api/search?q=jav
+     * Результати відсортовані за релевантністю (limit за замовчуванням 20, максимум 100)
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(@RequestParam(required = false) String q,
+                                                  @RequestParam(required = false) Integer limit) {
+        log.info("[REST API] GET /api/search?q={} - Пошук", q);
+
+        try {
+            return ResponseEntity.ok(searchIndex.search(q, limit));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка пошуку: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dev.yurets.db_demo.controller.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.projection.Fields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Звуження JSON-відповідей REST API до полів з ?fields=
+ *
+ * Read-моделі при частковій проєкції мають null у невибраних полях - тут вони
+ * прибираються з відповіді. Для сутностей без окремої проєкції (країни, /api/search)
+ * звуження тільки на рівні JSON.
+ */
+@RestControllerAdvice(basePackageClasses = SparseFieldsAdvice.class)
+public class SparseFieldsAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public SparseFieldsAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        Fields fields = Fields.parse(((ServletServerHttpRequest) request).getServletRequest().getParameter("fields"));
+        if (fields.isAll()) {
+            return body;
+        }
+        return fields.select(objectMapper.valueToTree(body));
+    }
+}
@@ -0,0 +1,85 @@
+package dev.yurets.db_demo.controller.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.projection.Fields;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Потокова відповідь для великих списків (?stream=json | ?stream=ndjson)
+ *
+ * Рядки серіалізуються в output stream одразу після читання з БД,
+ * тому пам'ять не залежить від кількості рядків:
+ * json   - звичайний JSON-масив (сумісний з відповіддю без stream)
+ * ndjson - один JSON-об'єкт на рядок (application/x-ndjson)
+ * З ?fields= кожен рядок містить тільки запитані поля.
+ */
+public final class StreamResponses {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private StreamResponses() {
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> ok(String format, ObjectMapper mapper,
+                                                               Consumer<Consumer<T>> source) {
+        return ok(format, Fields.ALL, mapper, source);
+    }
+
+    /**
+     * source отримує consumer, який записує кожен переданий рядок у відповідь
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> ok(String format, Fields fields, ObjectMapper mapper,
+                                                               Consumer<Consumer<T>> source) {
+        boolean ndjson = isNdjson(format);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                if (ndjson) {
+                    generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+                } else {
+                    generator.writeStartArray();
+                }
+                source.accept(row -> write(generator, fields, mapper, row));
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                } else {
+                    generator.writeEndArray();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static boolean isNdjson(String format) {
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return true;
+        }
+        if ("json".equalsIgnoreCase(format) || "true".equalsIgnoreCase(format)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Невідомий формат stream: " + format + " (json або ndjson)");
+    }
+
+    private static void write(JsonGenerator generator, Fields fields, ObjectMapper mapper, Object row) {
+        try {
+            if (fields.isAll()) {
+                generator.writeObject(row);
+            } else {
+                generator.writeTree(fields.select(mapper.valueToTree(row)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,12 +1,25 @@
 package dev.yurets.db_demo.controller.rest;
 
+import dev.yurets.db_demo.bulk.DeliveryImportService;
+import dev.yurets.db_demo.dto.ImportReport;
+import dev.yurets.db_demo.dto.WeaponDeliveryView;
 import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
@@ -15,45 +28,101 @@ import java.util.List;
  */
 @Slf4j
 @RestController
+@VersionedBy({DataTable.DELIVERY, DataTable.WEAPON, DataTable.DONOR})
 @RequestMapping("/api/deliveries")
 public class WeaponDeliveryRestController {
 
     private final WeaponDeliveryService deliveryService;
+    private final DeliveryImportService importService;
+    private final ObjectMapper objectMapper;
 
-    public WeaponDeliveryRestController(WeaponDeliveryService deliveryService) {
+    public WeaponDeliveryRestController(WeaponDeliveryService deliveryService,
+                                        DeliveryImportService importService,
+                                        ObjectMapper objectMapper) {
         this.deliveryService = deliveryService;
+        this.importService = importService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<WeaponDelivery>> getAllDeliveries() {
+    public ResponseEntity<List<WeaponDeliveryView>> getAllDeliveries(@RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) String fields) {
+        if (after != null || limit != null) {
+            log.info("[REST API] GET /api/deliveries?after={}&limit={} - Сторінка поставок", after, limit);
+            try {
+                return PageResponses.ok(deliveryService.getDeliveriesPage(after, limit, Fields.parse(fields)));
+            } catch (IllegalArgumentException e) {
+                log.error("[REST API] Помилка пагінації: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         log.info("[REST API] GET /api/deliveries");
-        return ResponseEntity.ok(deliveryService.getAllDeliveries());
+        return ResponseEntity.ok(deliveryService.getAllDeliveryViews(Fields.parse(fields)));
+    }
+
+    // Потоковий експорт: ?stream=json (JSON-масив) або ?stream=ndjson (один об'єкт на рядок); разом з ?ids= - 400
+    @GetMapping(params = "stream")
+    public ResponseEntity<StreamingResponseBody> streamAllDeliveries(@RequestParam(name = "stream", defaultValue = "json") String format,
+                                                                     @RequestParam(required = false) String ids,
+                                                                     @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/deliveries?stream={}", format);
+        if (ids != null) {
+            log.error("[REST API] Помилка експорту: ?stream= експортує всі записи і не поєднується з ?ids=");
+            return ResponseEntity.badRequest().build();
+        }
+        Fields projection = Fields.parse(fields);
+        try {
+            return StreamResponses.<WeaponDeliveryView>ok(format, projection, objectMapper,
+                    rows -> deliveryService.streamDeliveryViews(projection, rows));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка експорту: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
+    @GetMapping(params = {"ids", "!stream"})
+    public ResponseEntity<List<WeaponDeliveryView>> getDeliveriesByIds(@RequestParam String ids,
+                                                                       @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/deliveries?ids={}", ids);
+        try {
+            return ResponseEntity.ok(deliveryService.getDeliveryViewsByIds(IdsParam.parse(ids), Fields.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Поле version завжди у відповіді - його значення надсилається в If-Match
     @GetMapping("/{id}")
-    public ResponseEntity<WeaponDelivery> getDeliveryById(@PathVariable Long id) {
+    public ResponseEntity<WeaponDeliveryView> getDeliveryById(@PathVariable Long id,
+                                                              @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/deliveries/{}", id);
-        return deliveryService.getDeliveryById(id)
+        return deliveryService.getDeliveryViewById(id, Fields.parse(fields).with("version"))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/weapon/{weaponId}")
-    public ResponseEntity<List<WeaponDelivery>> getDeliveriesByWeapon(@PathVariable Long weaponId) {
+    public ResponseEntity<List<WeaponDeliveryView>> getDeliveriesByWeapon(@PathVariable Long weaponId,
+                                                                          @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/deliveries/weapon/{}", weaponId);
-        return ResponseEntity.ok(deliveryService.getDeliveriesByWeaponId(weaponId));
+        return ResponseEntity.ok(deliveryService.getDeliveryViewsByWeaponId(weaponId, Fields.parse(fields)));
     }
 
     @GetMapping("/donor/{donorId}")
-    public ResponseEntity<List<WeaponDelivery>> getDeliveriesByDonor(@PathVariable Long donorId) {
+    public ResponseEntity<List<WeaponDeliveryView>> getDeliveriesByDonor(@PathVariable Long donorId,
+                                                                         @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/deliveries/donor/{}", donorId);
-        return ResponseEntity.ok(deliveryService.getDeliveriesByDonorId(donorId));
+        return ResponseEntity.ok(deliveryService.getDeliveryViewsByDonorId(donorId, Fields.parse(fields)));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<WeaponDelivery>> getDeliveriesByStatus(@PathVariable String status) {
+    public ResponseEntity<List<WeaponDeliveryView>> getDeliveriesByStatus(@PathVariable String status,
+                                                                          @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/deliveries/status/{}", status);
-        return ResponseEntity.ok(deliveryService.getDeliveriesByStatus(status));
+        return ResponseEntity.ok(deliveryService.getDeliveryViewsByStatus(status, Fields.parse(fields)));
     }
 
     @PostMapping
@@ -62,7 +131,7 @@ public class WeaponDeliveryRestController {
         log.info("[REST API] POST /api/deliveries");
 
         try {
-            deliveryService.createDelivery(
+            WeaponDelivery created = deliveryService.createDelivery(
                     delivery.getDeliveryDate(),
                     delivery.getQuantityDelivered(),
                     delivery.getDeliveryStatus(),
@@ -71,10 +140,6 @@ public class WeaponDeliveryRestController {
                     delivery.getDonor().getId()
             );
 
-            WeaponDelivery created = deliveryService.getAllDeliveries().stream()
-                    .findFirst()
-                    .orElseThrow();
-
             return ResponseEntity
                     .created(URI.create("/api/deliveries/" + created.getId()))
                     .body(created);
@@ -84,15 +149,55 @@ public class WeaponDeliveryRestController {
         }
     }
 
+    // Пакетне створення: JSON-масив, одна транзакція, пакетні INSERT; помилка в елементі відхиляє весь пакет
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<WeaponDelivery>> createDeliveries(@RequestBody List<WeaponDelivery> items) {
+        log.info("[REST API] POST /api/deliveries/batch - Пакет поставок: {}", items.size());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(deliveryService.createDeliveries(items));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка валідації пакета: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Масовий імпорт маніфесту: CSV із заголовком або NDJSON (один об'єкт на рядок)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ImportReport> importCsv(InputStream body) {
+        return importDeliveries(body, DeliveryImportService.Format.CSV);
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ImportReport> importNdjson(InputStream body) {
+        return importDeliveries(body, DeliveryImportService.Format.NDJSON);
+    }
+
+    private ResponseEntity<ImportReport> importDeliveries(InputStream body, DeliveryImportService.Format format) {
+        log.info("[REST API] POST /api/deliveries/import ({})", format);
+
+        try {
+            return ResponseEntity.ok(importService.importDeliveries(body, format));
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            log.error("[REST API] Помилка імпорту: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<WeaponDelivery> updateDelivery(
-            @PathVariable Long id, @RequestBody WeaponDelivery delivery) {
+    public ResponseEntity<WeaponDeliveryView> updateDelivery(
+            @PathVariable Long id, @RequestBody WeaponDelivery delivery,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("[REST API] PUT /api/deliveries/{}", id);
 
         try {
             deliveryService.updateDelivery(
                     id,
+                    IfMatch.version(ifMatch),
                     delivery.getDeliveryDate(),
                     delivery.getQuantityDelivered(),
                     delivery.getDeliveryStatus(),
@@ -101,12 +206,15 @@ public class WeaponDeliveryRestController {
                     delivery.getDonor().getId()
             );
 
-            return deliveryService.getDeliveryById(id)
+            return deliveryService.getDeliveryViewById(id, Fields.ALL)
                     .map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
             log.error("[REST API] Помилка: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("[REST API] Конфлікт версій: {}", e.getMessage());
+            return IfMatch.conflict(ifMatch);
         }
     }
 
@@ -1,8 +1,13 @@
 package dev.yurets.db_demo.controller.rest;
 
+import dev.yurets.db_demo.dto.WeaponView;
 import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.service.WeaponService;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.VersionedBy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -14,14 +19,16 @@ import java.util.List;
  * REST API контролер для роботи зі зброєю
  *
  * Endpoints:
- * GET    /api/weapons       - Отримати всю зброю
- * GET    /api/weapons/{id}  - Отримати зброю за ID
- * POST   /api/weapons       - Створити новий запис зброї (тільки ADMIN)
- * PUT    /api/weapons/{id}  - Оновити зброю (тільки ADMIN)
- * DELETE /api/weapons/{id}  - Видалити зброю (тільки ADMIN)
+ * GET    /api/weapons           - Отримати всю зброю (?limit=&after= - посторінково)
+ * GET    /api/weapons?ids=1,2,3 - Отримати кілька одиниць зброї за ID
+ * GET    /api/weapons/{id}      - Отримати зброю за ID
+ * POST   /api/weapons           - Створити новий запис зброї (тільки ADMIN)
+ * PUT    /api/weapons/{id}      - Оновити зброю (тільки ADMIN)
+ * DELETE /api/weapons/{id}      - Видалити зброю (тільки ADMIN)
  */
 @Slf4j
 @RestController
+@VersionedBy({DataTable.WEAPON, DataTable.PERIOD, DataTable.COUNTRY})
 @RequestMapping("/api/weapons")
 public class WeaponRestController {
 
@@ -34,23 +41,54 @@ public class WeaponRestController {
     /**
      * GET /api/weapons
      * Отримати список всієї зброї
+     * З параметрами ?limit=N[&after=курсор] - keyset-пагінація:
+     * курсор наступної сторінки повертається в заголовках X-Next-Cursor та Link
      */
     @GetMapping
-    public ResponseEntity<List<Weapon>> getAllWeapons() {
+    public ResponseEntity<List<WeaponView>> getAllWeapons(@RequestParam(required = false) String after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String fields) {
+        if (after != null || limit != null) {
+            log.info("[REST API] GET /api/weapons?after={}&limit={} - Сторінка зброї", after, limit);
+            try {
+                return PageResponses.ok(weaponService.getWeaponsPage(after, limit, Fields.parse(fields)));
+            } catch (IllegalArgumentException e) {
+                log.error("[REST API] Помилка пагінації: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         log.info("[REST API] GET /api/weapons - Запит всієї зброї");
-        List<Weapon> weapons = weaponService.getAllWeapons();
+        List<WeaponView> weapons = weaponService.getAllWeaponViews(Fields.parse(fields));
         return ResponseEntity.ok(weapons);
     }
 
+    /**
+     * GET /api/weapons?ids=1,2,3
+     * Отримати кілька зброї за ID одним запитом (замість окремого запиту на кожен ID)
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<WeaponView>> getWeaponsByIds(@RequestParam String ids,
+                                                            @RequestParam(required = false) String fields) {
+        log.info("[REST API] GET /api/weapons?ids={}", ids);
+        try {
+            return ResponseEntity.ok(weaponService.getWeaponViewsByIds(IdsParam.parse(ids), Fields.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * GET /api/weapons/{id}
      * Отримати зброю за ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Weapon> getWeaponById(@PathVariable Long id) {
+    public ResponseEntity<WeaponView> getWeaponById(@PathVariable Long id,
+                                                    @RequestParam(required = false) String fields) {
         log.info("[REST API] GET /api/weapons/{} - Запит зброї", id);
 
-        return weaponService.getWeaponById(id)
+        return weaponService.getWeaponViewById(id, Fields.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -76,7 +114,7 @@ public class WeaponRestController {
         log.info("[REST API] POST /api/weapons - Створення зброї: {}", weapon.getWeaponName());
 
         try {
-            weaponService.createWeapon(
+            Weapon created = weaponService.createWeapon(
                     weapon.getWeaponType(),
                     weapon.getWeaponName(),
                     weapon.getQuantity(),
@@ -85,12 +123,6 @@ public class WeaponRestController {
                     weapon.getPeriod().getId()
             );
 
-            // Повертаємо створену зброю
-            Weapon created = weaponService.getAllWeapons().stream()
-                    .filter(w -> w.getWeaponName().equals(weapon.getWeaponName()))
-                    .findFirst()
-                    .orElseThrow();
-
             return ResponseEntity
                     .created(URI.create("/api/weapons/" + created.getId()))
                     .body(created);
@@ -101,6 +133,20 @@ public class WeaponRestController {
         }
     }
 
+    // Пакетне створення: JSON-масив, одна транзакція, пакетні INSERT; помилка в елементі відхиляє весь пакет
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<Weapon>> createWeapons(@RequestBody List<Weapon> items) {
+        log.info("[REST API] POST /api/weapons/batch - Пакет зброї: {}", items.size());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(weaponService.createWeapons(items));
+        } catch (IllegalArgumentException e) {
+            log.error("[REST API] Помилка валідації пакета: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * PUT /api/weapons/{id}
      * Оновити існуючу зброю
@@ -108,7 +154,7 @@ public class WeaponRestController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Weapon> updateWeapon(
+    public ResponseEntity<WeaponView> updateWeapon(
             @PathVariable Long id,
             @RequestBody Weapon weapon) {
 
@@ -125,7 +171,7 @@ public class WeaponRestController {
                     weapon.getPeriod().getId()
             );
 
-            return weaponService.getWeaponById(id)
+            return weaponService.getWeaponViewById(id, Fields.ALL)
                     .map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
 
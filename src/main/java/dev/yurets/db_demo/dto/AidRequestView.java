@@ -0,0 +1,34 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Read-модель "Запит на допомогу" для REST API
+ * Містить ID та назви країни-отримувача, країни-донора (може бути null) і періоду,
+ * а також версію рядка - її передають в If-Match при зміні запиту
+ * Заповнюється одним JOIN-запитом (AidRequestRepository.VIEW_SELECT)
+ */
+@Getter
+@AllArgsConstructor
+public class AidRequestView {
+
+    private final Long id;
+    private final String weaponType;
+    private final String weaponName;
+    private final Integer requestedQuantity;
+    private final String priority;
+    private final String status;
+    private final LocalDate requestDate;
+    private final String requestReason;
+    private final String rejectionReason;
+    private final Long requestingCountryId;
+    private final String requestingCountryName;
+    private final Long donorCountryId;
+    private final String donorCountryName;
+    private final Long periodId;
+    private final String periodName;
+    private final Long version;
+}
@@ -0,0 +1,23 @@
+package dev.yurets.db_demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * API-токен для REST API (GET/POST /api/tokens)
+ * token - сам токен, присутній тільки у відповіді на створення: далі його неможливо отримати
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiTokenView {
+
+    private final Long id;
+    private final String name;
+    private final String scope;
+    private final LocalDateTime createdAt;
+    private final String token;
+}
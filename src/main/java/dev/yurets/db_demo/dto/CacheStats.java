@@ -0,0 +1,18 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Статистика кешу для REST API (GET /api/cache/...)
+ * hits - відповіді з кешу, misses - завантаження з БД, size - кількість записів зараз
+ */
+@Getter
+@AllArgsConstructor
+public class CacheStats {
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long size;
+}
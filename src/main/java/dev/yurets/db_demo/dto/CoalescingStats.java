@@ -0,0 +1,21 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Статистика об'єднання однакових одночасних читань (GET /api/cache/coalescing)
+ * calls - усі виклики, executions - реальні читання з БД,
+ * coalesced - виклики, що отримали результат чужого читання, ratio = coalesced / calls
+ */
+@Getter
+@AllArgsConstructor
+public class CoalescingStats {
+
+    private final String name;
+    private final boolean enabled;
+    private final long calls;
+    private final long executions;
+    private final long coalesced;
+    private final double ratio;
+}
@@ -0,0 +1,27 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Дерево країни для REST API (GET /api/countries/{id}/tree)
+ * Country → Period → Weapon → WeaponDelivery з підсумками на кожному рівні:
+ * totalAidAmountUsd - сума aidAmountUsd періодів,
+ * totalCostUsd - сума totalCostUsd зброї,
+ * deliveredQuantity - кількість, фактично доставлена (поставки зі статусом delivered)
+ */
+@Getter
+@AllArgsConstructor
+public class CountryTreeNode {
+
+    private final Long id;
+    private final String name;
+    private final BigDecimal totalAidUsd;
+    private final BigDecimal totalAidAmountUsd;
+    private final BigDecimal totalCostUsd;
+    private final long deliveredQuantity;
+    private final List<PeriodTreeNode> periods;
+}
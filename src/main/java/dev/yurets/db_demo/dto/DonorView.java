@@ -0,0 +1,21 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-модель "Донор/Організація" для REST API
+ * Містить назву країни донора
+ * Заповнюється одним JOIN-запитом (DonorRepository.VIEW_SELECT)
+ */
+@Getter
+@AllArgsConstructor
+public class DonorView {
+
+    private final Long id;
+    private final String organizationName;
+    private final String organizationType;
+    private final String contactInfo;
+    private final Long countryId;
+    private final String countryName;
+}
@@ -0,0 +1,15 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Відхилений рядок масового імпорту: номер рядка у файлі та причина
+ */
+@Getter
+@AllArgsConstructor
+public class ImportReject {
+
+    private final long line;
+    private final String error;
+}
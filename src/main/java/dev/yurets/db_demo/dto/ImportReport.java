@@ -0,0 +1,23 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Результат масового імпорту (POST /api/deliveries/import)
+ * received - рядків даних у файлі, inserted / updated - нових і оновлених записів,
+ * rejected - відхилених рядків; rejects - перші з них з причинами (не більше ліміту)
+ */
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+
+    private final long received;
+    private final long inserted;
+    private final long updated;
+    private final long rejected;
+    private final List<ImportReject> rejects;
+    private final long durationMs;
+}
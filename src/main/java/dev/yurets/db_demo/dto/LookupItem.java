@@ -0,0 +1,16 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Пара (id, підпис) для автодоповнення у формах (GET /api/lookup/...)
+ * Підпис той самий, що у випадаючих списках: "назва" або "назва (уточнення)"
+ */
+@Getter
+@AllArgsConstructor
+public class LookupItem {
+
+    private final Long id;
+    private final String label;
+}
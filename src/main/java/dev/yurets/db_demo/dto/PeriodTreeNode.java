@@ -0,0 +1,26 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Вузол періоду в дереві країни (див. CountryTreeNode)
+ * totalCostUsd і deliveredQuantity - підсумки по зброї періоду
+ */
+@Getter
+@AllArgsConstructor
+public class PeriodTreeNode {
+
+    private final Long id;
+    private final String periodName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BigDecimal aidAmountUsd;
+    private final BigDecimal totalCostUsd;
+    private final long deliveredQuantity;
+    private final List<WeaponTreeNode> weapons;
+}
@@ -0,0 +1,25 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-модель "Період допомоги" для REST API
+ * Містить назву країни, щоб клієнту не доводилось робити додатковий запит
+ * Заповнюється одним JOIN-запитом (PeriodRepository.VIEW_SELECT)
+ */
+@Getter
+@AllArgsConstructor
+public class PeriodView {
+
+    private final Long id;
+    private final String periodName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BigDecimal aidAmountUsd;
+    private final Long countryId;
+    private final String countryName;
+}
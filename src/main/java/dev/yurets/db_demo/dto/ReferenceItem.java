@@ -0,0 +1,32 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.Getter;
+
+/**
+ * Легкий запис довідника для випадаючих списків (id + назва)
+ * detail - уточнення для підпису (тип зброї, назва країни), open - чи доступний запис для вибору
+ * Заповнюється JPQL-проєкціями (findReferenceItems у репозиторіях) і кешується в ReferenceDataCache
+ */
+@Getter
+public class ReferenceItem {
+
+    private final Long id;
+    private final String name;
+    private final String detail;
+    private final boolean open;
+
+    // Країна: назва та статус (зачинена країна не може бути донором)
+    public ReferenceItem(Long id, String name, Boolean open) {
+        this.id = id;
+        this.name = name;
+        this.detail = null;
+        this.open = !Boolean.FALSE.equals(open);
+    }
+
+    public ReferenceItem(Long id, String name, String detail) {
+        this.id = id;
+        this.name = name;
+        this.detail = detail;
+        this.open = true;
+    }
+}
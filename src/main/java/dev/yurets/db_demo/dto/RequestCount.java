@@ -0,0 +1,18 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Кількість запитів на допомогу в одній комбінації статус × пріоритет × країна-отримувач
+ * (рядок GROUP BY для наповнення RequestCounters)
+ */
+@Getter
+@AllArgsConstructor
+public class RequestCount {
+
+    private final String status;
+    private final String priority;
+    private final Long countryId;
+    private final long count;
+}
@@ -0,0 +1,21 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Лічильники запитів на допомогу для REST API (GET /api/requests/stats)
+ * total - всього у вибраному зрізі, byStatus / byPriority - за кожним статусом і пріоритетом
+ * (включно з нулями), byCountry - ID країни-отримувача → кількість (тільки ненульові)
+ */
+@Getter
+@AllArgsConstructor
+public class RequestStats {
+
+    private final long total;
+    private final Map<String, Long> byStatus;
+    private final Map<String, Long> byPriority;
+    private final Map<Long, Long> byCountry;
+}
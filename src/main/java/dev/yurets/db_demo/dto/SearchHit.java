@@ -0,0 +1,21 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Результат пошуку по in-memory індексу (GET /api/search)
+ * type - тип запису (country, period, weapon, donor, delivery, request),
+ * field - поле, в якому знайдено збіг, value - його значення,
+ * score - релевантність (більше - вище у видачі)
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+    private final String type;
+    private final Long id;
+    private final String field;
+    private final String value;
+    private final int score;
+}
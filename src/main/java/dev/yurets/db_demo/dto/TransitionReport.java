@@ -0,0 +1,22 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Результат масового переходу статусу запитів (PUT /api/requests/bulk/{action})
+ * from / to - статуси переходу, transitioned - ID запитів, що змінили статус,
+ * skipped - вибрані запити, що лишились без змін, з причинами
+ */
+@Getter
+@AllArgsConstructor
+public class TransitionReport {
+
+    private final String from;
+    private final String to;
+    private final List<Long> transitioned;
+    private final List<TransitionSkip> skipped;
+    private final long durationMs;
+}
@@ -0,0 +1,15 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Запит, пропущений масовим переходом статусу: ID та причина
+ */
+@Getter
+@AllArgsConstructor
+public class TransitionSkip {
+
+    private final long id;
+    private final String reason;
+}
@@ -0,0 +1,27 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Read-модель "Поставка зброї" для REST API
+ * Містить назву зброї та організації-донора, а також версію рядка - її передають в If-Match при зміні поставки
+ * Заповнюється одним JOIN-запитом (WeaponDeliveryRepository.VIEW_SELECT)
+ */
+@Getter
+@AllArgsConstructor
+public class WeaponDeliveryView {
+
+    private final Long id;
+    private final LocalDate deliveryDate;
+    private final Integer quantityDelivered;
+    private final String deliveryStatus;
+    private final String trackingNumber;
+    private final Long weaponId;
+    private final String weaponName;
+    private final Long donorId;
+    private final String donorName;
+    private final Long version;
+}
@@ -0,0 +1,25 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Вузол зброї в дереві країни (див. CountryTreeNode)
+ * deliveredQuantity - сума quantityDelivered поставок зі статусом delivered
+ */
+@Getter
+@AllArgsConstructor
+public class WeaponTreeNode {
+
+    private final Long id;
+    private final String weaponType;
+    private final String weaponName;
+    private final Integer quantity;
+    private final BigDecimal unitCostUsd;
+    private final BigDecimal totalCostUsd;
+    private final long deliveredQuantity;
+    private final List<WeaponDeliveryView> deliveries;
+}
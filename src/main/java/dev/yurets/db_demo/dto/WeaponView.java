@@ -0,0 +1,27 @@
+package dev.yurets.db_demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-модель "Зброя" для REST API
+ * Містить назву періоду та країни (Country → Period → Weapon)
+ * Заповнюється одним JOIN-запитом (WeaponRepository.VIEW_SELECT)
+ */
+@Getter
+@AllArgsConstructor
+public class WeaponView {
+
+    private final Long id;
+    private final String weaponType;
+    private final String weaponName;
+    private final Integer quantity;
+    private final BigDecimal unitCostUsd;
+    private final BigDecimal totalCostUsd;
+    private final Long periodId;
+    private final String periodName;
+    private final Long countryId;
+    private final String countryName;
+}
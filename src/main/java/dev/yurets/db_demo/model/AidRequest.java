@@ -1,6 +1,8 @@
 package dev.yurets.db_demo.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.search.SearchIndexListener;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -10,11 +12,14 @@ import java.time.LocalDate;
  * Представляє запит від країни-отримувача на надання військової допомоги
  */
 @Entity
-@Table(name = "aid_requests")
+@Table(name = "aid_requests",
+        indexes = @Index(name = "idx_aid_requests_date_id", columnList = "request_date, id"))
+@EntityListeners({SearchIndexListener.class, InvalidationEntityListener.class})
 public class AidRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aid_requests_seq")
+    @SequenceGenerator(name = "aid_requests_seq", sequenceName = "aid_requests_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "weapon_type", nullable = false)
@@ -41,12 +46,16 @@ public class AidRequest {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason; // Причина відмови (якщо REJECTED)
 
+    // Версія рядка для оптимістичного блокування: Hibernate оновлює рядок з умовою WHERE version = <прочитана>
+    @Version
+    private Long version;
+
     /**
      * Країна, яка робить запит (отримувач допомоги)
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requesting_country_id", nullable = false)
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Country requestingCountry;
 
     /**
@@ -54,7 +63,7 @@ public class AidRequest {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "donor_country_id")
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Country donorCountry;
 
     /**
@@ -62,7 +71,7 @@ public class AidRequest {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "period_id", nullable = false)
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Period period;
 
     // Конструктори
@@ -94,6 +103,14 @@ public class AidRequest {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getWeaponType() {
         return weaponType;
     }
@@ -0,0 +1,77 @@
+package dev.yurets.db_demo.model;
+
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Сутність "API-токен"
+ * Персональний токен користувача для машинних клієнтів (заголовок Authorization: Bearer ...)
+ *
+ * Сам токен не зберігається - тільки його SHA-256 дайджест (token_hash).
+ * scope - роль, з якою діє токен (USER або ADMIN), не вища за роль власника.
+ */
+@Entity
+@Table(name = "api_tokens")
+@EntityListeners(InvalidationEntityListener.class)
+public class ApiToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 100)
+    private String name; // Назва інтеграції, напр. "ci-export"
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash; // SHA-256 у hex
+
+    @Column(nullable = false)
+    private String scope; // "USER" або "ADMIN"
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Конструктор за замовчуванням (необхідний для JPA)
+    public ApiToken() {
+    }
+
+    public ApiToken(User user, String name, String tokenHash, String scope) {
+        this.user = user;
+        this.name = name;
+        this.tokenHash = tokenHash;
+        this.scope = scope;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // --- Getters ---
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
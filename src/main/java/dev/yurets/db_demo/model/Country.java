@@ -1,8 +1,12 @@
 package dev.yurets.db_demo.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.search.SearchIndexListener;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -11,15 +15,20 @@ import java.util.Set;
 /**
  * Сутність "Країна-донор"
  * Корінь ієрархії: Country → Period → Weapon
+ * Змінюється рідко - кешується в кеші другого рівня (див. CacheConfig)
  */
 @Entity
 @Table(name = "countries")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({SearchIndexListener.class, InvalidationEntityListener.class})
 public class Country {
 
     @Getter
     @Setter
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "countries_seq")
+    @SequenceGenerator(name = "countries_seq", sequenceName = "countries_id_seq", allocationSize = 50)
     private Long id;
 
     @Getter
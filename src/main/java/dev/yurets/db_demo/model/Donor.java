@@ -1,6 +1,11 @@
 package dev.yurets.db_demo.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Set;
@@ -12,10 +17,14 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "donors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({SearchIndexListener.class, InvalidationEntityListener.class})
 public class Donor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "donors_seq")
+    @SequenceGenerator(name = "donors_seq", sequenceName = "donors_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "organization_name", nullable = false)
@@ -32,7 +41,7 @@ public class Donor {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "country_id", nullable = false)
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Country country;
 
     /**
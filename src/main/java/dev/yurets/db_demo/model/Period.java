@@ -1,6 +1,11 @@
 package dev.yurets.db_demo.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -13,10 +18,14 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "periods")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({SearchIndexListener.class, InvalidationEntityListener.class})
 public class Period {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "periods_seq")
+    @SequenceGenerator(name = "periods_seq", sequenceName = "periods_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "period_name", nullable = false)
@@ -37,7 +46,7 @@ public class Period {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "country_id", nullable = false)
-    @JsonIgnore // Ігноруємо при серіалізації, щоб уникнути циклу
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) // Тільки в запитах ({"id": ...}), у відповідях - без циклу
     private Country country;
 
     /**
@@ -1,5 +1,8 @@
 package dev.yurets.db_demo.model;
 
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.security.UserCacheListener;
+
 import javax.persistence.*;
 
 /**
@@ -8,6 +11,7 @@ import javax.persistence.*;
  */
 @Entity
 @Table(name = "users")
+@EntityListeners({UserCacheListener.class, InvalidationEntityListener.class})
 public class User {
 
     @Id
@@ -1,6 +1,8 @@
 package dev.yurets.db_demo.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.search.SearchIndexListener;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -11,10 +13,12 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "weapons")
+@EntityListeners({SearchIndexListener.class, InvalidationEntityListener.class})
 public class Weapon {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weapons_seq")
+    @SequenceGenerator(name = "weapons_seq", sequenceName = "weapons_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "weapon_type", nullable = false)
@@ -35,11 +39,12 @@ public class Weapon {
     /**
      * Зв'язок "Багато-до-Одного" з періодом
      * FetchType.LAZY: не завантажувати період, поки не попросять
-     * @JsonIgnore - запобігає циклічній серіалізації JSON
+     * WRITE_ONLY: у відповідях не серіалізується (без циклів і lazy-завантаження),
+     * у запитах приймається як {"id": ...}
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "period_id", nullable = false)
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Period period;
 
     // Конструктор за замовчуванням (необхідний для JPA)
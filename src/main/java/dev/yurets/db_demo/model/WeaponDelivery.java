@@ -1,6 +1,8 @@
 package dev.yurets.db_demo.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.yurets.db_demo.cluster.InvalidationEntityListener;
+import dev.yurets.db_demo.search.SearchIndexListener;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -11,11 +13,14 @@ import java.time.LocalDate;
  * Конкретні поставки зброї по датах
  */
 @Entity
-@Table(name = "weapon_deliveries")
+@Table(name = "weapon_deliveries",
+        indexes = @Index(name = "idx_weapon_deliveries_date_id", columnList = "delivery_date, id"))
+@EntityListeners({SearchIndexListener.class, InvalidationEntityListener.class})
 public class WeaponDelivery {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weapon_deliveries_seq")
+    @SequenceGenerator(name = "weapon_deliveries_seq", sequenceName = "weapon_deliveries_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "delivery_date", nullable = false)
@@ -30,12 +35,16 @@ public class WeaponDelivery {
     @Column(name = "tracking_number")
     private String trackingNumber;
 
+    // Версія рядка для оптимістичного блокування: Hibernate оновлює рядок з умовою WHERE version = <прочитана>
+    @Version
+    private Long version;
+
     /**
      * Зв'язок "Багато-до-Одного" зі зброєю
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "weapon_id", nullable = false)
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Weapon weapon;
 
     /**
@@ -43,7 +52,7 @@ public class WeaponDelivery {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "donor_id", nullable = false)
-    @JsonIgnore
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Donor donor;
 
     // Конструктори
@@ -70,6 +79,14 @@ public class WeaponDelivery {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDate getDeliveryDate() {
         return deliveryDate;
     }
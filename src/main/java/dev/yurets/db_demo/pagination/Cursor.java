@@ -0,0 +1,90 @@
+package dev.yurets.db_demo.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозорий курсор для keyset-пагінації
+ * Зберігає ключ сортування останнього рядка сторінки: (дата, id) або тільки id.
+ * Клієнт отримує його як base64url-рядок і повертає у параметрі ?after=
+ */
+public final class Cursor {
+
+    private static final String VERSION = "v1";
+
+    private final LocalDate date; // null для сортування тільки за id
+    private final long id;
+
+    private Cursor(LocalDate date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static Cursor ofId(long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDate date, long id) {
+        if (date == null) {
+            throw new IllegalArgumentException("Дата курсора обов'язкова");
+        }
+        return new Cursor(date, id);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Закодувати курсор у непрозорий рядок
+     */
+    public String encode() {
+        String raw = VERSION + ":" + (date != null ? date.toString() : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Розкодувати курсор, отриманий від клієнта
+     */
+    public static Cursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Курсор не може бути порожнім");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Невірний курсор");
+            }
+            long id = Long.parseLong(parts[2]);
+            return parts[1].isEmpty() ? ofId(id) : of(LocalDate.parse(parts[1]), id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Невірний курсор");
+        }
+    }
+
+    /**
+     * Курсор для сортування за (дата, id) — дата обов'язкова
+     */
+    public Cursor requireDate() {
+        if (date == null) {
+            throw new IllegalArgumentException("Курсор не відповідає порядку сортування");
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Cursor{" +
+                "date=" + date +
+                ", id=" + id +
+                '}';
+    }
+}
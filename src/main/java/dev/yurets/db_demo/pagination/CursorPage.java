@@ -0,0 +1,75 @@
+package dev.yurets.db_demo.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Сторінка результатів keyset-пагінації
+ * items - рядки сторінки, nextCursor - курсор наступної сторінки (null, якщо це остання)
+ */
+public final class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final int limit;
+
+    private CursorPage(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Нормалізувати розмір сторінки: null → DEFAULT_LIMIT, більше MAX_LIMIT → MAX_LIMIT
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Параметр limit має бути додатним");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Запит до БД на один рядок більше за розмір сторінки —
+     * так ми дізнаємось, чи є наступна сторінка, без COUNT(*)
+     */
+    public static Pageable probe(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Зібрати сторінку з результату запиту, отриманого через {@link #probe(int)}
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Cursor> keyOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, limit);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, keyOf.apply(items.get(limit - 1)).encode(), limit);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
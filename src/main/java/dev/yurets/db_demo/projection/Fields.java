@@ -0,0 +1,100 @@
+package dev.yurets.db_demo.projection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Набір полів, запитаних клієнтом через ?fields=id,status,quantity
+ * Без параметра (або з порожнім) - всі поля (ALL).
+ * Невідомі назви полів ігноруються.
+ */
+public final class Fields {
+
+    public static final Fields ALL = new Fields(null);
+
+    private final Set<String> names; // null - всі поля
+
+    private Fields(Set<String> names) {
+        this.names = names;
+    }
+
+    public static Fields parse(String param) {
+        if (param == null) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : param.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names.isEmpty() ? ALL : new Fields(Collections.unmodifiableSet(names));
+    }
+
+    public static Fields of(String... names) {
+        return new Fields(Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(names))));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * Додати поля, без яких запит не виконати (наприклад, ключі keyset-курсора)
+     * Вони читаються з БД, але у відповідь потрапляють тільки якщо їх запитав клієнт
+     */
+    public Fields with(String... required) {
+        if (names == null) {
+            return this;
+        }
+        Set<String> merged = new LinkedHashSet<>(names);
+        merged.addAll(Arrays.asList(required));
+        return new Fields(Collections.unmodifiableSet(merged));
+    }
+
+    /**
+     * Залишити в JSON тільки запитані поля
+     * (в об'єкті або в кожному об'єкті масиву; вкладені об'єкти не фільтруються)
+     */
+    public JsonNode select(JsonNode node) {
+        if (names == null) {
+            return node;
+        }
+        if (node.isArray()) {
+            node.forEach(this::select);
+        } else if (node.isObject()) {
+            ((ObjectNode) node).retain(names);
+        }
+        return node;
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    // Однакові ?fields= мають давати однаковий ключ (@Coalesced)
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Fields && Objects.equals(names, ((Fields) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return names == null ? "*" : String.join(",", names);
+    }
+}
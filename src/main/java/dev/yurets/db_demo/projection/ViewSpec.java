@@ -0,0 +1,107 @@
+package dev.yurets.db_demo.projection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Опис read-моделі для часткової проєкції (?fields=)
+ *
+ * Зберігає FROM/JOIN-частину запиту та відповідність "поле view → вираз JPQL"
+ * у порядку параметрів конструктора view. З нього будується
+ * SELECT тільки запитаних колонок; решта параметрів конструктора отримують null.
+ */
+public final class ViewSpec<V> {
+
+    private final Constructor<V> constructor;
+    private final String from;
+    private final List<String> names;
+    private final List<String> paths;
+
+    private ViewSpec(Class<V> type, String from, List<String> names, List<String> paths) {
+        this.constructor = findConstructor(type, names.size());
+        this.from = from;
+        this.names = names;
+        this.paths = paths;
+    }
+
+    public static <V> Builder<V> of(Class<V> type, String from) {
+        return new Builder<>(type, from);
+    }
+
+    /**
+     * Індекси колонок, які треба прочитати для заданих полів
+     * (якщо жодне з полів не відоме - тільки id, щоб SELECT не був порожнім)
+     */
+    public int[] columns(Fields fields) {
+        List<Integer> selected = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (fields.includes(names.get(i))) {
+                selected.add(i);
+            }
+        }
+        if (selected.isEmpty()) {
+            selected.add(0);
+        }
+        return selected.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * "SELECT <вирази вибраних колонок> FROM ... "
+     */
+    public String select(int[] columns) {
+        List<String> selected = new ArrayList<>();
+        for (int column : columns) {
+            selected.add(paths.get(column));
+        }
+        return "SELECT " + String.join(", ", selected) + " " + from;
+    }
+
+    /**
+     * Створити view з рядка результату (values - у порядку columns)
+     */
+    public V create(int[] columns, Object[] values) {
+        Object[] args = new Object[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            args[columns[i]] = values[i];
+        }
+        try {
+            return constructor.newInstance(args);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Не вдалося створити " + constructor.getDeclaringClass().getSimpleName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Constructor<V> findConstructor(Class<V> type, int params) {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() == params) {
+                return (Constructor<V>) constructor;
+            }
+        }
+        throw new IllegalStateException(type.getSimpleName() + ": немає конструктора з " + params + " параметрами");
+    }
+
+    public static final class Builder<V> {
+        private final Class<V> type;
+        private final String from;
+        private final List<String> names = new ArrayList<>();
+        private final List<String> paths = new ArrayList<>();
+
+        private Builder(Class<V> type, String from) {
+            this.type = type;
+            this.from = from;
+        }
+
+        public Builder<V> column(String name, String path) {
+            names.add(name);
+            paths.add(path);
+            return this;
+        }
+
+        public ViewSpec<V> build() {
+            return new ViewSpec<>(type, from, List.copyOf(names), List.copyOf(paths));
+        }
+    }
+}
@@ -1,17 +1,85 @@
 package dev.yurets.db_demo.repository;
 
+import dev.yurets.db_demo.dto.AidRequestView;
+import dev.yurets.db_demo.dto.RequestCount;
 import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.projection.ViewSpec;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Репозиторій для роботи із запитами на допомогу
  */
 public interface AidRequestRepository extends JpaRepository<AidRequest, Long> {
 
+    // Проєкція для REST API: запит + країни + період одним JOIN-запитом
+    // (країна-донор опціональна, тому LEFT JOIN)
+    String VIEW_FROM = "FROM AidRequest r JOIN r.requestingCountry rc LEFT JOIN r.donorCountry dc JOIN r.period p ";
+
+    String VIEW_SELECT = "SELECT new dev.yurets.db_demo.dto.AidRequestView(" +
+            "r.id, r.weaponType, r.weaponName, r.requestedQuantity, r.priority, r.status, " +
+            "r.requestDate, r.requestReason, r.rejectionReason, " +
+            "rc.id, rc.name, dc.id, dc.name, p.id, p.periodName, r.version) " +
+            VIEW_FROM;
+
+    // Та сама проєкція для ?fields= - SELECT тільки запитаних колонок (див. ViewQueries)
+    ViewSpec<AidRequestView> VIEW_SPEC = ViewSpec.of(AidRequestView.class, VIEW_FROM)
+            .column("id", "r.id")
+            .column("weaponType", "r.weaponType")
+            .column("weaponName", "r.weaponName")
+            .column("requestedQuantity", "r.requestedQuantity")
+            .column("priority", "r.priority")
+            .column("status", "r.status")
+            .column("requestDate", "r.requestDate")
+            .column("requestReason", "r.requestReason")
+            .column("rejectionReason", "r.rejectionReason")
+            .column("requestingCountryId", "rc.id")
+            .column("requestingCountryName", "rc.name")
+            .column("donorCountryId", "dc.id")
+            .column("donorCountryName", "dc.name")
+            .column("periodId", "p.id")
+            .column("periodName", "p.periodName")
+            .column("version", "r.version")
+            .build();
+
+    // Фрагменти WHERE / ORDER BY, спільні для @Query-методів і ViewQueries
+    String BY_ID = "WHERE r.id = :id ";
+    String BY_IDS = "WHERE r.id IN :ids ";
+    String BY_STATUS = "WHERE r.status = :status ";
+    String BY_PRIORITY = "WHERE r.priority = :priority ";
+    String AFTER_KEY = "WHERE r.requestDate <= :date AND (r.requestDate < :date OR r.id < :id) ";
+    String ORDER_BY_DATE = "ORDER BY r.requestDate DESC, r.id DESC";
+
+    // Список для веб-сторінок: зв'язки підтягуються тим самим запитом (без N+1)
+    @EntityGraph(attributePaths = {"requestingCountry", "donorCountry", "period"})
     List<AidRequest> findAllByOrderByRequestDateDesc();
 
+    // Пошук за зброєю, країнами, статусом або пріоритетом (регістронезалежний, див. SearchQuery)
+    @Query("SELECT r FROM AidRequest r JOIN FETCH r.requestingCountry rc " +
+            "LEFT JOIN FETCH r.donorCountry dc JOIN FETCH r.period " +
+            "WHERE LOWER(r.weaponName) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(r.weaponType) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(rc.name) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(dc.name) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(r.status) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(r.priority) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY r.requestDate DESC, r.id DESC")
+    List<AidRequest> search(@Param("pattern") String pattern, Pageable pageable);
+
     // Знайти всі запити конкретної країни-отримувача
     List<AidRequest> findByRequestingCountryId(Long countryId);
 
@@ -29,4 +97,50 @@ public interface AidRequestRepository extends JpaRepository<AidRequest, Long> {
 
     // Знайти запити за статусом та пріоритетом
     List<AidRequest> findByStatusAndPriority(String status, String priority);
-}
\ No newline at end of file
+
+    // Кількість запитів у кожній комбінації статус × пріоритет × країна-отримувач
+    // (одним GROUP BY - початкове наповнення RequestCounters)
+    @Query("SELECT new dev.yurets.db_demo.dto.RequestCount(r.status, r.priority, r.requestingCountry.id, COUNT(r)) " +
+            "FROM AidRequest r GROUP BY r.status, r.priority, r.requestingCountry.id")
+    List<RequestCount> countByStatusPriorityCountry();
+
+    // Перехід статусу як compare-and-set: рядок змінюється, тільки якщо статус і версія досі ті,
+    // що були прочитані; 0 - запит тим часом змінив хтось інший (без блокувань на час перевірок)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AidRequest r SET r.status = :to, r.rejectionReason = :rejectionReason, " +
+            "r.version = r.version + 1 " +
+            "WHERE r.id = :id AND r.status = :from AND r.version = :version")
+    int compareAndSetStatus(@Param("id") Long id, @Param("version") Long version,
+                            @Param("from") String from, @Param("to") String to,
+                            @Param("rejectionReason") String rejectionReason);
+
+    @Query(VIEW_SELECT + ORDER_BY_DATE)
+    List<AidRequestView> findAllViews();
+
+    // Потокове читання для експорту (?stream=): драйвер PostgreSQL отримує рядки порціями
+    // по fetch size (всередині транзакції), а не весь результат одразу
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + ORDER_BY_DATE)
+    Stream<AidRequestView> streamAllViews();
+
+    @Query(VIEW_SELECT + BY_ID)
+    Optional<AidRequestView> findViewById(@Param("id") Long id);
+
+    // Кілька записів за ID одним запитом (?ids=)
+    @Query(VIEW_SELECT + BY_IDS + ORDER_BY_DATE)
+    List<AidRequestView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(VIEW_SELECT + BY_STATUS + ORDER_BY_DATE)
+    List<AidRequestView> findViewsByStatus(@Param("status") String status);
+
+    @Query(VIEW_SELECT + BY_PRIORITY + ORDER_BY_DATE)
+    List<AidRequestView> findViewsByPriority(@Param("priority") String priority);
+
+    // Keyset-пагінація за (request_date DESC, id DESC) - індекс idx_aid_requests_date_id
+    @Query(VIEW_SELECT + ORDER_BY_DATE)
+    List<AidRequestView> findViewPage(Pageable pageable);
+
+    @Query(VIEW_SELECT + AFTER_KEY + ORDER_BY_DATE)
+    List<AidRequestView> findViewPageAfter(@Param("date") LocalDate date, @Param("id") Long id,
+                                           Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package dev.yurets.db_demo.repository;
+
+import dev.yurets.db_demo.model.ApiToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторій для роботи з API-токенами
+ */
+public interface ApiTokenRepository extends JpaRepository<ApiToken, Long> {
+
+    // Усі токени разом з власниками - для наповнення ApiTokenIndex при старті
+    @Query("SELECT t FROM ApiToken t JOIN FETCH t.user")
+    List<ApiToken> findAllWithUser();
+
+    List<ApiToken> findByUserUsernameOrderByIdAsc(String username);
+
+    Optional<ApiToken> findByIdAndUserUsername(Long id, String username);
+}
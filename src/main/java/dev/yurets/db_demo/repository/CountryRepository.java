@@ -1,7 +1,13 @@
 package dev.yurets.db_demo.repository;
 
+import dev.yurets.db_demo.dto.ReferenceItem;
 import dev.yurets.db_demo.model.Country;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
@@ -12,8 +18,25 @@ public interface CountryRepository extends JpaRepository<Country, Long> {
 
     // Spring Data JPA автоматично згенерує SQL:
     // "SELECT * FROM countries ORDER BY id ASC"
+    // Результат у кеші запитів (CacheConfig), самі країни - у кеші сутностей
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Country> findAllByOrderByIdAsc();
 
-    // Пошук країни за назвою
+    // Пошук за назвою (регістронезалежний, див. SearchQuery)
+    @Query("SELECT c FROM Country c WHERE LOWER(c.name) LIKE :pattern ESCAPE '\\' ORDER BY c.id ASC")
+    List<Country> search(@Param("pattern") String pattern, Pageable pageable);
+
+    // Keyset-пагінація: перша сторінка та сторінка після курсора
+    // "SELECT * FROM countries WHERE id > ? ORDER BY id ASC LIMIT ?"
+    List<Country> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<Country> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Пошук країни за назвою (перевірка унікальності при створенні)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Country findByName(String name);
+
+    // Довідник для випадаючих списків (див. ReferenceDataCache)
+    @Query("SELECT new dev.yurets.db_demo.dto.ReferenceItem(c.id, c.name, c.isOpen) FROM Country c ORDER BY c.id ASC")
+    List<ReferenceItem> findReferenceItems();
 }
@@ -1,17 +1,82 @@
 package dev.yurets.db_demo.repository;
 
+import dev.yurets.db_demo.dto.DonorView;
+import dev.yurets.db_demo.dto.ReferenceItem;
 import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.projection.ViewSpec;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторій для роботи з донорами
  */
 public interface DonorRepository extends JpaRepository<Donor, Long> {
 
+    // Проєкція для REST API: донор + назва країни одним JOIN-запитом
+    String VIEW_FROM = "FROM Donor d JOIN d.country c ";
+
+    String VIEW_SELECT = "SELECT new dev.yurets.db_demo.dto.DonorView(" +
+            "d.id, d.organizationName, d.organizationType, d.contactInfo, c.id, c.name) " +
+            VIEW_FROM;
+
+    // Та сама проєкція для ?fields= - SELECT тільки запитаних колонок (див. ViewQueries)
+    ViewSpec<DonorView> VIEW_SPEC = ViewSpec.of(DonorView.class, VIEW_FROM)
+            .column("id", "d.id")
+            .column("organizationName", "d.organizationName")
+            .column("organizationType", "d.organizationType")
+            .column("contactInfo", "d.contactInfo")
+            .column("countryId", "c.id")
+            .column("countryName", "c.name")
+            .build();
+
+    // Фрагменти WHERE / ORDER BY, спільні для @Query-методів і ViewQueries
+    String BY_ID = "WHERE d.id = :id ";
+    String BY_IDS = "WHERE d.id IN :ids ";
+    String AFTER_ID = "WHERE d.id > :id ";
+    String ORDER_BY_ID = "ORDER BY d.id ASC";
+
+    // Список для веб-сторінок: зв'язки підтягуються тим самим запитом (без N+1)
+    @EntityGraph(attributePaths = {"country"})
     List<Donor> findAllByOrderByIdAsc();
 
+    // Пошук за назвою або типом організації (регістронезалежний, див. SearchQuery)
+    @Query("SELECT d FROM Donor d JOIN FETCH d.country " +
+            "WHERE LOWER(d.organizationName) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(d.organizationType) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY d.id ASC")
+    List<Donor> search(@Param("pattern") String pattern, Pageable pageable);
+
     // Знайти всіх донорів конкретної країни
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Donor> findByCountryId(Long countryId);
-}
\ No newline at end of file
+
+    @Query(VIEW_SELECT + ORDER_BY_ID)
+    List<DonorView> findAllViews();
+
+    @Query(VIEW_SELECT + BY_ID)
+    Optional<DonorView> findViewById(@Param("id") Long id);
+
+    // Кілька записів за ID одним запитом (?ids=)
+    @Query(VIEW_SELECT + BY_IDS + ORDER_BY_ID)
+    List<DonorView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset-пагінація: перша сторінка та сторінка після курсора
+    @Query(VIEW_SELECT + ORDER_BY_ID)
+    List<DonorView> findViewPage(Pageable pageable);
+
+    @Query(VIEW_SELECT + AFTER_ID + ORDER_BY_ID)
+    List<DonorView> findViewPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // Довідник для випадаючих списків: назва донора + країна (див. ReferenceDataCache)
+    @Query("SELECT new dev.yurets.db_demo.dto.ReferenceItem(d.id, d.organizationName, c.name) " + VIEW_FROM + ORDER_BY_ID)
+    List<ReferenceItem> findReferenceItems();
+}
@@ -1,16 +1,87 @@
 package dev.yurets.db_demo.repository;
 
+import dev.yurets.db_demo.dto.PeriodView;
+import dev.yurets.db_demo.dto.ReferenceItem;
 import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.projection.ViewSpec;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторій для роботи з періодами допомоги
  */
 public interface PeriodRepository extends JpaRepository<Period, Long> {
 
+    // Проєкція для REST API: період + назва країни одним JOIN-запитом
+    String VIEW_FROM = "FROM Period p JOIN p.country c ";
+
+    String VIEW_SELECT = "SELECT new dev.yurets.db_demo.dto.PeriodView(" +
+            "p.id, p.periodName, p.startDate, p.endDate, p.aidAmountUsd, c.id, c.name) " +
+            VIEW_FROM;
+
+    // Та сама проєкція для ?fields= - SELECT тільки запитаних колонок (див. ViewQueries)
+    ViewSpec<PeriodView> VIEW_SPEC = ViewSpec.of(PeriodView.class, VIEW_FROM)
+            .column("id", "p.id")
+            .column("periodName", "p.periodName")
+            .column("startDate", "p.startDate")
+            .column("endDate", "p.endDate")
+            .column("aidAmountUsd", "p.aidAmountUsd")
+            .column("countryId", "c.id")
+            .column("countryName", "c.name")
+            .build();
+
+    // Фрагменти WHERE / ORDER BY, спільні для @Query-методів і ViewQueries
+    String BY_ID = "WHERE p.id = :id ";
+    String BY_IDS = "WHERE p.id IN :ids ";
+    String BY_COUNTRY = "WHERE c.id = :countryId ";
+    String AFTER_ID = "WHERE p.id > :id ";
+    String ORDER_BY_ID = "ORDER BY p.id ASC";
+
+    // Список для веб-сторінок: зв'язки підтягуються тим самим запитом (без N+1)
+    @EntityGraph(attributePaths = {"country"})
     List<Period> findAllByOrderByIdAsc();
 
+    // Пошук за назвою періоду або країни (регістронезалежний, див. SearchQuery)
+    @Query("SELECT p FROM Period p JOIN FETCH p.country c " +
+            "WHERE LOWER(p.periodName) LIKE :pattern ESCAPE '\\' OR LOWER(c.name) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY p.id ASC")
+    List<Period> search(@Param("pattern") String pattern, Pageable pageable);
+
     // Знайти всі періоди для конкретної країни
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Period> findByCountryId(Long countryId);
+
+    @Query(VIEW_SELECT + ORDER_BY_ID)
+    List<PeriodView> findAllViews();
+
+    @Query(VIEW_SELECT + BY_ID)
+    Optional<PeriodView> findViewById(@Param("id") Long id);
+
+    // Кілька записів за ID одним запитом (?ids=)
+    @Query(VIEW_SELECT + BY_IDS + ORDER_BY_ID)
+    List<PeriodView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Періоди країни (для дерева країни)
+    @Query(VIEW_SELECT + BY_COUNTRY + ORDER_BY_ID)
+    List<PeriodView> findViewsByCountryId(@Param("countryId") Long countryId);
+
+    // Keyset-пагінація: перша сторінка та сторінка після курсора
+    @Query(VIEW_SELECT + ORDER_BY_ID)
+    List<PeriodView> findViewPage(Pageable pageable);
+
+    @Query(VIEW_SELECT + AFTER_ID + ORDER_BY_ID)
+    List<PeriodView> findViewPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // Довідник для випадаючих списків: назва періоду + країна (див. ReferenceDataCache)
+    @Query("SELECT new dev.yurets.db_demo.dto.ReferenceItem(p.id, p.periodName, c.name) " + VIEW_FROM + ORDER_BY_ID)
+    List<ReferenceItem> findReferenceItems();
 }
@@ -0,0 +1,75 @@
+package dev.yurets.db_demo.repository;
+
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.projection.ViewSpec;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * Запити read-моделей з частковою проєкцією (?fields=)
+ *
+ * SELECT будується з ViewSpec тільки для запитаних колонок,
+ * а WHERE/ORDER BY - ті самі фрагменти, що й у @Query-методах репозиторіїв
+ * (наприклад, PeriodRepository.ORDER_BY_ID), тому результати збігаються з повною проєкцією.
+ */
+@Repository
+public class ViewQueries {
+
+    private final EntityManager entityManager;
+
+    public ViewQueries(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <V> List<V> list(ViewSpec<V> spec, Fields fields, String tail, Map<String, ?> params) {
+        return list(spec, fields, tail, params, Pageable.unpaged());
+    }
+
+    /**
+     * Те саме з обмеженням кількості рядків (для keyset-сторінок - CursorPage.probe)
+     */
+    public <V> List<V> list(ViewSpec<V> spec, Fields fields, String tail, Map<String, ?> params, Pageable pageable) {
+        int[] columns = spec.columns(fields);
+        TypedQuery<Tuple> query = query(spec, columns, tail, params);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList().stream()
+                .map(row -> spec.create(columns, row.toArray()))
+                .collect(Collectors.toList());
+    }
+
+    public <V> Optional<V> one(ViewSpec<V> spec, Fields fields, String tail, Map<String, ?> params) {
+        return list(spec, fields, tail, params, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Потокове читання (для ?stream=) - потрібна активна транзакція
+     */
+    public <V> Stream<V> stream(ViewSpec<V> spec, Fields fields, String tail, Map<String, ?> params) {
+        int[] columns = spec.columns(fields);
+        return query(spec, columns, tail, params)
+                .setHint(HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(row -> spec.create(columns, row.toArray()));
+    }
+
+    private TypedQuery<Tuple> query(ViewSpec<?> spec, int[] columns, String tail, Map<String, ?> params) {
+        TypedQuery<Tuple> query = entityManager.createQuery(spec.select(columns) + tail, Tuple.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
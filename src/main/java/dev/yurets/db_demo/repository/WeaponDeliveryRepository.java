@@ -1,17 +1,73 @@
 package dev.yurets.db_demo.repository;
 
+import dev.yurets.db_demo.dto.WeaponDeliveryView;
 import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.projection.ViewSpec;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Репозиторій для роботи з поставками зброї
  */
 public interface WeaponDeliveryRepository extends JpaRepository<WeaponDelivery, Long> {
 
+    // Проєкція для REST API: поставка + назва зброї + назва донора одним JOIN-запитом
+    String VIEW_FROM = "FROM WeaponDelivery d JOIN d.weapon w JOIN d.donor o ";
+
+    String VIEW_SELECT = "SELECT new dev.yurets.db_demo.dto.WeaponDeliveryView(" +
+            "d.id, d.deliveryDate, d.quantityDelivered, d.deliveryStatus, d.trackingNumber, " +
+            "w.id, w.weaponName, o.id, o.organizationName, d.version) " +
+            VIEW_FROM;
+
+    // Та сама проєкція для ?fields= - SELECT тільки запитаних колонок (див. ViewQueries)
+    ViewSpec<WeaponDeliveryView> VIEW_SPEC = ViewSpec.of(WeaponDeliveryView.class, VIEW_FROM)
+            .column("id", "d.id")
+            .column("deliveryDate", "d.deliveryDate")
+            .column("quantityDelivered", "d.quantityDelivered")
+            .column("deliveryStatus", "d.deliveryStatus")
+            .column("trackingNumber", "d.trackingNumber")
+            .column("weaponId", "w.id")
+            .column("weaponName", "w.weaponName")
+            .column("donorId", "o.id")
+            .column("donorName", "o.organizationName")
+            .column("version", "d.version")
+            .build();
+
+    // Фрагменти WHERE / ORDER BY, спільні для @Query-методів і ViewQueries
+    String BY_ID = "WHERE d.id = :id ";
+    String BY_IDS = "WHERE d.id IN :ids ";
+    String BY_COUNTRY = "WHERE w.period.country.id = :countryId ";
+    String BY_WEAPON = "WHERE w.id = :weaponId ";
+    String BY_DONOR = "WHERE o.id = :donorId ";
+    String BY_STATUS = "WHERE d.deliveryStatus = :status ";
+    String AFTER_KEY = "WHERE d.deliveryDate <= :date AND (d.deliveryDate < :date OR d.id < :id) ";
+    String ORDER_BY_DATE = "ORDER BY d.deliveryDate DESC, d.id DESC";
+
+    // Список для веб-сторінок: зв'язки підтягуються тим самим запитом (без N+1)
+    @EntityGraph(attributePaths = {"weapon", "donor"})
     List<WeaponDelivery> findAllByOrderByDeliveryDateDesc();
 
+    // Пошук за назвою зброї, донором або статусом (регістронезалежний, див. SearchQuery)
+    @Query("SELECT d FROM WeaponDelivery d JOIN FETCH d.weapon w JOIN FETCH d.donor o " +
+            "WHERE LOWER(w.weaponName) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(o.organizationName) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(d.deliveryStatus) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY d.deliveryDate DESC, d.id DESC")
+    List<WeaponDelivery> search(@Param("pattern") String pattern, Pageable pageable);
+
     // Знайти всі поставки конкретної зброї
     List<WeaponDelivery> findByWeaponId(Long weaponId);
 
@@ -20,4 +76,43 @@ public interface WeaponDeliveryRepository extends JpaRepository<WeaponDelivery,
 
     // Знайти поставки за статусом
     List<WeaponDelivery> findByDeliveryStatus(String status);
-}
\ No newline at end of file
+
+    @Query(VIEW_SELECT + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findAllViews();
+
+    // Потокове читання для експорту (?stream=): драйвер PostgreSQL отримує рядки порціями
+    // по fetch size (всередині транзакції), а не весь результат одразу
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + ORDER_BY_DATE)
+    Stream<WeaponDeliveryView> streamAllViews();
+
+    @Query(VIEW_SELECT + BY_ID)
+    Optional<WeaponDeliveryView> findViewById(@Param("id") Long id);
+
+    // Кілька записів за ID одним запитом (?ids=)
+    @Query(VIEW_SELECT + BY_IDS + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Всі поставки зброї країни одним запитом
+    @Query(VIEW_SELECT + BY_COUNTRY + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewsByCountryId(@Param("countryId") Long countryId);
+
+    @Query(VIEW_SELECT + BY_WEAPON + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewsByWeaponId(@Param("weaponId") Long weaponId);
+
+    @Query(VIEW_SELECT + BY_DONOR + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewsByDonorId(@Param("donorId") Long donorId);
+
+    @Query(VIEW_SELECT + BY_STATUS + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewsByStatus(@Param("status") String status);
+
+    // Keyset-пагінація за (delivery_date DESC, id DESC) - індекс idx_weapon_deliveries_date_id
+    @Query(VIEW_SELECT + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewPage(Pageable pageable);
+
+    // Умова "deliveryDate <= :date" дає діапазонне сканування індексу,
+    // друга частина відсікає рядки з тією ж датою, що вже були на попередній сторінці
+    @Query(VIEW_SELECT + AFTER_KEY + ORDER_BY_DATE)
+    List<WeaponDeliveryView> findViewPageAfter(@Param("date") LocalDate date, @Param("id") Long id,
+                                               Pageable pageable);
+}
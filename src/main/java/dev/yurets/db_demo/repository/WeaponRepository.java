@@ -1,16 +1,88 @@
 package dev.yurets.db_demo.repository;
 
+import dev.yurets.db_demo.dto.ReferenceItem;
+import dev.yurets.db_demo.dto.WeaponView;
 import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.projection.ViewSpec;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторій для роботи зі зброєю
  */
 public interface WeaponRepository extends JpaRepository<Weapon, Long> {
 
+    // Проєкція для REST API: зброя + період + країна одним JOIN-запитом
+    String VIEW_FROM = "FROM Weapon w JOIN w.period p JOIN p.country c ";
+
+    String VIEW_SELECT = "SELECT new dev.yurets.db_demo.dto.WeaponView(" +
+            "w.id, w.weaponType, w.weaponName, w.quantity, w.unitCostUsd, w.totalCostUsd, " +
+            "p.id, p.periodName, c.id, c.name) " +
+            VIEW_FROM;
+
+    // Та сама проєкція для ?fields= - SELECT тільки запитаних колонок (див. ViewQueries)
+    ViewSpec<WeaponView> VIEW_SPEC = ViewSpec.of(WeaponView.class, VIEW_FROM)
+            .column("id", "w.id")
+            .column("weaponType", "w.weaponType")
+            .column("weaponName", "w.weaponName")
+            .column("quantity", "w.quantity")
+            .column("unitCostUsd", "w.unitCostUsd")
+            .column("totalCostUsd", "w.totalCostUsd")
+            .column("periodId", "p.id")
+            .column("periodName", "p.periodName")
+            .column("countryId", "c.id")
+            .column("countryName", "c.name")
+            .build();
+
+    // Фрагменти WHERE / ORDER BY, спільні для @Query-методів і ViewQueries
+    String BY_ID = "WHERE w.id = :id ";
+    String BY_IDS = "WHERE w.id IN :ids ";
+    String BY_COUNTRY = "WHERE c.id = :countryId ";
+    String AFTER_ID = "WHERE w.id > :id ";
+    String ORDER_BY_ID = "ORDER BY w.id ASC";
+
+    // Список для веб-сторінок: зв'язки підтягуються тим самим запитом (без N+1)
+    @EntityGraph(attributePaths = {"period"})
     List<Weapon> findAllByOrderByIdAsc();
 
+    // Пошук за назвою або типом зброї (регістронезалежний, див. SearchQuery)
+    @Query("SELECT w FROM Weapon w JOIN FETCH w.period " +
+            "WHERE LOWER(w.weaponName) LIKE :pattern ESCAPE '\\' OR LOWER(w.weaponType) LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY w.id ASC")
+    List<Weapon> search(@Param("pattern") String pattern, Pageable pageable);
+
     // Знайти всю зброю для конкретного періоду
     List<Weapon> findByPeriodId(Long periodId);
-}
\ No newline at end of file
+
+    @Query(VIEW_SELECT + ORDER_BY_ID)
+    List<WeaponView> findAllViews();
+
+    @Query(VIEW_SELECT + BY_ID)
+    Optional<WeaponView> findViewById(@Param("id") Long id);
+
+    // Кілька записів за ID одним запитом (?ids=)
+    @Query(VIEW_SELECT + BY_IDS + ORDER_BY_ID)
+    List<WeaponView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Вся зброя країни - за всі її періоди
+    @Query(VIEW_SELECT + BY_COUNTRY + ORDER_BY_ID)
+    List<WeaponView> findViewsByCountryId(@Param("countryId") Long countryId);
+
+    // Keyset-пагінація: перша сторінка та сторінка після курсора
+    @Query(VIEW_SELECT + ORDER_BY_ID)
+    List<WeaponView> findViewPage(Pageable pageable);
+
+    @Query(VIEW_SELECT + AFTER_ID + ORDER_BY_ID)
+    List<WeaponView> findViewPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // Довідник для випадаючих списків: назва + тип зброї (див. ReferenceDataCache)
+    @Query("SELECT new dev.yurets.db_demo.dto.ReferenceItem(w.id, w.weaponName, w.weaponType) FROM Weapon w ORDER BY w.id ASC")
+    List<ReferenceItem> findReferenceItems();
+}
@@ -0,0 +1,94 @@
+package dev.yurets.db_demo.search;
+
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.model.WeaponDelivery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Які поля яких сутностей потрапляють у пошуковий індекс
+ * Типи документів збігаються з назвами в GET /api/search
+ */
+final class SearchDocuments {
+
+    private SearchDocuments() {
+    }
+
+    /**
+     * Додати (або оновити) сутність в індексі; сутності інших типів ігноруються
+     */
+    static void index(SearchIndex index, Object entity) {
+        if (entity instanceof Country c) {
+            index.put("country", c.getId(), fields("name", c.getName()));
+        } else if (entity instanceof Period p) {
+            index.put("period", p.getId(), fields("periodName", p.getPeriodName()));
+        } else if (entity instanceof Weapon w) {
+            Map<String, String> fields = fields("weaponName", w.getWeaponName());
+            fields.put("weaponType", w.getWeaponType());
+            index.put("weapon", w.getId(), fields);
+        } else if (entity instanceof Donor d) {
+            index.put("donor", d.getId(), fields("organizationName", d.getOrganizationName()));
+        } else if (entity instanceof WeaponDelivery d) {
+            index.put("delivery", d.getId(), fields("trackingNumber", d.getTrackingNumber()));
+        } else if (entity instanceof AidRequest r) {
+            index.put("request", r.getId(), fields("weaponName", r.getWeaponName()));
+        }
+    }
+
+    /**
+     * Документ поставки без завантаження сутності (масовий імпорт пише в обхід JPA)
+     */
+    static void indexDelivery(SearchIndex index, Long id, String trackingNumber) {
+        index.put("delivery", id, fields("trackingNumber", trackingNumber));
+    }
+
+    /**
+     * Видалити сутність з індексу
+     */
+    static void remove(SearchIndex index, Object entity) {
+        if (entity instanceof Country c) {
+            index.remove("country", c.getId());
+        } else if (entity instanceof Period p) {
+            index.remove("period", p.getId());
+        } else if (entity instanceof Weapon w) {
+            index.remove("weapon", w.getId());
+        } else if (entity instanceof Donor d) {
+            index.remove("donor", d.getId());
+        } else if (entity instanceof WeaponDelivery d) {
+            index.remove("delivery", d.getId());
+        } else if (entity instanceof AidRequest r) {
+            index.remove("request", r.getId());
+        }
+    }
+
+    /**
+     * Тип документа для класу сутності (null - сутність не індексується)
+     */
+    static String type(Class<?> entityClass) {
+        if (entityClass == Country.class) {
+            return "country";
+        } else if (entityClass == Period.class) {
+            return "period";
+        } else if (entityClass == Weapon.class) {
+            return "weapon";
+        } else if (entityClass == Donor.class) {
+            return "donor";
+        } else if (entityClass == WeaponDelivery.class) {
+            return "delivery";
+        } else if (entityClass == AidRequest.class) {
+            return "request";
+        }
+        return null;
+    }
+
+    private static Map<String, String> fields(String name, String value) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(name, value);
+        return fields;
+    }
+}
@@ -0,0 +1,305 @@
+package dev.yurets.db_demo.search;
+
+import dev.yurets.db_demo.dto.SearchHit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory інвертований триграмний індекс для пошуку за фрагментами назв
+ *
+ * Кожне проіндексоване поле розбивається на триграми ("javelin" → jav, ave, vel, eli, lin).
+ * Запит розбивається так само: кандидати - поля, що містять УСІ триграми запиту,
+ * після чого збіг перевіряється через contains (триграми можуть дати хибний збіг).
+ * Запити коротші за 3 символи перевіряються простим переглядом усіх полів.
+ *
+ * Індекс наповнюється при старті (SearchIndexLoader) і оновлюється
+ * через події життєвого циклу JPA (SearchIndexListener) - PostgreSQL при пошуку не використовується.
+ * Повне перебудування наповнює окремий екземпляр і підміняє дані одним присвоєнням (replaceWith),
+ * тому пошук під час перебудування працює зі старими, повними даними.
+ */
+@Component
+public class SearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final int GRAM = 3;
+
+    // Ранжування: точний збіг > початок значення > початок слова > будь-де всередині
+    private static final int EXACT = 400;
+    private static final int PREFIX = 300;
+    private static final int WORD_PREFIX = 200;
+    private static final int SUBSTRING = 100;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Data data = new Data();
+
+    // Зміни за час перебудування (null - перебудування не йде); повторюються над новими даними
+    private List<Consumer<Data>> pending;
+
+    /**
+     * Додати або замінити документ в індексі
+     * Порожні (null) значення полів пропускаються
+     */
+    public void put(String type, Long id, Map<String, String> values) {
+        String key = key(type, id);
+        List<Field> fields = new ArrayList<>();
+        values.forEach((name, value) -> {
+            if (value != null && !value.isBlank()) {
+                fields.add(new Field(type, id, name, value));
+            }
+        });
+
+        apply(d -> d.put(key, fields));
+    }
+
+    /**
+     * Видалити документ з індексу
+     */
+    public void remove(String type, Long id) {
+        String key = key(type, id);
+        apply(d -> d.remove(key));
+    }
+
+    /**
+     * Очистити індекс
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            data = new Data();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Почати повне перебудування: зміни з цього моменту запам'ятовуються,
+     * щоб replaceWith повторив їх над новими даними (запис міг змінитись уже після того, як його прочитали)
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Завершити перебудування: взяти дані з наповненого окремо індексу
+     * fresh після виклику не використовується; null - скасувати перебудування, дані не змінюються
+     */
+    public void replaceWith(SearchIndex fresh) {
+        lock.writeLock().lock();
+        try {
+            if (fresh != null) {
+                Data next = fresh.data;
+                if (pending != null) {
+                    pending.forEach(change -> change.accept(next));
+                }
+                data = next;
+            }
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Кількість проіндексованих документів
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Знайти записи, поля яких містять запит (без урахування регістру)
+     * Результати відсортовані за релевантністю, не більше limit (за замовчуванням DEFAULT_LIMIT)
+     */
+    public List<SearchHit> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Пошуковий запит не може бути порожнім");
+        }
+        int size = normalizeLimit(limit);
+        String q = normalize(query);
+
+        List<SearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Field field : candidates(data, q)) {
+                int score = score(field.normalized, q);
+                if (score > 0) {
+                    hits.add(new SearchHit(field.type, field.id, field.name, field.value, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingInt(SearchHit::getScore).reversed()
+                .thenComparing(SearchHit::getType)
+                .thenComparing(SearchHit::getId));
+        return hits.size() > size ? new ArrayList<>(hits.subList(0, size)) : hits;
+    }
+
+    private void apply(Consumer<Data> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Iterable<Field> candidates(Data data, String q) {
+        if (q.length() < GRAM) {
+            List<Field> all = new ArrayList<>();
+            data.documents.values().forEach(all::addAll);
+            return all;
+        }
+
+        // Перетин списків, починаючи з найкоротшого
+        List<Set<Field>> lists = new ArrayList<>();
+        for (String gram : grams(q)) {
+            Set<Field> list = data.postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Field> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Документи і триграми одного покоління індексу
+     */
+    private static final class Data {
+
+        // "type:id" → проіндексовані поля документа
+        private final Map<String, List<Field>> documents = new HashMap<>();
+
+        // триграма → поля, що її містять
+        private final Map<String, Set<Field>> postings = new HashMap<>();
+
+        private void put(String key, List<Field> fields) {
+            remove(key);
+            documents.put(key, fields);
+            for (Field field : fields) {
+                for (String gram : grams(field.normalized)) {
+                    postings.computeIfAbsent(gram, g -> new HashSet<>()).add(field);
+                }
+            }
+        }
+
+        private void remove(String key) {
+            List<Field> old = documents.remove(key);
+            if (old == null) {
+                return;
+            }
+            for (Field field : old) {
+                for (String gram : grams(field.normalized)) {
+                    Set<Field> list = postings.get(gram);
+                    if (list != null) {
+                        list.remove(field);
+                        if (list.isEmpty()) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Параметр limit має бути додатним");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static int score(String value, String q) {
+        int index = value.indexOf(q);
+        if (index < 0) {
+            return 0;
+        }
+        int base;
+        if (value.length() == q.length()) {
+            base = EXACT;
+        } else if (index == 0) {
+            base = PREFIX;
+        } else if (!Character.isLetterOrDigit(value.charAt(index - 1))) {
+            base = WORD_PREFIX;
+        } else {
+            base = SUBSTRING;
+        }
+        // Серед однакових типів збігу вище ті, де запит покриває більшу частину значення
+        return base + q.length() * 99 / value.length();
+    }
+
+    private static Set<String> grams(String s) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            grams.add(s.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    /**
+     * Проіндексоване поле документа
+     * Порівнюється за посиланням - кожне поле існує в індексі в одному екземплярі
+ * (повторена при перебудуванні зміна додає той самий екземпляр у нові дані)
+     */
+    private static final class Field {
+        private final String type;
+        private final Long id;
+        private final String name;
+        private final String value;
+        private final String normalized;
+
+        private Field(String type, Long id, String name, String value) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.value = value;
+            this.normalized = normalize(value);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.yurets.db_demo.search;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener, що підтримує SearchIndex в актуальному стані
+ *
+ * Зміни застосовуються до індексу тільки після коміту транзакції,
+ * щоб відкочені зміни не потрапили в результати пошуку.
+ * Hibernate створює listener через Spring (SpringBeanContainer), тому працює інжекція;
+ * ObjectProvider - бо в JPA-тестах (@DataJpaTest) бін індексу відсутній.
+ */
+@Component
+public class SearchIndexListener {
+
+    private final ObjectProvider<SearchIndex> searchIndex;
+
+    public SearchIndexListener(ObjectProvider<SearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        afterCommit(index -> SearchDocuments.index(index, entity));
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        afterCommit(index -> SearchDocuments.remove(index, entity));
+    }
+
+    private void afterCommit(Consumer<SearchIndex> action) {
+        SearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(index);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.accept(index);
+            }
+        });
+    }
+}
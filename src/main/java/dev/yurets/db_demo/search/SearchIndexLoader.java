@@ -0,0 +1,112 @@
+package dev.yurets.db_demo.search;
+
+import dev.yurets.db_demo.config.StartupOrder;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.model.WeaponDelivery;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Повне наповнення пошукового індексу при старті застосунку
+ * (після початкових даних з MilitaryAidApplication). Далі індекс
+ * оновлюється інкрементально через SearchIndexListener,
+ * а зміни з інших вузлів - через reindex() (див. LocalCacheEvictor).
+ *
+ * rebuild() наповнює новий екземпляр SearchIndex і лише потім підміняє ним дані робочого індексу,
+ * тож пошук під час перебудування не бачить порожнього чи неповного індексу.
+ * Сутності читаються сторінками за ID з очищенням контексту персистентності між сторінками.
+ */
+@Slf4j
+@Component
+public class SearchIndexLoader {
+
+    static final int PAGE_SIZE = 1000;
+
+    private static final List<Class<?>> INDEXED = List.of(
+            Country.class, Period.class, Weapon.class, Donor.class, WeaponDelivery.class, AidRequest.class);
+
+    private final SearchIndex searchIndex;
+    private final EntityManager entityManager;
+
+    public SearchIndexLoader(SearchIndex searchIndex, EntityManager entityManager) {
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
+    }
+
+    // synchronized - два перебудування одночасно (старт і повідомлення з іншого вузла) не перемішують зміни
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(StartupOrder.LOAD)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+
+        SearchIndex fresh = new SearchIndex();
+        searchIndex.beginRebuild();
+        try {
+            INDEXED.forEach(type -> indexAll(fresh, type));
+        } catch (RuntimeException e) {
+            searchIndex.replaceWith(null);
+            throw e;
+        }
+        searchIndex.replaceWith(fresh);
+
+        log.info("[SEARCH] Пошуковий індекс побудовано: {} записів за {} мс",
+                searchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    private void indexAll(SearchIndex target, Class<?> type) {
+        String jpql = "SELECT e FROM " + type.getSimpleName() + " e WHERE e.id > :after ORDER BY e.id";
+        long after = 0;
+        List<?> page;
+        do {
+            page = entityManager.createQuery(jpql, type)
+                    .setParameter("after", after)
+                    .setMaxResults(PAGE_SIZE)
+                    .setHint(QueryHints.HINT_READONLY, true)
+                    .getResultList();
+            for (Object entity : page) {
+                SearchDocuments.index(target, entity);
+                after = (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+            }
+            entityManager.clear();
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    /**
+     * Перечитати один запис з БД: оновити його в індексі або видалити, якщо запису вже немає
+     */
+    @Transactional(readOnly = true)
+    public void reindex(Class<?> entityClass, Long id) {
+        String type = SearchDocuments.type(entityClass);
+        if (type == null) {
+            return;
+        }
+        Object entity = entityManager.find(entityClass, id);
+        if (entity == null) {
+            searchIndex.remove(type, id);
+        } else {
+            SearchDocuments.index(searchIndex, entity);
+        }
+    }
+
+    /**
+     * Додати в індекс поставки, записані масовим імпортом (ID → трекінг-номер)
+     */
+    public void indexDeliveries(Map<Long, String> trackingNumbers) {
+        trackingNumbers.forEach((id, trackingNumber) -> SearchDocuments.indexDelivery(searchIndex, id, trackingNumber));
+        log.info("[SEARCH] Проіндексовано поставок з імпорту: {}", trackingNumbers.size());
+    }
+}
@@ -0,0 +1,46 @@
+package dev.yurets.db_demo.search;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Locale;
+
+/**
+ * Параметри пошуку для репозиторіїв
+ * Пошук регістронезалежний ("містить"), виконується в БД і повертає не більше LIMIT рядків.
+ * Шаблон використовується як LOWER(поле) LIKE :pattern ESCAPE '\'
+ * (індекси pg_trgm з db/search-indexes.sql)
+ */
+public final class SearchQuery {
+
+    public static final int LIMIT = 100;
+
+    private SearchQuery() {
+    }
+
+    /**
+     * Чи заданий пошуковий запит (не null і не порожній)
+     */
+    public static boolean isPresent(String query) {
+        return query != null && !query.trim().isEmpty();
+    }
+
+    /**
+     * Перетворити запит користувача на LIKE-шаблон "%запит%"
+     * Символи %, _ та \ екрануються, щоб шукались буквально
+     */
+    public static String pattern(String query) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + normalized + "%";
+    }
+
+    /**
+     * Обмеження кількості результатів пошуку
+     */
+    public static Pageable limit() {
+        return PageRequest.of(0, LIMIT);
+    }
+}
@@ -0,0 +1,36 @@
+package dev.yurets.db_demo.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Transient;
+
+/**
+ * Результат автентифікації за API-токеном
+ * @Transient - не зберігається в HTTP-сесії: машинні клієнти надсилають токен у кожному запиті
+ */
+@Transient
+public class ApiTokenAuthentication extends AbstractAuthenticationToken {
+
+    private final String username;
+    private final Long tokenId;
+
+    public ApiTokenAuthentication(ApiTokenIndex.Entry entry) {
+        super(entry.getAuthorities());
+        this.username = entry.getUsername();
+        this.tokenId = entry.getTokenId();
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+
+    public Long getTokenId() {
+        return tokenId;
+    }
+}
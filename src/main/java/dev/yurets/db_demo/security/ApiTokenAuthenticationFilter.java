@@ -0,0 +1,61 @@
+package dev.yurets.db_demo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Автентифікація REST API за API-токеном (Authorization: Bearer mad_...)
+ *
+ * Стоїть у ланцюжку перед BasicAuthenticationFilter: запит з токеном
+ * не проходить перевірку пароля. Запити без Bearer-заголовка обробляються як раніше.
+ * Невідомий або відкликаний токен - одразу 401, без спроби інших способів входу.
+ */
+@Slf4j
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final ApiTokenIndex apiTokenIndex;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    public ApiTokenAuthenticationFilter(ApiTokenIndex apiTokenIndex) {
+        this.apiTokenIndex = apiTokenIndex;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(BEARER.length()).trim();
+        ApiTokenIndex.Entry entry = apiTokenIndex.find(token);
+        if (entry == null) {
+            log.warn("[SECURITY] Невідомий API-токен: {}", request.getRequestURI());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        ApiTokenAuthentication authentication = new ApiTokenAuthentication(entry);
+        authentication.setDetails(detailsSource.buildDetails(request));
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,174 @@
+package dev.yurets.db_demo.security;
+
+import dev.yurets.db_demo.config.StartupOrder;
+import dev.yurets.db_demo.model.ApiToken;
+import dev.yurets.db_demo.model.User;
+import dev.yurets.db_demo.repository.ApiTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory індекс API-токенів: SHA-256 дайджест → власник і роль
+ *
+ * Перевірка токена - один SHA-256 і пошук у хеш-таблиці, без запиту до БД і без BCrypt.
+ * Ключем є дайджест, а не сам токен, тому час пошуку не залежить від того,
+ * скільки символів токена вгадано.
+ *
+ * Індекс наповнюється з таблиці api_tokens при старті, далі ApiTokenService
+ * оновлює його разом з таблицею (write-through), а UserCacheListener - при зміні власника.
+ * Токен діє з правами не вищими за поточну роль власника: scope ADMIN після пониження
+ * власника до USER дає тільки USER.
+ */
+@Slf4j
+@Component
+public class ApiTokenIndex {
+
+    // Префікс допомагає розпізнати токен у логах/конфігах і відрізнити від пароля
+    public static final String PREFIX = "mad_";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+
+    private final ApiTokenRepository apiTokenRepository;
+
+    public ApiTokenIndex(ApiTokenRepository apiTokenRepository) {
+        this.apiTokenRepository = apiTokenRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(StartupOrder.LOAD)
+    @Transactional(readOnly = true)
+    public void load() {
+        Map<String, Entry> loaded = new HashMap<>();
+        for (ApiToken token : apiTokenRepository.findAllWithUser()) {
+            loaded.put(token.getTokenHash(), entry(token));
+        }
+        // Без проміжного порожнього стану: при перезавантаженні (зміни з інших вузлів)
+        // чинний токен ні на мить не зникає з індексу
+        tokens.keySet().retainAll(loaded.keySet());
+        tokens.putAll(loaded);
+        log.info("[SECURITY] Завантажено API-токенів: {}", tokens.size());
+    }
+
+    /**
+     * Знайти токен (null - невідомий або відкликаний)
+     */
+    public Entry find(String token) {
+        if (token == null || !token.startsWith(PREFIX)) {
+            return null;
+        }
+        return tokens.get(digest(token));
+    }
+
+    public void put(ApiToken token) {
+        tokens.put(token.getTokenHash(), entry(token));
+    }
+
+    public void remove(String tokenHash) {
+        tokens.remove(tokenHash);
+    }
+
+    /**
+     * Власника змінено (після коміту): нове ім'я і права його токенів за новою роллю
+     */
+    public void ownerChanged(User owner) {
+        tokens.replaceAll((hash, entry) -> Objects.equals(entry.userId, owner.getId())
+                ? new Entry(entry.tokenId, owner.getId(), owner.getUsername(), entry.scope, owner.getRole())
+                : entry);
+    }
+
+    /**
+     * Власника видалено (після коміту): його токени більше не діють
+     */
+    public void ownerRemoved(User owner) {
+        tokens.values().removeIf(entry -> Objects.equals(entry.userId, owner.getId()));
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    private static Entry entry(ApiToken token) {
+        User owner = token.getUser();
+        return new Entry(token.getId(), owner.getId(), owner.getUsername(), token.getScope(), owner.getRole());
+    }
+
+    /**
+     * Права токена: scope, але не вище за роль власника
+     */
+    static String effectiveScope(String scope, String role) {
+        return "ADMIN".equals(scope) && !"ADMIN".equals(role) ? "USER" : scope;
+    }
+
+    /**
+     * Новий випадковий токен (256 біт)
+     */
+    public String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * SHA-256 дайджест токена у hex - саме він зберігається в БД
+     */
+    public static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступний", e);
+        }
+    }
+
+    /**
+     * Запис індексу: id токена, власник і права
+     */
+    public static final class Entry {
+        private final Long tokenId;
+        private final Long userId;
+        private final String username;
+        private final String scope;
+        private final List<GrantedAuthority> authorities;
+
+        private Entry(Long tokenId, Long userId, String username, String scope, String role) {
+            this.tokenId = tokenId;
+            this.userId = userId;
+            this.username = username;
+            this.scope = scope;
+            this.authorities = List.of(new SimpleGrantedAuthority(effectiveScope(scope, role)));
+        }
+
+        public Long getTokenId() {
+            return tokenId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public List<GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.yurets.db_demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Провайдер автентифікації з кешем успішних перевірок пароля
+ *
+ * HTTP Basic надсилає логін і пароль у кожному запиті, а перевірка BCrypt(10) коштує
+ * десятки мілісекунд CPU. Після успішної перевірки запис кладеться в обмежений кеш з коротким TTL,
+ * тому BCrypt виконується один раз на клієнта за вікно TTL, а не на кожен запит.
+ *
+ * - Ключ - HMAC-SHA256(логін, пароль) з випадковим ключем, що існує тільки в пам'яті процесу:
+ *   пароль у відкритому вигляді не зберігається, а ключі кешу не можна підібрати офлайн
+ * - Кешуються тільки успішні перевірки: невірний пароль щоразу перевіряється через BCrypt
+ * - Будь-яка зміна користувача очищує кеш (UserCacheListener); перевірка, що почалась до очищення,
+ *   у кеш не потрапляє (лічильник поколінь), бо могла прочитати старий пароль
+ */
+@Slf4j
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final SecretKeySpec key;
+    private final Cache<String, Verified> verified;
+    // Збільшується при кожному очищенні кешу
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maxSize) {
+        this.delegate = delegate;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String)) {
+            return delegate.authenticate(authentication);
+        }
+        String cacheKey = cacheKey(authentication.getName(), (String) authentication.getCredentials());
+
+        Verified hit = verified.getIfPresent(cacheKey);
+        if (hit != null) {
+            UsernamePasswordAuthenticationToken result =
+                    new UsernamePasswordAuthenticationToken(hit.principal, null, hit.authorities);
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        long seen = generation.get();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated() && generation.get() == seen) {
+            verified.put(cacheKey, new Verified(result.getPrincipal(), result.getAuthorities()));
+            // invalidateAll() між перевіркою покоління і put: запис прибирається тут
+            if (generation.get() != seen) {
+                verified.invalidate(cacheKey);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    /**
+     * Забути всі перевірені облікові дані (користувача змінено або видалено)
+     */
+    public void invalidateAll() {
+        // Спочатку покоління: перевірка, що вже йде, після цього не покладе в кеш свій результат
+        generation.incrementAndGet();
+        verified.invalidateAll();
+        log.debug("Кеш перевірених облікових даних очищено");
+    }
+
+    public long size() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    private String cacheKey(String username, String password) {
+        byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        byte[] pass = password.getBytes(StandardCharsets.UTF_8);
+        // Довжина логіна в ключі: пари ("ab", "c") та ("a", "bc") дають різні HMAC
+        byte[] message = ByteBuffer.allocate(4 + user.length + pass.length)
+                .putInt(user.length).put(user).put(pass)
+                .array();
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return Base64.getEncoder().encodeToString(mac.doFinal(message));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 недоступний", e);
+        }
+    }
+
+    /**
+     * Результат успішної перевірки: користувач і його ролі (без пароля)
+     */
+    private static final class Verified {
+        private final Object principal;
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private Verified(Object principal, Collection<? extends GrantedAuthority> authorities) {
+            this.principal = principal;
+            this.authorities = authorities;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.yurets.db_demo.security;
+
+import dev.yurets.db_demo.model.User;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener для User: очищує кеш перевірених облікових даних, оновлює права
+ * API-токенів користувача в ApiTokenIndex (або прибирає їх, якщо користувача видалено)
+ * і збільшує версію таблиці користувачів (DataTable.USER) для кешу фрагментів /viewAll
+ *
+ * Очищення - після коміту: якщо зробити його раніше, паралельний запит ще прочитає
+ * старий пароль з БД і знову покладе його в кеш. Перевірку, що прочитала старий пароль до коміту,
+ * а закінчила BCrypt після очищення, відсікає лічильник поколінь у CachingAuthenticationProvider.
+ * ObjectProvider - бо в JPA-тестах (@DataJpaTest) SecurityConfig і ApiTokenIndex не піднімаються.
+ */
+@Component
+public class UserCacheListener {
+
+    private final ObjectProvider<CachingAuthenticationProvider> authenticationProvider;
+    private final ObjectProvider<TableVersions> tableVersions;
+    private final ObjectProvider<ApiTokenIndex> apiTokenIndex;
+
+    public UserCacheListener(ObjectProvider<CachingAuthenticationProvider> authenticationProvider,
+                             ObjectProvider<TableVersions> tableVersions,
+                             ObjectProvider<ApiTokenIndex> apiTokenIndex) {
+        this.authenticationProvider = authenticationProvider;
+        this.tableVersions = tableVersions;
+        this.apiTokenIndex = apiTokenIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(User user) {
+        changed(() -> apiTokenIndex.ifAvailable(index -> index.ownerChanged(user)));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        changed(() -> apiTokenIndex.ifAvailable(index -> index.ownerRemoved(user)));
+    }
+
+    private void changed(Runnable tokens) {
+        // bump() сам чекає коміту поточної транзакції
+        tableVersions.ifAvailable(versions -> versions.bump(DataTable.USER));
+
+        Runnable afterCommit = () -> {
+            authenticationProvider.ifAvailable(CachingAuthenticationProvider::invalidateAll);
+            tokens.run();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                afterCommit.run();
+            }
+        });
+    }
+}
@@ -1,18 +1,39 @@
 package dev.yurets.db_demo.service;
 
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.dto.AidRequestView;
 import dev.yurets.db_demo.model.AidRequest;
 import dev.yurets.db_demo.model.Country;
 import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.repository.AidRequestRepository;
 import dev.yurets.db_demo.repository.CountryRepository;
 import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Сервіс для роботи із запитами на допомогу
@@ -27,21 +48,117 @@ public class AidRequestService {
     private final CountryRepository countryRepository;
     private final PeriodRepository periodRepository;
     private final WeaponDeliveryService deliveryService;
+    private final ViewQueries viewQueries;
+    private final TableVersions tableVersions;
+    private final RequestCounters requestCounters;
+    // ObjectProvider - бо в JPA-тестах (@DataJpaTest) бін шини відсутній
+    private final ObjectProvider<InvalidationBus> invalidationBus;
 
     public AidRequestService(AidRequestRepository requestRepository,
                              CountryRepository countryRepository,
                              PeriodRepository periodRepository,
-                             WeaponDeliveryService deliveryService) {
+                             WeaponDeliveryService deliveryService,
+                             ViewQueries viewQueries,
+                             TableVersions tableVersions,
+                             RequestCounters requestCounters,
+                             ObjectProvider<InvalidationBus> invalidationBus) {
         this.requestRepository = requestRepository;
         this.countryRepository = countryRepository;
         this.periodRepository = periodRepository;
         this.deliveryService = deliveryService;
+        this.viewQueries = viewQueries;
+        this.tableVersions = tableVersions;
+        this.requestCounters = requestCounters;
+        this.invalidationBus = invalidationBus;
     }
 
     public List<AidRequest> getAllRequests() {
         return requestRepository.findAllByOrderByRequestDateDesc();
     }
 
+    /**
+     * Пошук запитів за зброєю, країнами, статусом або пріоритетом
+     */
+    @Transactional(readOnly = true)
+    public List<AidRequest> searchRequests(String query) {
+        return requestRepository.search(SearchQuery.pattern(query), SearchQuery.limit());
+    }
+
+    // --- Read-модель для REST API (назви країн та періоду одним JOIN-запитом) ---
+
+    @Transactional(readOnly = true)
+    @Coalesced(value = "requests", tables = {DataTable.REQUEST, DataTable.COUNTRY, DataTable.PERIOD})
+    public List<AidRequestView> getAllRequestViews(Fields fields) {
+        return fields.isAll()
+                ? requestRepository.findAllViews()
+                : viewQueries.list(AidRequestRepository.VIEW_SPEC, fields, AidRequestRepository.ORDER_BY_DATE, Map.of());
+    }
+
+    /**
+     * Потокове читання всіх запитів для експорту (рядок за рядком, без списку в пам'яті)
+     */
+    @Transactional(readOnly = true)
+    public void streamRequestViews(Fields fields, Consumer<AidRequestView> consumer) {
+        try (Stream<AidRequestView> rows = fields.isAll()
+                ? requestRepository.streamAllViews()
+                : viewQueries.stream(AidRequestRepository.VIEW_SPEC, fields, AidRequestRepository.ORDER_BY_DATE, Map.of())) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AidRequestView> getRequestViewById(Long id, Fields fields) {
+        return fields.isAll()
+                ? requestRepository.findViewById(id)
+                : viewQueries.one(AidRequestRepository.VIEW_SPEC, fields, AidRequestRepository.BY_ID, Map.of("id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AidRequestView> getRequestViewsByIds(Collection<Long> ids, Fields fields) {
+        return fields.isAll()
+                ? requestRepository.findViewsByIdIn(ids)
+                : viewQueries.list(AidRequestRepository.VIEW_SPEC, fields,
+                        AidRequestRepository.BY_IDS + AidRequestRepository.ORDER_BY_DATE, Map.of("ids", ids));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AidRequestView> getRequestViewsByStatus(String status, Fields fields) {
+        return fields.isAll()
+                ? requestRepository.findViewsByStatus(status)
+                : viewQueries.list(AidRequestRepository.VIEW_SPEC, fields, AidRequestRepository.BY_STATUS + AidRequestRepository.ORDER_BY_DATE, Map.of("status", status));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AidRequestView> getRequestViewsByPriority(String priority, Fields fields) {
+        return fields.isAll()
+                ? requestRepository.findViewsByPriority(priority)
+                : viewQueries.list(AidRequestRepository.VIEW_SPEC, fields, AidRequestRepository.BY_PRIORITY + AidRequestRepository.ORDER_BY_DATE, Map.of("priority", priority));
+    }
+
+    /**
+     * Сторінка запитів (keyset-пагінація за датою запиту та ID, від нових до старих)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AidRequestView> getRequestsPage(String after, Integer limit, Fields fields) {
+        int size = CursorPage.normalizeLimit(limit);
+        Pageable probe = CursorPage.probe(size);
+        // Дата та id - ключ курсора наступної сторінки, читаються завжди
+        Fields columns = fields.with("id", "requestDate");
+        List<AidRequestView> rows;
+        if (after == null) {
+            rows = fields.isAll()
+                    ? requestRepository.findViewPage(probe)
+                    : viewQueries.list(AidRequestRepository.VIEW_SPEC, columns, AidRequestRepository.ORDER_BY_DATE, Map.of(), probe);
+        } else {
+            Cursor cursor = Cursor.decode(after).requireDate();
+            rows = fields.isAll()
+                    ? requestRepository.findViewPageAfter(cursor.getDate(), cursor.getId(), probe)
+                    : viewQueries.list(AidRequestRepository.VIEW_SPEC, columns, AidRequestRepository.AFTER_KEY + AidRequestRepository.ORDER_BY_DATE,
+                            Map.of("date", cursor.getDate(), "id", cursor.getId()), probe);
+        }
+        return CursorPage.of(rows, size, r -> Cursor.of(r.getRequestDate(), r.getId()));
+    }
+
     public Optional<AidRequest> getRequestById(Long id) {
         return requestRepository.findById(id);
     }
@@ -57,10 +174,54 @@ public class AidRequestService {
     /**
      * Створити новий запит на допомогу
      */
-    public void createRequest(String weaponType, String weaponName,
-                              Integer requestedQuantity, String priority,
-                              String requestReason, Long requestingCountryId,
-                              Long donorCountryId, Long periodId) {
+    public AidRequest createRequest(String weaponType, String weaponName,
+                                    Integer requestedQuantity, String priority,
+                                    String requestReason, Long requestingCountryId,
+                                    Long donorCountryId, Long periodId) {
+        AidRequest request = newRequest(weaponType, weaponName, requestedQuantity, priority, requestReason,
+                requestingCountryId, donorCountryId, periodId, countryRepository::findById, periodRepository::findById);
+        AidRequest saved = requestRepository.save(request);
+        // Лічильники - раніше за bump(): новий ETag не має з'явитись раніше за нові лічильники
+        requestCounters.move(null, RequestCounters.cellOf(saved));
+        tableVersions.bump(DataTable.REQUEST);
+        log.info("Створено запит на допомогу: {} x {} (ID: {}, Пріоритет: {})",
+                saved.getRequestedQuantity(), saved.getWeaponName(), saved.getId(), saved.getPriority());
+        return saved;
+    }
+
+    /**
+     * Створити пакет запитів однією транзакцією
+     */
+    public List<AidRequest> createRequests(List<AidRequest> requests) {
+        BatchItems.checkSize(requests);
+        Set<Long> countryIds = BatchItems.referenceIds(requests, AidRequest::getRequestingCountry, Country::getId);
+        countryIds.addAll(BatchItems.referenceIds(requests, AidRequest::getDonorCountry, Country::getId));
+        Function<Long, Optional<Country>> countries = BatchItems.lookup(
+                countryRepository.findAllById(countryIds), Country::getId);
+        Function<Long, Optional<Period>> periods = BatchItems.lookup(periodRepository.findAllById(
+                BatchItems.referenceIds(requests, AidRequest::getPeriod, Period::getId)), Period::getId);
+        List<AidRequest> created = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            AidRequest r = requests.get(i);
+            created.add(BatchItems.item(i, () -> newRequest(r.getWeaponType(), r.getWeaponName(),
+                    r.getRequestedQuantity(), r.getPriority(), r.getRequestReason(),
+                    BatchItems.id(r.getRequestingCountry(), Country::getId),
+                    BatchItems.id(r.getDonorCountry(), Country::getId),
+                    BatchItems.id(r.getPeriod(), Period::getId), countries, periods)));
+        }
+        requestRepository.saveAll(created);
+        created.forEach(saved -> requestCounters.move(null, RequestCounters.cellOf(saved)));
+        tableVersions.bump(DataTable.REQUEST);
+        log.info("Створено пакет запитів на допомогу: {}", created.size());
+        return created;
+    }
+
+    private AidRequest newRequest(String weaponType, String weaponName,
+                                  Integer requestedQuantity, String priority,
+                                  String requestReason, Long requestingCountryId,
+                                  Long donorCountryId, Long periodId,
+                                  Function<Long, Optional<Country>> countries,
+                                  Function<Long, Optional<Period>> periods) {
 
         // Валідація типу зброї
         if (weaponType == null || weaponType.trim().isEmpty()) {
@@ -100,14 +261,14 @@ public class AidRequestService {
         if (requestingCountryId == null) {
             throw new IllegalArgumentException("Країна-отримувач обов'язкова");
         }
-        Country requestingCountry = countryRepository.findById(requestingCountryId)
+        Country requestingCountry = countries.apply(requestingCountryId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Країну-отримувача з ID " + requestingCountryId + " не знайдено!"));
 
         // Валідація країни-донора (опціонально)
         Country donorCountry = null;
         if (donorCountryId != null) {
-            donorCountry = countryRepository.findById(donorCountryId)
+            donorCountry = countries.apply(donorCountryId)
                     .orElseThrow(() -> new IllegalArgumentException(
                             "Країну-донора з ID " + donorCountryId + " не знайдено!"));
 
@@ -122,7 +283,7 @@ public class AidRequestService {
         if (periodId == null) {
             throw new IllegalArgumentException("Період обов'язковий");
         }
-        Period period = periodRepository.findById(periodId)
+        Period period = periods.apply(periodId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Період з ID " + periodId + " не знайдено!"));
 
@@ -133,7 +294,7 @@ public class AidRequestService {
         }
 
         // Створення запиту
-        AidRequest request = new AidRequest(
+        return new AidRequest(
                 weaponType.trim(),
                 weaponName.trim(),
                 requestedQuantity,
@@ -145,16 +306,14 @@ public class AidRequestService {
                 donorCountry,
                 period
         );
-
-        AidRequest saved = requestRepository.save(request);
-        log.info("Створено запит на допомогу: {} x {} (ID: {}, Пріоритет: {})",
-                saved.getRequestedQuantity(), saved.getWeaponName(), saved.getId(), saved.getPriority());
     }
 
     /**
      * Оновити існуючий запит
+     * expectedVersion - версія з If-Match (null - без перевірки). Зміна, закомічена після читання,
+     * теж не перезаписується: Hibernate оновлює рядок з умовою на версію (@Version)
      */
-    public void updateRequest(Long id, String weaponType, String weaponName,
+    public void updateRequest(Long id, Long expectedVersion, String weaponType, String weaponName,
                               Integer requestedQuantity, String priority,
                               String requestReason, Long requestingCountryId,
                               Long donorCountryId, Long periodId) {
@@ -162,12 +321,14 @@ public class AidRequestService {
         AidRequest request = requestRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Запит з ID " + id + " не знайдено!"));
+        checkVersion(request, expectedVersion);
 
         // Перевірка чи можна редагувати
         if (request.getStatus().equals("APPROVED") || request.getStatus().equals("DELIVERED")) {
             throw new IllegalStateException(
                     "Неможливо редагувати запит зі статусом " + request.getStatus());
         }
+        RequestCounters.Cell before = RequestCounters.cellOf(request);
 
         // Валідація аналогічна createRequest
         if (weaponType == null || weaponType.trim().isEmpty() || !isValidWeaponType(weaponType)) {
@@ -211,16 +372,20 @@ public class AidRequestService {
         request.setPeriod(period);
 
         AidRequest updated = requestRepository.save(request);
+        requestCounters.move(before, RequestCounters.cellOf(updated));
+        tableVersions.bump(DataTable.REQUEST);
         log.info("Оновлено запит на допомогу (ID: {})", updated.getId());
     }
 
     /**
-     * Схвалити запит та створити поставку
+     * Схвалити запит (PENDING → APPROVED)
+     * expectedVersion - версія з If-Match (null - без перевірки)
      */
-    public void approveRequest(Long id) {
+    public void approveRequest(Long id, Long expectedVersion) {
         AidRequest request = requestRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Запит з ID " + id + " не знайдено!"));
+        checkVersion(request, expectedVersion);
 
         if (!request.getStatus().equals("PENDING")) {
             throw new IllegalStateException(
@@ -232,29 +397,27 @@ public class AidRequestService {
                     "Неможливо схвалити запит без призначеної країни-донора");
         }
 
-        // Зміна статусу
-        request.setStatus("APPROVED");
-        requestRepository.save(request);
+        changeStatus(request, "APPROVED", request.getRejectionReason());
 
         log.info("✅ Схвалено запит на допомогу (ID: {}). Статус: APPROVED", request.getId());
     }
 
     /**
-     * Відхилити запит
+     * Відхилити запит (PENDING → REJECTED)
+     * expectedVersion - версія з If-Match (null - без перевірки)
      */
-    public void rejectRequest(Long id, String rejectionReason) {
+    public void rejectRequest(Long id, Long expectedVersion, String rejectionReason) {
         AidRequest request = requestRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Запит з ID " + id + " не знайдено!"));
+        checkVersion(request, expectedVersion);
 
         if (!request.getStatus().equals("PENDING")) {
             throw new IllegalStateException(
                     "Можна відхилити тільки запити зі статусом PENDING");
         }
 
-        request.setStatus("REJECTED");
-        request.setRejectionReason(rejectionReason);
-        requestRepository.save(request);
+        changeStatus(request, "REJECTED", rejectionReason);
 
         log.info("❌ Відхилено запит на допомогу (ID: {}). Причина: {}", request.getId(), rejectionReason);
     }
@@ -275,6 +438,39 @@ public class AidRequestService {
 
         log.info("Видалення запиту на допомогу (ID: {})", request.getId());
         requestRepository.deleteById(id);
+        requestCounters.move(RequestCounters.cellOf(request), null);
+        tableVersions.bump(DataTable.REQUEST);
+    }
+
+    /**
+     * Змінити статус одним умовним UPDATE: тільки якщо статус і версія ті самі, що були прочитані.
+     * Рецензент, який встиг першим, не перезаписується - другий отримує OptimisticLockingFailureException
+     */
+    private void changeStatus(AidRequest request, String status, String rejectionReason) {
+        RequestCounters.Cell before = RequestCounters.cellOf(request);
+        RequestCounters.Cell after = RequestCounters.cell(status, request.getPriority(),
+                request.getRequestingCountry().getId());
+
+        int updated = requestRepository.compareAndSetStatus(request.getId(), request.getVersion(),
+                request.getStatus(), status, rejectionReason);
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException(
+                    "Запит з ID " + request.getId() + " змінено паралельно - оновіть дані та повторіть");
+        }
+        requestCounters.move(before, after);
+        tableVersions.bump(DataTable.REQUEST);
+        // UPDATE в обхід entity listeners - інші вузли повідомляються явно
+        invalidationBus.ifAvailable(bus -> bus.publish(AidRequest.class, List.of(request.getId())));
+    }
+
+    /**
+     * Версія з If-Match має збігатися з поточною (null - без перевірки)
+     */
+    private static void checkVersion(AidRequest request, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(request.getVersion())) {
+            throw new OptimisticLockingFailureException("Запит з ID " + request.getId() + " змінено (версія "
+                    + request.getVersion() + ", очікувалась " + expectedVersion + ")");
+        }
     }
 
     // --- Допоміжні методи валідації ---
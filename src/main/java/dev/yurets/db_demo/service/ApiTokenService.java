@@ -0,0 +1,111 @@
+package dev.yurets.db_demo.service;
+
+import dev.yurets.db_demo.dto.ApiTokenView;
+import dev.yurets.db_demo.model.ApiToken;
+import dev.yurets.db_demo.model.User;
+import dev.yurets.db_demo.repository.ApiTokenRepository;
+import dev.yurets.db_demo.repository.UserRepository;
+import dev.yurets.db_demo.security.ApiTokenIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервіс для роботи з персональними API-токенами
+ * Таблиця api_tokens і ApiTokenIndex оновлюються разом (write-through)
+ */
+@Slf4j
+@Service
+@Transactional
+public class ApiTokenService {
+
+    private static final Set<String> SCOPES = Set.of("USER", "ADMIN");
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final ApiTokenRepository apiTokenRepository;
+    private final UserRepository userRepository;
+    private final ApiTokenIndex apiTokenIndex;
+
+    public ApiTokenService(ApiTokenRepository apiTokenRepository,
+                           UserRepository userRepository,
+                           ApiTokenIndex apiTokenIndex) {
+        this.apiTokenRepository = apiTokenRepository;
+        this.userRepository = userRepository;
+        this.apiTokenIndex = apiTokenIndex;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ApiTokenView> getTokens(String username) {
+        return apiTokenRepository.findByUserUsernameOrderByIdAsc(username).stream()
+                .map(t -> new ApiTokenView(t.getId(), t.getName(), t.getScope(), t.getCreatedAt(), null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Випустити токен для користувача
+     * scope за замовчуванням - роль користувача; ADMIN доступний тільки адміністратору.
+     * Повертає сам токен - це єдиний момент, коли він відомий: у БД лише SHA-256
+     */
+    public ApiTokenView createToken(String username, String name, String scope) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Назва токена не може бути порожньою");
+        }
+        if (name.trim().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Назва токена не може бути довшою за " + MAX_NAME_LENGTH + " символів");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("Користувача не знайдено: " + username));
+
+        String tokenScope = scope == null || scope.isBlank() ? user.getRole() : scope.trim().toUpperCase();
+        if (!SCOPES.contains(tokenScope)) {
+            throw new IllegalArgumentException("Невідомий scope: " + scope + " (допустимі: USER, ADMIN)");
+        }
+        if (tokenScope.equals("ADMIN") && !user.getRole().equals("ADMIN")) {
+            throw new IllegalArgumentException("Scope ADMIN доступний тільки адміністратору");
+        }
+
+        String token = apiTokenIndex.generate();
+        ApiToken saved = apiTokenRepository.save(
+                new ApiToken(user, name.trim(), ApiTokenIndex.digest(token), tokenScope));
+
+        // Токен починає діяти тільки після коміту
+        afterCommit(() -> apiTokenIndex.put(saved));
+        log.info("[SECURITY] Створено API-токен #{} ({}) для {}", saved.getId(), tokenScope, username);
+
+        return new ApiTokenView(saved.getId(), saved.getName(), saved.getScope(), saved.getCreatedAt(), token);
+    }
+
+    /**
+     * Відкликати токен користувача
+     * З індексу токен прибирається одразу, ще до коміту: відкликаний токен не має діяти жодної миті
+     */
+    public boolean deleteToken(String username, Long id) {
+        return apiTokenRepository.findByIdAndUserUsername(id, username)
+                .map(token -> {
+                    apiTokenIndex.remove(token.getTokenHash());
+                    apiTokenRepository.delete(token);
+                    log.info("[SECURITY] Відкликано API-токен #{} користувача {}", id, username);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
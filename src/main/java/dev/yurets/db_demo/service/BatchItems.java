@@ -0,0 +1,81 @@
+package dev.yurets.db_demo.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Спільне для пакетного створення (POST /api/.../batch)
+ *
+ * Пакет перевіряється тими самими правилами, що й одиничне створення; зв'язки
+ * (країна, період, зброя...) завантажуються одним findAllById на весь пакет.
+ * Помилка в будь-якому елементі відхиляє весь пакет (одна транзакція),
+ * у повідомленні - номер елемента.
+ */
+final class BatchItems {
+
+    // Більші пакети - частинами: весь пакет тримається в контексті персистентності до коміту
+    static final int MAX_SIZE = 10_000;
+
+    private BatchItems() {
+    }
+
+    static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Пакет порожній");
+        }
+        if (items.contains(null)) {
+            throw new IllegalArgumentException("Пакет містить порожні елементи");
+        }
+        if (items.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("Пакет занадто великий (максимум " + MAX_SIZE + " елементів)");
+        }
+    }
+
+    /**
+     * ID зв'язку з усіх елементів ({"period": {"id": 5}} → 5); елементи без зв'язку пропускаються
+     */
+    static <T, R> Set<Long> referenceIds(List<T> items, Function<T, R> reference, Function<R, Long> referenceId) {
+        Set<Long> ids = new HashSet<>();
+        for (T item : items) {
+            Long id = id(reference.apply(item), referenceId);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Завантажені зв'язки за ID - замість findById для кожного елемента
+     */
+    static <E> Function<Long, Optional<E>> lookup(List<E> loaded, Function<E, Long> id) {
+        Map<Long, E> byId = loaded.stream().collect(Collectors.toMap(id, Function.identity()));
+        return key -> Optional.ofNullable(byId.get(key));
+    }
+
+    /**
+     * Створити елемент пакета; помилка валідації отримує номер елемента (з 0)
+     */
+    static <T> T item(int index, Supplier<T> create) {
+        try {
+            return create.get();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Елемент " + index + ": " + e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Елемент " + index + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * ID вкладеного об'єкта-зв'язку або null
+     */
+    static <R> Long id(R reference, Function<R, Long> id) {
+        return reference == null ? null : id.apply(reference);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.yurets.db_demo.service;
+
+import dev.yurets.db_demo.projection.Fields;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервіс для отримання кількох колекцій одним HTTP-запитом (GET /api/bundle)
+ *
+ * Всі колекції читаються в одній read-only транзакції з REPEATABLE READ:
+ * у PostgreSQL це один знімок даних, тому колекції узгоджені між собою
+ * (наприклад, кожен період посилається на країну з того ж набору).
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+public class BundleService {
+
+    public static final List<String> COLLECTIONS =
+            List.of("countries", "periods", "weapons", "donors", "deliveries", "requests");
+
+    private final CountryService countryService;
+    private final PeriodService periodService;
+    private final WeaponService weaponService;
+    private final DonorService donorService;
+    private final WeaponDeliveryService deliveryService;
+    private final AidRequestService requestService;
+
+    public BundleService(CountryService countryService,
+                         PeriodService periodService,
+                         WeaponService weaponService,
+                         DonorService donorService,
+                         WeaponDeliveryService deliveryService,
+                         AidRequestService requestService) {
+        this.countryService = countryService;
+        this.periodService = periodService;
+        this.weaponService = weaponService;
+        this.donorService = donorService;
+        this.deliveryService = deliveryService;
+        this.requestService = requestService;
+    }
+
+    /**
+     * Завантажити вказані колекції (у порядку запиту)
+     * Невідома назва - IllegalArgumentException до будь-якого запиту до БД
+     */
+    public Map<String, List<?>> getBundle(Collection<String> include) {
+        if (include.isEmpty()) {
+            throw new IllegalArgumentException("Вкажіть хоча б одну колекцію: " + String.join(",", COLLECTIONS));
+        }
+        for (String name : include) {
+            if (!COLLECTIONS.contains(name)) {
+                throw new IllegalArgumentException("Невідома колекція: " + name
+                        + " (доступні: " + String.join(",", COLLECTIONS) + ")");
+            }
+        }
+
+        Map<String, List<?>> bundle = new LinkedHashMap<>();
+        for (String name : include) {
+            bundle.put(name, load(name));
+        }
+        log.info("Bundle: {}", bundle.keySet());
+        return bundle;
+    }
+
+    private List<?> load(String name) {
+        switch (name) {
+            case "countries":
+                return countryService.getAllCountries();
+            case "periods":
+                return periodService.getAllPeriodViews(Fields.ALL);
+            case "weapons":
+                return weaponService.getAllWeaponViews(Fields.ALL);
+            case "donors":
+                return donorService.getAllDonorViews(Fields.ALL);
+            case "deliveries":
+                return deliveryService.getAllDeliveryViews(Fields.ALL);
+            case "requests":
+                return requestService.getAllRequestViews(Fields.ALL);
+            default:
+                throw new IllegalArgumentException("Невідома колекція: " + name);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package dev.yurets.db_demo.service;
 
 import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
 import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,9 +28,11 @@ import java.util.Optional;
 public class CountryService {
 
     private final CountryRepository countryRepository;
+    private final TableVersions tableVersions;
 
-    public CountryService(CountryRepository countryRepository) {
+    public CountryService(CountryRepository countryRepository, TableVersions tableVersions) {
         this.countryRepository = countryRepository;
+        this.tableVersions = tableVersions;
     }
 
     /**
@@ -32,6 +42,37 @@ public class CountryService {
         return countryRepository.findAllByOrderByIdAsc();
     }
 
+    /**
+     * Пошук країн за назвою (у БД, не більше SearchQuery.LIMIT рядків)
+     */
+    @Transactional(readOnly = true)
+    public List<Country> searchCountries(String query) {
+        return countryRepository.search(SearchQuery.pattern(query), SearchQuery.limit());
+    }
+
+    /**
+     * Отримати сторінку країн (keyset-пагінація за ID)
+     * Вартість запиту не залежить від глибини сторінки
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Country> getCountriesPage(String after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        List<Country> rows = after == null
+                ? countryRepository.findAllByOrderByIdAsc(CursorPage.probe(size))
+                : countryRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decode(after).getId(), CursorPage.probe(size));
+        return CursorPage.of(rows, size, e -> Cursor.ofId(e.getId()));
+    }
+
+    /**
+     * Отримати кілька країн за ID одним запитом (відсутні ID пропускаються)
+     */
+    @Transactional(readOnly = true)
+    public List<Country> getCountriesByIds(Collection<Long> ids) {
+        List<Country> countries = countryRepository.findAllById(ids);
+        countries.sort(Comparator.comparing(Country::getId));
+        return countries;
+    }
+
     /**
      * Знайти країну за ID
      */
@@ -42,7 +83,33 @@ public class CountryService {
     /**
      * Створити нову країну з валідацією
      */
-    public void createCountry(String name, BigDecimal totalAidUsd, Boolean isOpen) {  // ⬅️ ДОДАЛИ isOpen
+    public Country createCountry(String name, BigDecimal totalAidUsd, Boolean isOpen) {  // ⬅️ ДОДАЛИ isOpen
+        Country country = newCountry(name, totalAidUsd, isOpen);
+        Country saved = countryRepository.save(country);
+        tableVersions.bump(DataTable.COUNTRY);
+
+        log.info("Створено країну: {} (ID: {}, Статус: {})",
+                saved.getName(), saved.getId(), saved.isOpen() ? "відкрита" : "зачинена");
+        return saved;
+    }
+
+    /**
+     * Створити пакет країн однією транзакцією
+     */
+    public List<Country> createCountries(List<Country> countries) {
+        BatchItems.checkSize(countries);
+        List<Country> created = new ArrayList<>(countries.size());
+        for (int i = 0; i < countries.size(); i++) {
+            Country c = countries.get(i);
+            created.add(BatchItems.item(i, () -> newCountry(c.getName(), c.getTotalAidUsd(), c.isOpen())));
+        }
+        countryRepository.saveAll(created);
+        tableVersions.bump(DataTable.COUNTRY);
+        log.info("Створено пакет країн: {}", created.size());
+        return created;
+    }
+
+    private Country newCountry(String name, BigDecimal totalAidUsd, Boolean isOpen) {
         // Валідація назви
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Назва країни не може бути порожньою");
@@ -68,10 +135,7 @@ public class CountryService {
         // Створення країни
         Country country = new Country(name.trim(), totalAidUsd);
         country.setOpen(isOpen != null ? isOpen : true);  // ⬅️ ВСТАНОВЛЮЄМО СТАТУС
-        Country saved = countryRepository.save(country);
-
-        log.info("Створено країну: {} (ID: {}, Статус: {})",
-                saved.getName(), saved.getId(), saved.isOpen() ? "відкрита" : "зачинена");
+        return country;
     }
 
     /**
@@ -110,6 +174,7 @@ public class CountryService {
         country.setOpen(isOpen != null ? isOpen : true);  // ⬅️ ОНОВЛЮЄМО СТАТУС
 
         Country updated = countryRepository.save(country);
+        tableVersions.bump(DataTable.COUNTRY);
 
         log.info("Оновлено країну: {} (ID: {}, Статус: {})",
                 updated.getName(), updated.getId(), updated.isOpen() ? "відкрита" : "зачинена");
@@ -127,6 +192,7 @@ public class CountryService {
         log.info("Видалення країни: {} (ID: {})", country.getName(), country.getId());
 
         countryRepository.deleteById(id);
+        tableVersions.bump(DataTable.COUNTRY, DataTable.PERIOD, DataTable.WEAPON);
     }
 
     /**
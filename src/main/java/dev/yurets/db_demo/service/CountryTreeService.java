@@ -0,0 +1,122 @@
+package dev.yurets.db_demo.service;
+
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.dto.CountryTreeNode;
+import dev.yurets.db_demo.dto.PeriodTreeNode;
+import dev.yurets.db_demo.dto.PeriodView;
+import dev.yurets.db_demo.dto.WeaponDeliveryView;
+import dev.yurets.db_demo.dto.WeaponTreeNode;
+import dev.yurets.db_demo.dto.WeaponView;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.WeaponDeliveryRepository;
+import dev.yurets.db_demo.repository.WeaponRepository;
+import dev.yurets.db_demo.version.DataTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Сервіс для побудови дерева країни (Country → Period → Weapon → WeaponDelivery)
+ *
+ * Піддерево завантажується чотирма запитами незалежно від його розміру:
+ * країна, всі її періоди, вся зброя цих періодів і всі поставки цієї зброї.
+ * Вузли збираються та підсумки рахуються в пам'яті.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class CountryTreeService {
+
+    private static final String DELIVERED = "delivered";
+
+    private final CountryRepository countryRepository;
+    private final PeriodRepository periodRepository;
+    private final WeaponRepository weaponRepository;
+    private final WeaponDeliveryRepository deliveryRepository;
+
+    public CountryTreeService(CountryRepository countryRepository,
+                              PeriodRepository periodRepository,
+                              WeaponRepository weaponRepository,
+                              WeaponDeliveryRepository deliveryRepository) {
+        this.countryRepository = countryRepository;
+        this.periodRepository = periodRepository;
+        this.weaponRepository = weaponRepository;
+        this.deliveryRepository = deliveryRepository;
+    }
+
+    /**
+     * Отримати дерево країни з підсумками (порожній Optional - країну не знайдено)
+     */
+    @Coalesced(value = "country-tree", tables = {DataTable.COUNTRY, DataTable.PERIOD, DataTable.WEAPON,
+            DataTable.DELIVERY, DataTable.DONOR})
+    public Optional<CountryTreeNode> getCountryTree(Long countryId) {
+        Optional<Country> country = countryRepository.findById(countryId);
+        if (country.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<Long, List<WeaponDeliveryView>> deliveriesByWeapon = deliveryRepository.findViewsByCountryId(countryId)
+                .stream()
+                .collect(Collectors.groupingBy(WeaponDeliveryView::getWeaponId));
+
+        Map<Long, List<WeaponTreeNode>> weaponsByPeriod = weaponRepository.findViewsByCountryId(countryId)
+                .stream()
+                .collect(Collectors.groupingBy(WeaponView::getPeriodId,
+                        Collectors.mapping(w -> weaponNode(w, deliveriesByWeapon.getOrDefault(w.getId(), List.of())),
+                                Collectors.toList())));
+
+        List<PeriodTreeNode> periods = new ArrayList<>();
+        for (PeriodView p : periodRepository.findViewsByCountryId(countryId)) {
+            periods.add(periodNode(p, weaponsByPeriod.getOrDefault(p.getId(), List.of())));
+        }
+
+        BigDecimal aidAmount = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+        long delivered = 0;
+        for (PeriodTreeNode p : periods) {
+            aidAmount = add(aidAmount, p.getAidAmountUsd());
+            cost = add(cost, p.getTotalCostUsd());
+            delivered += p.getDeliveredQuantity();
+        }
+
+        Country c = country.get();
+        log.info("Дерево країни {} (ID: {}): {} періодів", c.getName(), c.getId(), periods.size());
+        return Optional.of(new CountryTreeNode(c.getId(), c.getName(), c.getTotalAidUsd(),
+                aidAmount, cost, delivered, periods));
+    }
+
+    private static PeriodTreeNode periodNode(PeriodView p, List<WeaponTreeNode> weapons) {
+        BigDecimal cost = BigDecimal.ZERO;
+        long delivered = 0;
+        for (WeaponTreeNode w : weapons) {
+            cost = add(cost, w.getTotalCostUsd());
+            delivered += w.getDeliveredQuantity();
+        }
+        return new PeriodTreeNode(p.getId(), p.getPeriodName(), p.getStartDate(), p.getEndDate(),
+                p.getAidAmountUsd(), cost, delivered, weapons);
+    }
+
+    private static WeaponTreeNode weaponNode(WeaponView w, List<WeaponDeliveryView> deliveries) {
+        long delivered = 0;
+        for (WeaponDeliveryView d : deliveries) {
+            if (DELIVERED.equals(d.getDeliveryStatus()) && d.getQuantityDelivered() != null) {
+                delivered += d.getQuantityDelivered();
+            }
+        }
+        return new WeaponTreeNode(w.getId(), w.getWeaponType(), w.getWeaponName(), w.getQuantity(),
+                w.getUnitCostUsd(), w.getTotalCostUsd(), delivered, deliveries);
+    }
+
+    private static BigDecimal add(BigDecimal sum, BigDecimal value) {
+        return value == null ? sum : sum.add(value);
+    }
+}
@@ -1,15 +1,29 @@
 package dev.yurets.db_demo.service;
 
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.dto.DonorView;
 import dev.yurets.db_demo.model.Country;
 import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.repository.CountryRepository;
 import dev.yurets.db_demo.repository.DonorRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Сервіс для роботи з донорами
@@ -21,16 +35,70 @@ public class DonorService {
 
     private final DonorRepository donorRepository;
     private final CountryRepository countryRepository;
+    private final ViewQueries viewQueries;
+    private final TableVersions tableVersions;
 
-    public DonorService(DonorRepository donorRepository, CountryRepository countryRepository) {
+    public DonorService(DonorRepository donorRepository, CountryRepository countryRepository,
+                        ViewQueries viewQueries,
+                        TableVersions tableVersions) {
         this.donorRepository = donorRepository;
         this.countryRepository = countryRepository;
+        this.viewQueries = viewQueries;
+        this.tableVersions = tableVersions;
     }
 
     public List<Donor> getAllDonors() {
         return donorRepository.findAllByOrderByIdAsc();
     }
 
+    @Transactional(readOnly = true)
+    public List<Donor> searchDonors(String query) {
+        return donorRepository.search(SearchQuery.pattern(query), SearchQuery.limit());
+    }
+
+    @Transactional(readOnly = true)
+    @Coalesced(value = "donors", tables = {DataTable.DONOR, DataTable.COUNTRY})
+    public List<DonorView> getAllDonorViews(Fields fields) {
+        return fields.isAll()
+                ? donorRepository.findAllViews()
+                : viewQueries.list(DonorRepository.VIEW_SPEC, fields, DonorRepository.ORDER_BY_ID, Map.of());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DonorView> getDonorViewById(Long id, Fields fields) {
+        return fields.isAll()
+                ? donorRepository.findViewById(id)
+                : viewQueries.one(DonorRepository.VIEW_SPEC, fields, DonorRepository.BY_ID, Map.of("id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonorView> getDonorViewsByIds(Collection<Long> ids, Fields fields) {
+        return fields.isAll()
+                ? donorRepository.findViewsByIdIn(ids)
+                : viewQueries.list(DonorRepository.VIEW_SPEC, fields,
+                        DonorRepository.BY_IDS + DonorRepository.ORDER_BY_ID, Map.of("ids", ids));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DonorView> getDonorsPage(String after, Integer limit, Fields fields) {
+        int size = CursorPage.normalizeLimit(limit);
+        Pageable probe = CursorPage.probe(size);
+        Fields columns = fields.with("id");
+        List<DonorView> rows;
+        if (after == null) {
+            rows = fields.isAll()
+                    ? donorRepository.findViewPage(probe)
+                    : viewQueries.list(DonorRepository.VIEW_SPEC, columns, DonorRepository.ORDER_BY_ID, Map.of(), probe);
+        } else {
+            Long id = Cursor.decode(after).getId();
+            rows = fields.isAll()
+                    ? donorRepository.findViewPageAfter(id, probe)
+                    : viewQueries.list(DonorRepository.VIEW_SPEC, columns,
+                            DonorRepository.AFTER_ID + DonorRepository.ORDER_BY_ID, Map.of("id", id), probe);
+        }
+        return CursorPage.of(rows, size, d -> Cursor.ofId(d.getId()));
+    }
+
     public Optional<Donor> getDonorById(Long id) {
         return donorRepository.findById(id);
     }
@@ -39,8 +107,40 @@ public class DonorService {
         return donorRepository.findByCountryId(countryId);
     }
 
-    public void createDonor(String organizationName, String organizationType,
-                            String contactInfo, Long countryId) {
+    public Donor createDonor(String organizationName, String organizationType,
+                             String contactInfo, Long countryId) {
+        Donor donor = newDonor(organizationName, organizationType, contactInfo, countryId,
+                countryRepository::findById);
+        Donor saved = donorRepository.save(donor);
+        tableVersions.bump(DataTable.DONOR);
+
+        log.info("Створено донора: {} (тип: {}, ID: {})",
+                saved.getOrganizationName(), saved.getOrganizationType(), saved.getId());
+        return saved;
+    }
+
+    /**
+     * Створити пакет донорів однією транзакцією
+     */
+    public List<Donor> createDonors(List<Donor> donors) {
+        BatchItems.checkSize(donors);
+        Function<Long, Optional<Country>> countries = BatchItems.lookup(countryRepository.findAllById(
+                BatchItems.referenceIds(donors, Donor::getCountry, Country::getId)), Country::getId);
+        List<Donor> created = new ArrayList<>(donors.size());
+        for (int i = 0; i < donors.size(); i++) {
+            Donor d = donors.get(i);
+            created.add(BatchItems.item(i, () -> newDonor(d.getOrganizationName(), d.getOrganizationType(),
+                    d.getContactInfo(), BatchItems.id(d.getCountry(), Country::getId), countries)));
+        }
+        donorRepository.saveAll(created);
+        tableVersions.bump(DataTable.DONOR);
+        log.info("Створено пакет донорів: {}", created.size());
+        return created;
+    }
+
+    private Donor newDonor(String organizationName, String organizationType,
+                           String contactInfo, Long countryId,
+                           Function<Long, Optional<Country>> countries) {
         // Валідація
         if (organizationName == null || organizationName.trim().isEmpty()) {
             throw new IllegalArgumentException("Назва організації не може бути порожньою");
@@ -52,15 +152,11 @@ public class DonorService {
             throw new IllegalArgumentException("Країна обов'язкова");
         }
 
-        Country country = countryRepository.findById(countryId)
+        Country country = countries.apply(countryId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Країну з ID " + countryId + " не знайдено!"));
 
-        Donor donor = new Donor(organizationName.trim(), organizationType.trim(), contactInfo, country);
-        Donor saved = donorRepository.save(donor);
-
-        log.info("Створено донора: {} (тип: {}, ID: {})",
-                saved.getOrganizationName(), saved.getOrganizationType(), saved.getId());
+        return new Donor(organizationName.trim(), organizationType.trim(), contactInfo, country);
     }
 
     public void updateDonor(Long id, String organizationName, String organizationType,
@@ -90,6 +186,7 @@ public class DonorService {
         donor.setCountry(country);
 
         Donor updated = donorRepository.save(donor);
+        tableVersions.bump(DataTable.DONOR);
         log.info("Оновлено донора: {} (ID: {})", updated.getOrganizationName(), updated.getId());
     }
 
@@ -100,5 +197,6 @@ public class DonorService {
 
         log.info("Видалення донора: {} (ID: {})", donor.getOrganizationName(), donor.getId());
         donorRepository.deleteById(id);
+        tableVersions.bump(DataTable.DONOR, DataTable.DELIVERY);
     }
 }
\ No newline at end of file
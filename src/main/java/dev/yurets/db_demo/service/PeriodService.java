@@ -1,17 +1,31 @@
 package dev.yurets.db_demo.service;
 
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.dto.PeriodView;
 import dev.yurets.db_demo.model.Country;
 import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.repository.CountryRepository;
 import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Сервіс для роботи з періодами допомоги
@@ -24,11 +38,17 @@ public class PeriodService {
 
     private final PeriodRepository periodRepository;
     private final CountryRepository countryRepository;
+    private final ViewQueries viewQueries;
+    private final TableVersions tableVersions;
 
     public PeriodService(PeriodRepository periodRepository,
-                         CountryRepository countryRepository) {
+                         CountryRepository countryRepository,
+                         ViewQueries viewQueries,
+                         TableVersions tableVersions) {
         this.periodRepository = periodRepository;
         this.countryRepository = countryRepository;
+        this.viewQueries = viewQueries;
+        this.tableVersions = tableVersions;
     }
 
     /**
@@ -38,6 +58,71 @@ public class PeriodService {
         return periodRepository.findAllByOrderByIdAsc();
     }
 
+    /**
+     * Пошук періодів за назвою періоду або країни
+     */
+    @Transactional(readOnly = true)
+    public List<Period> searchPeriods(String query) {
+        return periodRepository.search(SearchQuery.pattern(query), SearchQuery.limit());
+    }
+
+    /**
+     * Отримати всі періоди з назвою країни (для REST API, один JOIN-запит)
+     */
+    @Transactional(readOnly = true)
+    @Coalesced(value = "periods", tables = {DataTable.PERIOD, DataTable.COUNTRY})
+    public List<PeriodView> getAllPeriodViews(Fields fields) {
+        return fields.isAll()
+                ? periodRepository.findAllViews()
+                : viewQueries.list(PeriodRepository.VIEW_SPEC, fields, PeriodRepository.ORDER_BY_ID, Map.of());
+    }
+
+    /**
+     * Знайти період з назвою країни за ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<PeriodView> getPeriodViewById(Long id, Fields fields) {
+        return fields.isAll()
+                ? periodRepository.findViewById(id)
+                : viewQueries.one(PeriodRepository.VIEW_SPEC, fields, PeriodRepository.BY_ID, Map.of("id", id));
+    }
+
+    /**
+     * Знайти кілька періодів за ID одним запитом (?ids=)
+     */
+    @Transactional(readOnly = true)
+    public List<PeriodView> getPeriodViewsByIds(Collection<Long> ids, Fields fields) {
+        return fields.isAll()
+                ? periodRepository.findViewsByIdIn(ids)
+                : viewQueries.list(PeriodRepository.VIEW_SPEC, fields,
+                        PeriodRepository.BY_IDS + PeriodRepository.ORDER_BY_ID, Map.of("ids", ids));
+    }
+
+    /**
+     * Отримати сторінку періодів (keyset-пагінація за ID)
+     * Вартість запиту не залежить від глибини сторінки
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PeriodView> getPeriodsPage(String after, Integer limit, Fields fields) {
+        int size = CursorPage.normalizeLimit(limit);
+        Pageable probe = CursorPage.probe(size);
+        // id потрібен для курсора наступної сторінки, навіть якщо його не запитали
+        Fields columns = fields.with("id");
+        List<PeriodView> rows;
+        if (after == null) {
+            rows = fields.isAll()
+                    ? periodRepository.findViewPage(probe)
+                    : viewQueries.list(PeriodRepository.VIEW_SPEC, columns, PeriodRepository.ORDER_BY_ID, Map.of(), probe);
+        } else {
+            Long id = Cursor.decode(after).getId();
+            rows = fields.isAll()
+                    ? periodRepository.findViewPageAfter(id, probe)
+                    : viewQueries.list(PeriodRepository.VIEW_SPEC, columns,
+                            PeriodRepository.AFTER_ID + PeriodRepository.ORDER_BY_ID, Map.of("id", id), probe);
+        }
+        return CursorPage.of(rows, size, p -> Cursor.ofId(p.getId()));
+    }
+
     /**
      * Знайти період за ID
      */
@@ -55,9 +140,40 @@ public class PeriodService {
     /**
      * Створити новий період з валідацією
      */
-    public void createPeriod(String periodName, LocalDate startDate,
+    public Period createPeriod(String periodName, LocalDate startDate,
+                               LocalDate endDate, BigDecimal aidAmountUsd,
+                               Long countryId) {
+        Period period = newPeriod(periodName, startDate, endDate, aidAmountUsd, countryId, countryRepository::findById);
+        Period saved = periodRepository.save(period);
+        tableVersions.bump(DataTable.PERIOD);
+
+        log.info("Створено період: {} для країни {} (ID: {})",
+                saved.getPeriodName(), saved.getCountry().getName(), saved.getId());
+        return saved;
+    }
+
+    /**
+     * Створити пакет періодів однією транзакцією
+     */
+    public List<Period> createPeriods(List<Period> periods) {
+        BatchItems.checkSize(periods);
+        Function<Long, Optional<Country>> countries = BatchItems.lookup(countryRepository.findAllById(
+                BatchItems.referenceIds(periods, Period::getCountry, Country::getId)), Country::getId);
+        List<Period> created = new ArrayList<>(periods.size());
+        for (int i = 0; i < periods.size(); i++) {
+            Period p = periods.get(i);
+            created.add(BatchItems.item(i, () -> newPeriod(p.getPeriodName(), p.getStartDate(), p.getEndDate(),
+                    p.getAidAmountUsd(), BatchItems.id(p.getCountry(), Country::getId), countries)));
+        }
+        periodRepository.saveAll(created);
+        tableVersions.bump(DataTable.PERIOD);
+        log.info("Створено пакет періодів: {}", created.size());
+        return created;
+    }
+
+    private Period newPeriod(String periodName, LocalDate startDate,
                              LocalDate endDate, BigDecimal aidAmountUsd,
-                             Long countryId) {
+                             Long countryId, Function<Long, Optional<Country>> countries) {
         // Валідація назви періоду
         if (periodName == null || periodName.trim().isEmpty()) {
             throw new IllegalArgumentException("Назва періоду не може бути порожньою");
@@ -94,16 +210,11 @@ public class PeriodService {
         if (countryId == null) {
             throw new IllegalArgumentException("Країна обов'язкова");
         }
-        Country country = countryRepository.findById(countryId)
+        Country country = countries.apply(countryId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Країну з ID " + countryId + " не знайдено!"));
 
-        Period period = new Period(periodName.trim(), startDate, endDate, aidAmountUsd, country);
-        Period saved = periodRepository.save(period);
-
-        log.info("Створено період: {} для країни {} (ID: {})",
-                saved.getPeriodName(), country.getName(), saved.getId());
-
+        return new Period(periodName.trim(), startDate, endDate, aidAmountUsd, country);
     }
 
     /**
@@ -163,6 +274,7 @@ public class PeriodService {
         period.setCountry(country);
 
         Period updated = periodRepository.save(period);
+        tableVersions.bump(DataTable.PERIOD);
 
         log.info("Оновлено період: {} (ID: {})", updated.getPeriodName(), updated.getId());
 
@@ -180,5 +292,6 @@ public class PeriodService {
         log.info("Видалення періоду: {} (ID: {})", period.getPeriodName(), period.getId());
 
         periodRepository.deleteById(id);
+        tableVersions.bump(DataTable.PERIOD, DataTable.WEAPON);
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package dev.yurets.db_demo.service;
+
+import dev.yurets.db_demo.repository.UserRepository;
+import dev.yurets.db_demo.version.DataTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Сервіс для завантаження секцій сторінки перегляду (GET /viewAll)
+ *
+ * Кожна секція - одна таблиця з view-tables-sections.html. Секція знає таблиці,
+ * з яких вона будується (з урахуванням пов'язаних назв, що показуються в рядках),
+ * тому зібраний з неї HTML-фрагмент можна кешувати за версіями цих таблиць (FragmentCache).
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ViewTablesService {
+
+    /**
+     * Секції сторінки у порядку відображення
+     */
+    public enum Section {
+        COUNTRIES("countries", false, DataTable.COUNTRY),
+        PERIODS("periods", false, DataTable.PERIOD, DataTable.COUNTRY),
+        WEAPONS("weapons", false, DataTable.WEAPON, DataTable.PERIOD),
+        DONORS("donors", false, DataTable.DONOR, DataTable.COUNTRY),
+        DELIVERIES("deliveries", false, DataTable.DELIVERY, DataTable.WEAPON, DataTable.DONOR),
+        USERS("users", true, DataTable.USER),
+        REQUESTS("requests", false, DataTable.REQUEST, DataTable.COUNTRY, DataTable.PERIOD);
+
+        private final String name;
+        private final boolean adminOnly;
+        private final DataTable[] tables;
+
+        Section(String name, boolean adminOnly, DataTable... tables) {
+            this.name = name;
+            this.adminOnly = adminOnly;
+            this.tables = tables;
+        }
+
+        /**
+         * Назва секції: і th:fragment у шаблоні, і змінна моделі зі списком записів
+         */
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAdminOnly() {
+            return adminOnly;
+        }
+
+        public DataTable[] getTables() {
+            return tables.clone();
+        }
+    }
+
+    private final CountryService countryService;
+    private final PeriodService periodService;
+    private final WeaponService weaponService;
+    private final DonorService donorService;
+    private final WeaponDeliveryService deliveryService;
+    private final AidRequestService requestService;
+    private final UserRepository userRepository;
+
+    public ViewTablesService(CountryService countryService,
+                             PeriodService periodService,
+                             WeaponService weaponService,
+                             DonorService donorService,
+                             WeaponDeliveryService deliveryService,
+                             AidRequestService requestService,
+                             UserRepository userRepository) {
+        this.countryService = countryService;
+        this.periodService = periodService;
+        this.weaponService = weaponService;
+        this.donorService = donorService;
+        this.deliveryService = deliveryService;
+        this.requestService = requestService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Завантажити записи секції (один запит до БД, зв'язки - через entity graph)
+     */
+    public List<?> load(Section section) {
+        log.debug("Завантаження секції {} сторінки перегляду", section.getName());
+        switch (section) {
+            case COUNTRIES:
+                return countryService.getAllCountries();
+            case PERIODS:
+                return periodService.getAllPeriods();
+            case WEAPONS:
+                return weaponService.getAllWeapons();
+            case DONORS:
+                return donorService.getAllDonors();
+            case DELIVERIES:
+                return deliveryService.getAllDeliveries();
+            case USERS:
+                return userRepository.findAll();
+            case REQUESTS:
+                return requestService.getAllRequests();
+            default:
+                throw new IllegalArgumentException("Невідома секція: " + section);
+        }
+    }
+}
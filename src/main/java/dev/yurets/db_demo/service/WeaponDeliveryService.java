@@ -1,18 +1,35 @@
 package dev.yurets.db_demo.service;
 
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.dto.WeaponDeliveryView;
 import dev.yurets.db_demo.model.Donor;
 import dev.yurets.db_demo.model.Weapon;
 import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.repository.DonorRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
 import dev.yurets.db_demo.repository.WeaponDeliveryRepository;
 import dev.yurets.db_demo.repository.WeaponRepository;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Сервіс для роботи з поставками зброї
@@ -25,19 +42,117 @@ public class WeaponDeliveryService {
     private final WeaponDeliveryRepository deliveryRepository;
     private final WeaponRepository weaponRepository;
     private final DonorRepository donorRepository;
+    private final ViewQueries viewQueries;
+    private final TableVersions tableVersions;
 
     public WeaponDeliveryService(WeaponDeliveryRepository deliveryRepository,
                                  WeaponRepository weaponRepository,
-                                 DonorRepository donorRepository) {
+                                 DonorRepository donorRepository,
+                                 ViewQueries viewQueries,
+                                 TableVersions tableVersions) {
         this.deliveryRepository = deliveryRepository;
         this.weaponRepository = weaponRepository;
         this.donorRepository = donorRepository;
+        this.viewQueries = viewQueries;
+        this.tableVersions = tableVersions;
     }
 
     public List<WeaponDelivery> getAllDeliveries() {
         return deliveryRepository.findAllByOrderByDeliveryDateDesc();
     }
 
+    /**
+     * Пошук поставок за назвою зброї, донором або статусом
+     */
+    @Transactional(readOnly = true)
+    public List<WeaponDelivery> searchDeliveries(String query) {
+        return deliveryRepository.search(SearchQuery.pattern(query), SearchQuery.limit());
+    }
+
+    // --- Read-модель для REST API (назви зброї та донора одним JOIN-запитом) ---
+
+    @Transactional(readOnly = true)
+    @Coalesced(value = "deliveries", tables = {DataTable.DELIVERY, DataTable.WEAPON, DataTable.DONOR})
+    public List<WeaponDeliveryView> getAllDeliveryViews(Fields fields) {
+        return fields.isAll()
+                ? deliveryRepository.findAllViews()
+                : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, fields, WeaponDeliveryRepository.ORDER_BY_DATE, Map.of());
+    }
+
+    /**
+     * Потокове читання всіх поставок для експорту: рядки передаються в consumer по одному
+     * в міру читання з БД, повний список у пам'яті не будується.
+     * Read-моделі не є керованими сутностями, тому контекст персистентності не росте
+     */
+    @Transactional(readOnly = true)
+    public void streamDeliveryViews(Fields fields, Consumer<WeaponDeliveryView> consumer) {
+        try (Stream<WeaponDeliveryView> rows = fields.isAll()
+                ? deliveryRepository.streamAllViews()
+                : viewQueries.stream(WeaponDeliveryRepository.VIEW_SPEC, fields, WeaponDeliveryRepository.ORDER_BY_DATE, Map.of())) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<WeaponDeliveryView> getDeliveryViewById(Long id, Fields fields) {
+        return fields.isAll()
+                ? deliveryRepository.findViewById(id)
+                : viewQueries.one(WeaponDeliveryRepository.VIEW_SPEC, fields, WeaponDeliveryRepository.BY_ID, Map.of("id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WeaponDeliveryView> getDeliveryViewsByIds(Collection<Long> ids, Fields fields) {
+        return fields.isAll()
+                ? deliveryRepository.findViewsByIdIn(ids)
+                : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, fields,
+                        WeaponDeliveryRepository.BY_IDS + WeaponDeliveryRepository.ORDER_BY_DATE, Map.of("ids", ids));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WeaponDeliveryView> getDeliveryViewsByWeaponId(Long weaponId, Fields fields) {
+        return fields.isAll()
+                ? deliveryRepository.findViewsByWeaponId(weaponId)
+                : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, fields, WeaponDeliveryRepository.BY_WEAPON + WeaponDeliveryRepository.ORDER_BY_DATE, Map.of("weaponId", weaponId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WeaponDeliveryView> getDeliveryViewsByDonorId(Long donorId, Fields fields) {
+        return fields.isAll()
+                ? deliveryRepository.findViewsByDonorId(donorId)
+                : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, fields, WeaponDeliveryRepository.BY_DONOR + WeaponDeliveryRepository.ORDER_BY_DATE, Map.of("donorId", donorId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WeaponDeliveryView> getDeliveryViewsByStatus(String status, Fields fields) {
+        return fields.isAll()
+                ? deliveryRepository.findViewsByStatus(status)
+                : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, fields, WeaponDeliveryRepository.BY_STATUS + WeaponDeliveryRepository.ORDER_BY_DATE, Map.of("status", status));
+    }
+
+    /**
+     * Сторінка поставок (keyset-пагінація за датою поставки та ID, від нових до старих)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<WeaponDeliveryView> getDeliveriesPage(String after, Integer limit, Fields fields) {
+        int size = CursorPage.normalizeLimit(limit);
+        Pageable probe = CursorPage.probe(size);
+        // Дата та id - ключ курсора наступної сторінки, читаються завжди
+        Fields columns = fields.with("id", "deliveryDate");
+        List<WeaponDeliveryView> rows;
+        if (after == null) {
+            rows = fields.isAll()
+                    ? deliveryRepository.findViewPage(probe)
+                    : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, columns, WeaponDeliveryRepository.ORDER_BY_DATE, Map.of(), probe);
+        } else {
+            Cursor cursor = Cursor.decode(after).requireDate();
+            rows = fields.isAll()
+                    ? deliveryRepository.findViewPageAfter(cursor.getDate(), cursor.getId(), probe)
+                    : viewQueries.list(WeaponDeliveryRepository.VIEW_SPEC, columns, WeaponDeliveryRepository.AFTER_KEY + WeaponDeliveryRepository.ORDER_BY_DATE,
+                            Map.of("date", cursor.getDate(), "id", cursor.getId()), probe);
+        }
+        return CursorPage.of(rows, size, d -> Cursor.of(d.getDeliveryDate(), d.getId()));
+    }
+
     public Optional<WeaponDelivery> getDeliveryById(Long id) {
         return deliveryRepository.findById(id);
     }
@@ -54,9 +169,46 @@ public class WeaponDeliveryService {
         return deliveryRepository.findByDeliveryStatus(status);
     }
 
-    public void createDelivery(LocalDate deliveryDate, Integer quantityDelivered,
-                               String deliveryStatus, String trackingNumber,
-                               Long weaponId, Long donorId) {
+    public WeaponDelivery createDelivery(LocalDate deliveryDate, Integer quantityDelivered,
+                                         String deliveryStatus, String trackingNumber,
+                                         Long weaponId, Long donorId) {
+        WeaponDelivery delivery = newDelivery(deliveryDate, quantityDelivered, deliveryStatus, trackingNumber,
+                weaponId, donorId, weaponRepository::findById, donorRepository::findById);
+        WeaponDelivery saved = deliveryRepository.save(delivery);
+        tableVersions.bump(DataTable.DELIVERY);
+        log.info("Створено поставку: {} од. {} (статус: {}, ID: {})",
+                saved.getQuantityDelivered(), saved.getWeapon().getWeaponName(),
+                saved.getDeliveryStatus(), saved.getId());
+        return saved;
+    }
+
+    /**
+     * Створити пакет поставок однією транзакцією
+     */
+    public List<WeaponDelivery> createDeliveries(List<WeaponDelivery> deliveries) {
+        BatchItems.checkSize(deliveries);
+        Function<Long, Optional<Weapon>> weapons = BatchItems.lookup(weaponRepository.findAllById(
+                BatchItems.referenceIds(deliveries, WeaponDelivery::getWeapon, Weapon::getId)), Weapon::getId);
+        Function<Long, Optional<Donor>> donors = BatchItems.lookup(donorRepository.findAllById(
+                BatchItems.referenceIds(deliveries, WeaponDelivery::getDonor, Donor::getId)), Donor::getId);
+        List<WeaponDelivery> created = new ArrayList<>(deliveries.size());
+        for (int i = 0; i < deliveries.size(); i++) {
+            WeaponDelivery d = deliveries.get(i);
+            created.add(BatchItems.item(i, () -> newDelivery(d.getDeliveryDate(), d.getQuantityDelivered(),
+                    d.getDeliveryStatus(), d.getTrackingNumber(), BatchItems.id(d.getWeapon(), Weapon::getId),
+                    BatchItems.id(d.getDonor(), Donor::getId), weapons, donors)));
+        }
+        deliveryRepository.saveAll(created);
+        tableVersions.bump(DataTable.DELIVERY);
+        log.info("Створено пакет поставок: {}", created.size());
+        return created;
+    }
+
+    private WeaponDelivery newDelivery(LocalDate deliveryDate, Integer quantityDelivered,
+                                       String deliveryStatus, String trackingNumber,
+                                       Long weaponId, Long donorId,
+                                       Function<Long, Optional<Weapon>> weapons,
+                                       Function<Long, Optional<Donor>> donors) {
         // Валідація
         if (deliveryDate == null) {
             throw new IllegalArgumentException("Дата поставки обов'язкова");
@@ -78,31 +230,35 @@ public class WeaponDeliveryService {
             throw new IllegalArgumentException("Донор обов'язковий");
         }
 
-        Weapon weapon = weaponRepository.findById(weaponId)
+        Weapon weapon = weapons.apply(weaponId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Зброю з ID " + weaponId + " не знайдено!"));
 
-        Donor donor = donorRepository.findById(donorId)
+        Donor donor = donors.apply(donorId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Донора з ID " + donorId + " не знайдено!"));
 
-        WeaponDelivery delivery = new WeaponDelivery(
+        return new WeaponDelivery(
                 deliveryDate, quantityDelivered, deliveryStatus.trim(),
                 trackingNumber, weapon, donor
         );
-
-        WeaponDelivery saved = deliveryRepository.save(delivery);
-        log.info("Створено поставку: {} од. {} (статус: {}, ID: {})",
-                saved.getQuantityDelivered(), weapon.getWeaponName(),
-                saved.getDeliveryStatus(), saved.getId());
     }
 
-    public void updateDelivery(Long id, LocalDate deliveryDate, Integer quantityDelivered,
+    /**
+     * Оновити поставку
+     * expectedVersion - версія з If-Match (null - без перевірки). Зміна, закомічена після читання,
+     * теж не перезаписується: Hibernate оновлює рядок з умовою на версію (@Version)
+     */
+    public void updateDelivery(Long id, Long expectedVersion, LocalDate deliveryDate, Integer quantityDelivered,
                                String deliveryStatus, String trackingNumber,
                                Long weaponId, Long donorId) {
         WeaponDelivery delivery = deliveryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Поставку з ID " + id + " не знайдено!"));
+        if (expectedVersion != null && !expectedVersion.equals(delivery.getVersion())) {
+            throw new OptimisticLockingFailureException(
+                    "Поставку з ID " + id + " змінено (версія " + delivery.getVersion() + ", очікувалась " + expectedVersion + ")");
+        }
 
         // Валідація (аналогічно create)
         if (deliveryDate == null) {
@@ -135,6 +291,7 @@ public class WeaponDeliveryService {
         delivery.setDonor(donor);
 
         WeaponDelivery updated = deliveryRepository.save(delivery);
+        tableVersions.bump(DataTable.DELIVERY);
         log.info("Оновлено поставку (ID: {})", updated.getId());
     }
 
@@ -145,9 +302,13 @@ public class WeaponDeliveryService {
 
         log.info("Видалення поставки (ID: {})", delivery.getId());
         deliveryRepository.deleteById(id);
+        tableVersions.bump(DataTable.DELIVERY);
     }
 
-    private boolean isValidStatus(String status) {
+    /**
+     * Дозволені статуси поставки (спільні з масовим імпортом, DeliveryImportService)
+     */
+    public static boolean isValidStatus(String status) {
         return status.equals("planned") ||
                 status.equals("in_transit") ||
                 status.equals("delivered");
@@ -1,16 +1,30 @@
 package dev.yurets.db_demo.service;
 
+import dev.yurets.db_demo.coalescing.Coalesced;
+import dev.yurets.db_demo.dto.WeaponView;
 import dev.yurets.db_demo.model.Period;
 import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
+import dev.yurets.db_demo.projection.Fields;
 import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
 import dev.yurets.db_demo.repository.WeaponRepository;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Сервіс для роботи зі зброєю
@@ -23,11 +37,17 @@ public class WeaponService {
 
     private final WeaponRepository weaponRepository;
     private final PeriodRepository periodRepository;
+    private final ViewQueries viewQueries;
+    private final TableVersions tableVersions;
 
     public WeaponService(WeaponRepository weaponRepository,
-                         PeriodRepository periodRepository) {
+                         PeriodRepository periodRepository,
+                         ViewQueries viewQueries,
+                         TableVersions tableVersions) {
         this.weaponRepository = weaponRepository;
         this.periodRepository = periodRepository;
+        this.viewQueries = viewQueries;
+        this.tableVersions = tableVersions;
     }
 
     /**
@@ -37,6 +57,70 @@ public class WeaponService {
         return weaponRepository.findAllByOrderByIdAsc();
     }
 
+    /**
+     * Пошук зброї за назвою або типом
+     */
+    @Transactional(readOnly = true)
+    public List<Weapon> searchWeapons(String query) {
+        return weaponRepository.search(SearchQuery.pattern(query), SearchQuery.limit());
+    }
+
+    /**
+     * Отримати всю зброю з назвами періоду та країни (для REST API, один JOIN-запит)
+     */
+    @Transactional(readOnly = true)
+    @Coalesced(value = "weapons", tables = {DataTable.WEAPON, DataTable.PERIOD, DataTable.COUNTRY})
+    public List<WeaponView> getAllWeaponViews(Fields fields) {
+        return fields.isAll()
+                ? weaponRepository.findAllViews()
+                : viewQueries.list(WeaponRepository.VIEW_SPEC, fields, WeaponRepository.ORDER_BY_ID, Map.of());
+    }
+
+    /**
+     * Знайти зброю з назвами періоду та країни за ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<WeaponView> getWeaponViewById(Long id, Fields fields) {
+        return fields.isAll()
+                ? weaponRepository.findViewById(id)
+                : viewQueries.one(WeaponRepository.VIEW_SPEC, fields, WeaponRepository.BY_ID, Map.of("id", id));
+    }
+
+    /**
+     * Кілька одиниць зброї за ID одним запитом
+     */
+    @Transactional(readOnly = true)
+    public List<WeaponView> getWeaponViewsByIds(Collection<Long> ids, Fields fields) {
+        return fields.isAll()
+                ? weaponRepository.findViewsByIdIn(ids)
+                : viewQueries.list(WeaponRepository.VIEW_SPEC, fields,
+                        WeaponRepository.BY_IDS + WeaponRepository.ORDER_BY_ID, Map.of("ids", ids));
+    }
+
+    /**
+     * Отримати сторінку зброї (keyset-пагінація за ID)
+     * Вартість запиту не залежить від глибини сторінки
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<WeaponView> getWeaponsPage(String after, Integer limit, Fields fields) {
+        int size = CursorPage.normalizeLimit(limit);
+        Pageable probe = CursorPage.probe(size);
+        Fields columns = fields.with("id");
+        List<WeaponView> rows;
+        if (after == null) {
+            rows = fields.isAll()
+                    ? weaponRepository.findViewPage(probe)
+                    : viewQueries.list(WeaponRepository.VIEW_SPEC, columns, WeaponRepository.ORDER_BY_ID, Map.of(), probe);
+        } else {
+            Long id = Cursor.decode(after).getId();
+            rows = fields.isAll()
+                    ? weaponRepository.findViewPageAfter(id, probe)
+                    : viewQueries.list(WeaponRepository.VIEW_SPEC, columns,
+                            WeaponRepository.AFTER_ID + WeaponRepository.ORDER_BY_ID, Map.of("id", id), probe);
+        }
+        return CursorPage.of(rows, size, w -> Cursor.ofId(w.getId()));
+    }
+
     /**
      * Знайти зброю за ID
      */
@@ -54,9 +138,42 @@ public class WeaponService {
     /**
      * Створити нову зброю з валідацією
      */
-    public void createWeapon(String weaponType, String weaponName,
+    public Weapon createWeapon(String weaponType, String weaponName,
+                               Integer quantity, BigDecimal unitCostUsd,
+                               BigDecimal totalCostUsd, Long periodId) {
+        Weapon weapon = newWeapon(weaponType, weaponName, quantity, unitCostUsd, totalCostUsd,
+                periodId, periodRepository::findById);
+        Weapon saved = weaponRepository.save(weapon);
+        tableVersions.bump(DataTable.WEAPON);
+
+        log.info("Створено зброю: {} (тип: {}, кількість: {}, ID: {})",
+                saved.getWeaponName(), saved.getWeaponType(), saved.getQuantity(), saved.getId());
+        return saved;
+    }
+
+    /**
+     * Створити пакет зброї однією транзакцією
+     */
+    public List<Weapon> createWeapons(List<Weapon> weapons) {
+        BatchItems.checkSize(weapons);
+        Function<Long, Optional<Period>> periods = BatchItems.lookup(periodRepository.findAllById(
+                BatchItems.referenceIds(weapons, Weapon::getPeriod, Period::getId)), Period::getId);
+        List<Weapon> created = new ArrayList<>(weapons.size());
+        for (int i = 0; i < weapons.size(); i++) {
+            Weapon w = weapons.get(i);
+            created.add(BatchItems.item(i, () -> newWeapon(w.getWeaponType(), w.getWeaponName(), w.getQuantity(),
+                    w.getUnitCostUsd(), w.getTotalCostUsd(), BatchItems.id(w.getPeriod(), Period::getId), periods)));
+        }
+        weaponRepository.saveAll(created);
+        tableVersions.bump(DataTable.WEAPON);
+        log.info("Створено пакет зброї: {}", created.size());
+        return created;
+    }
+
+    private Weapon newWeapon(String weaponType, String weaponName,
                              Integer quantity, BigDecimal unitCostUsd,
-                             BigDecimal totalCostUsd, Long periodId) {
+                             BigDecimal totalCostUsd, Long periodId,
+                             Function<Long, Optional<Period>> periods) {
         // Валідація типу зброї
         if (weaponType == null || weaponType.trim().isEmpty()) {
             throw new IllegalArgumentException("Тип зброї не може бути порожнім");
@@ -116,17 +233,12 @@ public class WeaponService {
         if (periodId == null) {
             throw new IllegalArgumentException("Період обов'язковий");
         }
-        Period period = periodRepository.findById(periodId)
+        Period period = periods.apply(periodId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Період з ID " + periodId + " не знайдено!"));
 
-        Weapon weapon = new Weapon(weaponType.trim(), weaponName.trim(), quantity,
+        return new Weapon(weaponType.trim(), weaponName.trim(), quantity,
                 unitCostUsd, totalCostUsd, period);
-        Weapon saved = weaponRepository.save(weapon);
-
-        log.info("Створено зброю: {} (тип: {}, кількість: {}, ID: {})",
-                saved.getWeaponName(), saved.getWeaponType(), saved.getQuantity(), saved.getId());
-
     }
 
     /**
@@ -210,6 +322,7 @@ public class WeaponService {
         weapon.setPeriod(period);
 
         Weapon updated = weaponRepository.save(weapon);
+        tableVersions.bump(DataTable.WEAPON);
 
         log.info("Оновлено зброю: {} (ID: {})", updated.getWeaponName(), updated.getId());
 
@@ -226,5 +339,6 @@ public class WeaponService {
         log.info("Видалення зброї: {} (ID: {})", weapon.getWeaponName(), weapon.getId());
 
         weaponRepository.deleteById(id);
+        tableVersions.bump(DataTable.WEAPON);
     }
 }
\ No newline at end of file
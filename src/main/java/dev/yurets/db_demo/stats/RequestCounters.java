@@ -0,0 +1,308 @@
+package dev.yurets.db_demo.stats;
+
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.config.StartupOrder;
+import dev.yurets.db_demo.dto.RequestCount;
+import dev.yurets.db_demo.dto.RequestStats;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.repository.AidRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory лічильники запитів на допомогу: статус × пріоритет × країна-отримувач
+ *
+ * Для кожного запиту ведуться лічильники всіх 8 комбінацій, де будь-який вимір може бути
+ * "будь-який" (наприклад, PENDING|*|*, *|URGENT|5, *|*|*). Тому кількість для будь-якого
+ * зрізу - один пошук у хеш-таблиці, без перебору матриці і без запиту до БД.
+ *
+ * Лічильники наповнюються одним GROUP BY при старті, далі AidRequestService
+ * переносить запит між клітинками після коміту кожної зміни (move).
+ * Перенесення однієї транзакції після коміту надсилаються іншим вузлам одним повідомленням
+ * ("RequestCount:PENDING|HIGH|5>APPROVED|HIGH|5=3"), і ті застосовують ті самі зсуви (applyRemote)
+ * замість повторного GROUP BY.
+ */
+@Slf4j
+@Component
+public class RequestCounters {
+
+    public static final List<String> STATUSES = List.of("PENDING", "APPROVED", "REJECTED", "DELIVERED");
+    public static final List<String> PRIORITIES = List.of("URGENT", "HIGH", "MEDIUM", "LOW");
+
+    // Префікс зміни в повідомленні InvalidationBus
+    public static final String CHANGE_PREFIX = "RequestCount:";
+
+    private static final String ANY = "*";
+
+    // Перезавантаження будує нову матрицю і підміняє посилання - читачі не бачать порожніх лічильників
+    private volatile Matrix matrix = new Matrix();
+
+    // Перенесення за час load() (null - перезавантаження не йде): повторюються над новою матрицею
+    private List<Map<String, Long>> replay;
+
+    private final AidRequestRepository requestRepository;
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+
+    // ObjectProvider - у тестах @DataJpaTest шини інвалідації немає
+    public RequestCounters(AidRequestRepository requestRepository, ObjectProvider<InvalidationBus> invalidationBus) {
+        this.requestRepository = requestRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Повне перерахування (старт, втрачені повідомлення після перепідключення)
+     * Перенесення, застосовані під час GROUP BY, повторюються над новою матрицею,
+     * щоб не загубитись разом зі старою.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(StartupOrder.LOAD)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        Matrix loaded = new Matrix();
+        try {
+            for (RequestCount row : requestRepository.countByStatusPriorityCountry()) {
+                loaded.add(new Cell(row.getStatus(), row.getPriority(), row.getCountryId()), row.getCount());
+            }
+        } finally {
+            synchronized (this) {
+                if (replay != null) {
+                    replay.forEach(moves -> applyTo(loaded, moves));
+                }
+                replay = null;
+                matrix = loaded;
+            }
+        }
+        log.info("[STATS] Лічильники запитів наповнено: {} запитів", count(null, null, null));
+    }
+
+    /**
+     * Клітинка, в якій зараз рахується запит
+     * Береться ДО зміни сутності, щоб після коміту відняти запит зі старої клітинки
+     */
+    public static Cell cellOf(AidRequest request) {
+        return new Cell(request.getStatus(), request.getPriority(), request.getRequestingCountry().getId());
+    }
+
+    /**
+     * Клітинка за значеннями рядка aid_requests (без завантаження сутності)
+     */
+    public static Cell cell(String status, String priority, Long countryId) {
+        return new Cell(status, priority, countryId);
+    }
+
+    /**
+     * Перенести запит між клітинками (після коміту поточної транзакції, якщо вона є)
+     * from == null - новий запит, to == null - видалений
+     */
+    public void move(Cell from, Cell to) {
+        record(Map.of(encode(from, to), 1L));
+    }
+
+    /**
+     * Перенести запити в клітинки з новим статусом (той самий пріоритет і країна)
+     * Для масових переходів статусу одним UPDATE в обхід JPA - одна синхронізація на всю транзакцію
+     */
+    public void moveStatus(Collection<Cell> cells, String status) {
+        Map<String, Long> moves = new LinkedHashMap<>();
+        cells.forEach(cell -> moves.merge(encode(cell, new Cell(status, cell.priority, cell.countryId)), 1L, Long::sum));
+        record(moves);
+    }
+
+    /**
+     * Застосувати перенесення, надіслані іншим вузлом (зміна з префіксом CHANGE_PREFIX)
+     * Некоректні зміни пропускаються
+     */
+    public void applyRemote(String change) {
+        try {
+            int count = change.lastIndexOf('=');
+            apply(Map.of(change.substring(CHANGE_PREFIX.length(), count), Long.parseLong(change.substring(count + 1))));
+        } catch (RuntimeException e) {
+            log.debug("[STATS] Некоректна зміна лічильників: {}", change);
+        }
+    }
+
+    /**
+     * Кількість запитів у зрізі (null - будь-яке значення виміру)
+     */
+    public long count(String status, String priority, Long countryId) {
+        LongAdder counter = matrix.counters.get(key(status, priority, countryId));
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Зріз з розбивкою за статусом, пріоритетом і країною
+     * Кожна розбивка враховує фільтри двох інших вимірів (статус=PENDING → byPriority серед PENDING),
+     * але не свій власний - так видно, як вибране значення співвідноситься з рештою.
+     */
+    public RequestStats getStats(String status, String priority, Long countryId) {
+        String s = normalize(status, STATUSES, "статус");
+        String p = normalize(priority, PRIORITIES, "пріоритет");
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (String value : STATUSES) {
+            byStatus.put(value, count(value, p, countryId));
+        }
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (String value : PRIORITIES) {
+            byPriority.put(value, count(s, value, countryId));
+        }
+        Map<Long, Long> byCountry = new TreeMap<>();
+        for (Long id : matrix.countries) {
+            long count = count(s, p, id);
+            if (count > 0) {
+                byCountry.put(id, count);
+            }
+        }
+        return new RequestStats(count(s, p, countryId), byStatus, byPriority, byCountry);
+    }
+
+    /**
+     * Перенесення транзакції збираються разом ("from>to" → кількість) і після коміту
+     * застосовуються локально та надсилаються іншим вузлам; без транзакції - одразу
+     */
+    private void record(Map<String, Long> moves) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commit(moves);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Long> pending = (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Long> batch = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    commit(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RequestCounters.this);
+                }
+            });
+            pending = batch;
+        }
+        Map<String, Long> target = pending;
+        moves.forEach((move, count) -> target.merge(move, count, Long::sum));
+    }
+
+    private void commit(Map<String, Long> moves) {
+        if (moves.isEmpty()) {
+            return;
+        }
+        apply(moves);
+        List<String> changes = new ArrayList<>();
+        moves.forEach((move, count) -> changes.add(CHANGE_PREFIX + move + "=" + count));
+        invalidationBus.ifAvailable(bus -> bus.publishCommitted(changes));
+    }
+
+    private synchronized void apply(Map<String, Long> moves) {
+        applyTo(matrix, moves);
+        if (replay != null) {
+            replay.add(moves);
+        }
+    }
+
+    private static void applyTo(Matrix target, Map<String, Long> moves) {
+        moves.forEach((move, count) -> {
+            int arrow = move.indexOf('>');
+            Cell from = decode(move.substring(0, arrow));
+            Cell to = decode(move.substring(arrow + 1));
+            if (from != null) {
+                target.add(from, -count);
+            }
+            if (to != null) {
+                target.add(to, count);
+            }
+        });
+    }
+
+    // "статус|пріоритет|країна>статус|пріоритет|країна"; порожня сторона - створення або видалення
+    private static String encode(Cell from, Cell to) {
+        return encode(from) + ">" + encode(to);
+    }
+
+    private static String encode(Cell cell) {
+        return cell == null ? "" : cell.status + "|" + cell.priority + "|" + cell.countryId;
+    }
+
+    private static Cell decode(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        String[] parts = value.split("\\|", -1);
+        return new Cell(parts[0], parts[1], Long.valueOf(parts[2]));
+    }
+
+    private static String normalize(String value, List<String> allowed, String name) {
+        if (value == null) {
+            return null;
+        }
+        String upper = value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(upper)) {
+            throw new IllegalArgumentException("Невірний " + name + ". Дозволені: " + String.join(", ", allowed));
+        }
+        return upper;
+    }
+
+    private static String key(String status, String priority, Long countryId) {
+        return (status == null ? ANY : status) + "|"
+                + (priority == null ? ANY : priority) + "|"
+                + (countryId == null ? ANY : countryId);
+    }
+
+    private static final class Matrix {
+        // "статус|пріоритет|країна" (будь-яка частина може бути ANY) → кількість
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        // Країни, для яких є лічильники (ключі byCountry)
+        private final Set<Long> countries = ConcurrentHashMap.newKeySet();
+
+        private void add(Cell cell, long delta) {
+            countries.add(cell.countryId);
+            for (String s : new String[]{cell.status, null}) {
+                for (String p : new String[]{cell.priority, null}) {
+                    counters.computeIfAbsent(key(s, p, cell.countryId), k -> new LongAdder()).add(delta);
+                    counters.computeIfAbsent(key(s, p, null), k -> new LongAdder()).add(delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Значення трьох вимірів одного запиту
+     */
+    public static final class Cell {
+        private final String status;
+        private final String priority;
+        private final Long countryId;
+
+        private Cell(String status, String priority, Long countryId) {
+            this.status = status;
+            this.priority = priority;
+            this.countryId = countryId;
+        }
+    }
+}
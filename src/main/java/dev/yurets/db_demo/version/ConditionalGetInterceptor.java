@@ -0,0 +1,57 @@
+package dev.yurets.db_demo.version;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Умовні GET-запити для контролерів з @VersionedBy
+ *
+ * ETag і Last-Modified рахуються з версій таблиць ще до виклику контролера,
+ * тому на If-None-Match / If-Modified-Since з актуальним значенням
+ * відповідь 304 повертається без жодного запиту до БД.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    // Браузер може зберігати відповідь, але має перевіряти її актуальність при кожному запиті
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final TableVersions tableVersions;
+
+    public ConditionalGetInterceptor(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)
+                || request.getDispatcherType() == DispatcherType.ASYNC
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        VersionedBy versionedBy = findAnnotation((HandlerMethod) handler);
+        if (versionedBy == null) {
+            return true;
+        }
+
+        DataTable[] tables = versionedBy.value();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(tableVersions.etag(tables), tableVersions.lastModified(tables));
+    }
+
+    private static VersionedBy findAnnotation(HandlerMethod handler) {
+        VersionedBy annotation = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), VersionedBy.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), VersionedBy.class);
+        }
+        return annotation;
+    }
+}
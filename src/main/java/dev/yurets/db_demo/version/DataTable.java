@@ -0,0 +1,14 @@
+package dev.yurets.db_demo.version;
+
+/**
+ * Таблиці, для яких ведеться лічильник версій (див. TableVersions)
+ */
+public enum DataTable {
+    COUNTRY,
+    PERIOD,
+    WEAPON,
+    DONOR,
+    DELIVERY,
+    REQUEST,
+    USER
+}
@@ -0,0 +1,85 @@
+package dev.yurets.db_demo.version;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Лічильники версій таблиць для умовних GET-запитів (ETag / Last-Modified)
+ *
+ * Сервіси викликають bump() у кожному методі запису. Версія збільшується тільки після
+ * коміту транзакції: клієнт може отримати нові дані зі старим ETag (і просто перезапитає їх),
+ * але ніколи - старі дані з новим ETag.
+ *
+ * Лічильники живуть у пам'яті, тому в ETag входить час старту застосунку -
+ * після перезапуску всі старі ETag стають недійсними.
+ */
+@Slf4j
+@Component
+public class TableVersions {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLongArray versions = new AtomicLongArray(DataTable.values().length);
+    private final AtomicLongArray modified = new AtomicLongArray(DataTable.values().length);
+
+    public TableVersions() {
+        for (int i = 0; i < modified.length(); i++) {
+            modified.set(i, epoch);
+        }
+    }
+
+    /**
+     * Позначити таблиці як змінені (після коміту поточної транзакції, якщо вона є)
+     */
+    public void bump(DataTable... tables) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(tables);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(tables);
+            }
+        });
+    }
+
+    public long version(DataTable table) {
+        return versions.get(table.ordinal());
+    }
+
+    /**
+     * Сильний ETag для відповіді, що залежить від заданих таблиць: "<старт>-<версія>.<версія>..."
+     */
+    public String etag(DataTable... tables) {
+        return Arrays.stream(tables)
+                .map(table -> Long.toString(version(table)))
+                .collect(Collectors.joining(".", "\"" + Long.toString(epoch, 36) + "-", "\""));
+    }
+
+    /**
+     * Час останньої зміни будь-якої з таблиць (мс)
+     */
+    public long lastModified(DataTable... tables) {
+        long last = epoch;
+        for (DataTable table : tables) {
+            last = Math.max(last, modified.get(table.ordinal()));
+        }
+        return last;
+    }
+
+    private void apply(DataTable[] tables) {
+        long now = System.currentTimeMillis();
+        for (DataTable table : tables) {
+            versions.incrementAndGet(table.ordinal());
+            modified.accumulateAndGet(table.ordinal(), now, Math::max);
+        }
+        log.debug("Нові версії таблиць: {}", Arrays.toString(tables));
+    }
+}
@@ -0,0 +1,21 @@
+package dev.yurets.db_demo.version;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Таблиці, від яких залежать GET-відповіді контролера (або окремого методу)
+ *
+ * ETag і Last-Modified будуються з версій цих таблиць, тому вказувати треба
+ * і таблиці, з яких береться тільки назва через JOIN (наприклад, назва країни у періоді).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface VersionedBy {
+
+    DataTable[] value();
+}
@@ -0,0 +1,199 @@
+package dev.yurets.db_demo.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.config.StartupOrder;
+import dev.yurets.db_demo.dto.ReferenceItem;
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.search.SearchIndex;
+import dev.yurets.db_demo.service.AidRequestService;
+import dev.yurets.db_demo.service.CountryService;
+import dev.yurets.db_demo.service.CountryTreeService;
+import dev.yurets.db_demo.service.DonorService;
+import dev.yurets.db_demo.service.PeriodService;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.service.WeaponService;
+import dev.yurets.db_demo.stats.RequestCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Прогрів після старту: перші користувачі не мають платити за холодні кеші та JIT
+ *
+ * Spring Boot переводить readiness у ACCEPTING_TRAFFIC тільки після всіх слухачів
+ * ApplicationReadyEvent, тому поки прогрів триває, /actuator/health/readiness
+ * відповідає 503 і балансувальник (HEALTHCHECK у Dockerfile) не надсилає трафік.
+ *
+ * Раунд прогріву - основні шляхи читання REST API разом із серіалізацією в JSON:
+ * довідники (заодно наповнюють ReferenceDataCache і кеш другого рівня), read-моделі всіх
+ * колекцій, дерево країни, пошук і лічильники запитів. Раунди виконуються пачками;
+ * прогрів закінчується, коли p99 тривалості раунду двох пачок поспіль відрізняється
+ * не більше ніж на tolerance (стабільний стан), або після max-rounds / max-duration
+ * (строк перевіряється перед кожним раундом, а не тільки між пачками).
+ */
+@Slf4j
+@Component
+public class StartupWarmup {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final CountryService countryService;
+    private final CountryTreeService countryTreeService;
+    private final PeriodService periodService;
+    private final WeaponService weaponService;
+    private final DonorService donorService;
+    private final WeaponDeliveryService deliveryService;
+    private final AidRequestService requestService;
+    private final SearchIndex searchIndex;
+    private final RequestCounters requestCounters;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.max-rounds:500}")
+    private int maxRounds;
+
+    @Value("${app.warmup.batch:25}")
+    private int batch;
+
+    @Value("${app.warmup.max-duration:60s}")
+    private Duration maxDuration;
+
+    @Value("${app.warmup.tolerance:0.1}")
+    private double tolerance;
+
+    public StartupWarmup(ReferenceDataCache referenceDataCache,
+                         CountryService countryService,
+                         CountryTreeService countryTreeService,
+                         PeriodService periodService,
+                         WeaponService weaponService,
+                         DonorService donorService,
+                         WeaponDeliveryService deliveryService,
+                         AidRequestService requestService,
+                         SearchIndex searchIndex,
+                         RequestCounters requestCounters,
+                         ObjectMapper objectMapper) {
+        this.referenceDataCache = referenceDataCache;
+        this.countryService = countryService;
+        this.countryTreeService = countryTreeService;
+        this.periodService = periodService;
+        this.weaponService = weaponService;
+        this.donorService = donorService;
+        this.deliveryService = deliveryService;
+        this.requestService = requestService;
+        this.searchIndex = searchIndex;
+        this.requestCounters = requestCounters;
+        this.objectMapper = objectMapper;
+    }
+
+    // Після слухачів з порядком StartupOrder.LOAD: індекс пошуку, лічильники і токени вже завантажені
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(StartupOrder.WARMUP)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("[WARMUP] Прогрів вимкнено");
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        Map<String, Supplier<Object>> steps = steps();
+
+        int rounds = 0;
+        long firstRound = 0;
+        long previous = -1;
+        long current = -1;
+        boolean steady = false;
+        try {
+            while (rounds < maxRounds && System.nanoTime() < deadline && !steady) {
+                // Строк перевіряється перед кожним раундом: на великих таблицях пачка може тривати довше за max-duration
+                long[] samples = new long[batch];
+                int taken = 0;
+                while (taken < batch && System.nanoTime() < deadline) {
+                    samples[taken++] = round(steps);
+                }
+                if (rounds == 0) {
+                    firstRound = samples[0];
+                }
+                rounds += taken;
+                current = percentile(Arrays.copyOf(samples, taken), 0.99);
+                steady = taken == batch && previous > 0 && isSteady(previous, current, tolerance);
+                previous = current;
+            }
+        } catch (RuntimeException e) {
+            // Прогрів - оптимізація: помилка не має блокувати старт застосунку
+            log.warn("[WARMUP] Прогрів перервано після {} раундів: {}", rounds, e.getMessage());
+            return;
+        }
+        log.info("[WARMUP] Прогрів завершено за {} мс: {} раундів, перший раунд {} мкс, p99 {} мкс{}",
+                Duration.ofNanos(System.nanoTime() - started).toMillis(), rounds,
+                firstRound / 1000, current / 1000, steady ? "" : " (стабільний стан не досягнуто)");
+    }
+
+    /**
+     * Значення перцентиля p (0..1) у вибірці (nearest-rank)
+     */
+    public static long percentile(long[] samples, double p) {
+        if (samples.length == 0) {
+            return 0;
+        }
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+    }
+
+    /**
+     * Чи стабілізувалась затримка: нова p99 відрізняється від попередньої не більше ніж на tolerance
+     */
+    public static boolean isSteady(long previous, long current, double tolerance) {
+        return Math.abs(current - previous) <= previous * tolerance;
+    }
+
+    private Map<String, Supplier<Object>> steps() {
+        Map<String, Supplier<Object>> steps = new LinkedHashMap<>();
+        steps.put("reference", () -> List.of(referenceDataCache.getCountries(), referenceDataCache.getPeriods(),
+                referenceDataCache.getWeapons(), referenceDataCache.getDonors()));
+        steps.put("lookup", () -> referenceDataCache.lookupWeapons("a", null));
+        steps.put("countries", countryService::getAllCountries);
+        steps.put("periods", () -> periodService.getAllPeriodViews(Fields.ALL));
+        steps.put("weapons", () -> weaponService.getAllWeaponViews(Fields.ALL));
+        steps.put("donors", () -> donorService.getAllDonorViews(Fields.ALL));
+        steps.put("deliveries", () -> deliveryService.getAllDeliveryViews(Fields.ALL));
+        steps.put("requests", () -> requestService.getAllRequestViews(Fields.ALL));
+        steps.put("country-tree", () -> {
+            List<ReferenceItem> countries = referenceDataCache.getCountries();
+            return countries.isEmpty() ? null : countryTreeService.getCountryTree(countries.get(0).getId()).orElse(null);
+        });
+        steps.put("search", () -> searchIndex.search("a", null));
+        steps.put("stats", () -> requestCounters.getStats(null, null, null));
+        return steps;
+    }
+
+    /**
+     * Один раунд: кожен крок і серіалізація його результату в JSON (нс)
+     */
+    private long round(Map<String, Supplier<Object>> steps) {
+        long start = System.nanoTime();
+        steps.forEach((name, step) -> {
+            try {
+                objectMapper.writeValue(OutputStream.nullOutputStream(), step.get());
+            } catch (IOException e) {
+                throw new IllegalStateException("Крок " + name + ": " + e.getMessage(), e);
+            }
+        });
+        return System.nanoTime() - start;
+    }
+}
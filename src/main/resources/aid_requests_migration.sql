@@ -21,6 +21,7 @@ CREATE TABLE IF NOT EXISTS aid_requests (
     request_date DATE NOT NULL DEFAULT CURRENT_DATE,
     request_reason VARCHAR(500),
     rejection_reason VARCHAR(500),
+    version BIGINT NOT NULL DEFAULT 0,
     requesting_country_id BIGINT NOT NULL REFERENCES countries(id) ON DELETE CASCADE,
     donor_country_id BIGINT REFERENCES countries(id) ON DELETE SET NULL,
     period_id BIGINT NOT NULL REFERENCES periods(id) ON DELETE CASCADE,
@@ -0,0 +1,14 @@
+-- ==========================================
+-- ПОСЛІДОВНОСТІ ДЛЯ ID (пакетні вставки)
+-- ==========================================
+-- Сутності отримують ID з послідовностей пулами по 50 (allocationSize = 50),
+-- тому Hibernate може об'єднувати INSERT у пакети (hibernate.jdbc.batch_size).
+-- У базах, створених ще з IDENTITY, послідовності колонок id мають крок 1 - збільшуємо до 50.
+-- Значення послідовності - верхня межа пулу, тому існуючі ID не повторюються.
+
+ALTER SEQUENCE IF EXISTS countries_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS periods_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS weapons_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS donors_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS weapon_deliveries_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS aid_requests_id_seq INCREMENT BY 50;
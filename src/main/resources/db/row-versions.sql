@@ -0,0 +1,15 @@
+-- ==========================================
+-- ВЕРСІЇ РЯДКІВ (оптимістичне блокування)
+-- ==========================================
+-- AidRequest і WeaponDelivery мають @Version: Hibernate оновлює рядок з умовою
+-- WHERE version = <прочитана>, а PUT-запити REST API приймають її в If-Match.
+-- Hibernate (ddl-auto=update) додає колонку без NOT NULL, бо в таблицях уже є рядки -
+-- тут заповнюємо існуючі рядки нулем і забороняємо NULL. Скрипт можна виконувати повторно.
+
+UPDATE aid_requests SET version = 0 WHERE version IS NULL;
+ALTER TABLE aid_requests ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE aid_requests ALTER COLUMN version SET NOT NULL;
+
+UPDATE weapon_deliveries SET version = 0 WHERE version IS NULL;
+ALTER TABLE weapon_deliveries ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE weapon_deliveries ALTER COLUMN version SET NOT NULL;
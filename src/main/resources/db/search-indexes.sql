@@ -0,0 +1,41 @@
+-- ==========================================
+-- ІНДЕКСИ ДЛЯ ПОШУКУ НА ГОЛОВНІЙ СТОРІНЦІ
+-- ==========================================
+-- Пошук виконується як LOWER(поле) LIKE '%запит%' (див. SearchQuery),
+-- тому звичайний B-tree індекс не підходить - використовуємо триграмні GIN-індекси.
+-- Скрипт виконується після оновлення схеми Hibernate (spring.jpa.defer-datasource-initialization)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_countries_name_trgm
+    ON countries USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_periods_name_trgm
+    ON periods USING gin (lower(period_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_weapons_name_trgm
+    ON weapons USING gin (lower(weapon_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_weapons_type_trgm
+    ON weapons USING gin (lower(weapon_type) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_donors_name_trgm
+    ON donors USING gin (lower(organization_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_donors_type_trgm
+    ON donors USING gin (lower(organization_type) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_weapon_deliveries_status_trgm
+    ON weapon_deliveries USING gin (lower(delivery_status) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_aid_requests_weapon_name_trgm
+    ON aid_requests USING gin (lower(weapon_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_aid_requests_weapon_type_trgm
+    ON aid_requests USING gin (lower(weapon_type) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_aid_requests_status_trgm
+    ON aid_requests USING gin (lower(status) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_aid_requests_priority_trgm
+    ON aid_requests USING gin (lower(priority) gin_trgm_ops);
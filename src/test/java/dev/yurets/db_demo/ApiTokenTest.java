@@ -0,0 +1,148 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.model.ApiToken;
+import dev.yurets.db_demo.model.User;
+import dev.yurets.db_demo.repository.ApiTokenRepository;
+import dev.yurets.db_demo.security.ApiTokenAuthenticationFilter;
+import dev.yurets.db_demo.security.ApiTokenIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тести API-токенів: in-memory індекс та фільтр автентифікації
+ */
+class ApiTokenTest {
+
+    private ApiTokenIndex index;
+    private ApiTokenAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        index = new ApiTokenIndex(mock(ApiTokenRepository.class));
+        filter = new ApiTokenAuthenticationFilter(index);
+        token = index.generate();
+        User user = new User("user", "hash", "USER");
+        index.put(new ApiToken(user, "ci", ApiTokenIndex.digest(token), "USER"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // --- ТЕСТ 1: у БД/індексі тільки SHA-256, пошук за самим токеном ---
+    @Test
+    void testIndex_FindByToken() {
+        assertTrue(token.startsWith(ApiTokenIndex.PREFIX));
+        assertEquals(64, ApiTokenIndex.digest(token).length());
+        assertNotEquals(token, index.generate());
+
+        assertEquals("user", index.find(token).getUsername());
+        assertNull(index.find(ApiTokenIndex.digest(token)));
+        assertNull(index.find(token + "x"));
+        assertNull(index.find(null));
+    }
+
+    // --- ТЕСТ 2: відкликаний токен більше не знаходиться ---
+    @Test
+    void testIndex_Remove() {
+        index.remove(ApiTokenIndex.digest(token));
+
+        assertNull(index.find(token));
+        assertEquals(0, index.size());
+    }
+
+    // --- ТЕСТ 3: валідний Bearer-токен - користувач з роллю scope ---
+    @Test
+    void testFilter_ValidToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/countries");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(chain.getRequest());
+        assertEquals("user", authentication.getName());
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("USER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    // --- ТЕСТ 4: невідомий токен - 401 без переходу далі по ланцюжку ---
+    @Test
+    void testFilter_UnknownToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/countries");
+        request.addHeader("Authorization", "Bearer mad_unknown");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // --- ТЕСТ 5: без Bearer-заголовка (HTTP Basic, форма) фільтр нічого не робить ---
+    @Test
+    void testFilter_NoBearerHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/countries");
+        request.addHeader("Authorization", "Basic YWRtaW46YWRtaW4=");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // --- ТЕСТ 6: пониження і видалення власника - токен ADMIN втрачає права, потім перестає діяти ---
+    @Test
+    void testIndex_OwnerDemotedAndRemoved() {
+        User admin = new User("boss", "hash", "ADMIN");
+        admin.setId(7L);
+        String adminToken = index.generate();
+        index.put(new ApiToken(admin, "ops", ApiTokenIndex.digest(adminToken), "ADMIN"));
+        assertEquals("ADMIN", index.find(adminToken).getAuthorities().get(0).getAuthority());
+
+        admin.setRole("USER");
+        index.ownerChanged(admin);
+        assertEquals("USER", index.find(adminToken).getAuthorities().get(0).getAuthority());
+        assertEquals("user", index.find(token).getUsername());
+
+        index.ownerRemoved(admin);
+        assertNull(index.find(adminToken));
+        assertNotNull(index.find(token));
+    }
+
+    // --- ТЕСТ 7: при завантаженні з БД scope обмежується поточною роллю власника ---
+    @Test
+    void testLoad_ScopeCappedAtOwnerRole() {
+        ApiTokenRepository repository = mock(ApiTokenRepository.class);
+        String adminToken = index.generate();
+        when(repository.findAllWithUser()).thenReturn(List.of(
+                new ApiToken(new User("former-admin", "hash", "USER"), "ops", ApiTokenIndex.digest(adminToken), "ADMIN")));
+        ApiTokenIndex loaded = new ApiTokenIndex(repository);
+
+        loaded.load();
+
+        assertEquals("USER", loaded.find(adminToken).getAuthorities().get(0).getAuthority());
+    }
+}
@@ -0,0 +1,97 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.security.CachingAuthenticationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тести кешу успішних перевірок пароля (HTTP Basic)
+ */
+class CachingAuthenticationProviderTest {
+
+    private UserDetailsService userDetailsService;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        String hash = encoder.encode("admin");
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation ->
+                User.withUsername(invocation.getArgument(0)).password(hash).authorities("ADMIN").build());
+
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setUserDetailsService(userDetailsService);
+        dao.setPasswordEncoder(encoder);
+        provider = new CachingAuthenticationProvider(dao, Duration.ofMinutes(5), 100);
+    }
+
+    // --- ТЕСТ 1: повторний запит з тими ж даними не йде в БД і не перевіряє BCrypt ---
+    @Test
+    void testAuthenticate_SecondCallFromCache() {
+        Authentication first = provider.authenticate(token("admin", "admin"));
+        Authentication second = provider.authenticate(token("admin", "admin"));
+
+        verify(userDetailsService, times(1)).loadUserByUsername("admin");
+        assertTrue(second.isAuthenticated());
+        assertEquals(first.getName(), second.getName());
+        assertEquals("ADMIN", second.getAuthorities().iterator().next().getAuthority());
+        assertNull(second.getCredentials());
+    }
+
+    // --- ТЕСТ 2: невірний пароль не кешується і щоразу перевіряється ---
+    @Test
+    void testAuthenticate_FailuresNotCached() {
+        provider.authenticate(token("admin", "admin"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+        verify(userDetailsService, times(3)).loadUserByUsername("admin");
+        assertEquals(1, provider.size());
+    }
+
+    // --- ТЕСТ 3: зміна користувача очищує кеш ---
+    @Test
+    void testInvalidateAll() {
+        provider.authenticate(token("admin", "admin"));
+        provider.invalidateAll();
+        provider.authenticate(token("admin", "admin"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("admin");
+    }
+
+    // --- ТЕСТ 4: зміна пароля закомічена під час перевірки - старі дані не потрапляють у кеш ---
+    @Test
+    void testInvalidateAll_DuringVerification() {
+        String hash = new BCryptPasswordEncoder(4).encode("admin");
+        doAnswer(invocation -> {
+            // Запит уже прочитав старий хеш, а транзакція зміни пароля тим часом комітиться
+            provider.invalidateAll();
+            return User.withUsername("admin").password(hash).authorities("ADMIN").build();
+        }).when(userDetailsService).loadUserByUsername("admin");
+
+        assertTrue(provider.authenticate(token("admin", "admin")).isAuthenticated());
+
+        assertEquals(0, provider.size());
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+}
@@ -0,0 +1,136 @@
+package dev.yurets.db_demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.bulk.DeliveryImportService;
+import dev.yurets.db_demo.controller.rest.CountryRestController;
+import dev.yurets.db_demo.controller.rest.IfMatch;
+import dev.yurets.db_demo.controller.rest.WeaponDeliveryRestController;
+import dev.yurets.db_demo.dto.WeaponDeliveryView;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.service.CountryService;
+import dev.yurets.db_demo.service.CountryTreeService;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.version.ConditionalGetInterceptor;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тести умовних GET-запитів (ETag / Last-Modified з версій таблиць)
+ */
+class ConditionalGetTest {
+
+    private CountryService countryService;
+    private TableVersions tableVersions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        countryService = mock(CountryService.class);
+        when(countryService.getAllCountries()).thenReturn(List.of(new Country("Poland", BigDecimal.TEN)));
+
+        tableVersions = new TableVersions();
+        mockMvc = MockMvcBuilders.standaloneSetup(new CountryRestController(countryService, mock(CountryTreeService.class)))
+                .addInterceptors(new ConditionalGetInterceptor(tableVersions))
+                .build();
+    }
+
+    // --- ТЕСТ 1: Актуальний If-None-Match - 304 без звернення до сервісу ---
+    @Test
+    void testNotModified_SkipsDatabase() throws Exception {
+        String etag = mockMvc.perform(get("/api/countries"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/countries").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(countryService, times(1)).getAllCountries();
+    }
+
+    // --- ТЕСТ 2: Після запису в таблицю ETag змінюється ---
+    @Test
+    void testBump_ChangesEtag() throws Exception {
+        String etag = tableVersions.etag(DataTable.COUNTRY);
+
+        tableVersions.bump(DataTable.PERIOD);
+        assertEquals(etag, tableVersions.etag(DataTable.COUNTRY));
+
+        tableVersions.bump(DataTable.COUNTRY);
+        assertNotEquals(etag, tableVersions.etag(DataTable.COUNTRY));
+
+        mockMvc.perform(get("/api/countries").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, tableVersions.etag(DataTable.COUNTRY)));
+    }
+
+    // --- ТЕСТ 3: Запис, що змінює дані, не впливає на ETag до коміту ---
+    @Test
+    void testBump_AppliedAfterCommit() {
+        String etag = tableVersions.etag(DataTable.COUNTRY);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tableVersions.bump(DataTable.COUNTRY);
+            assertEquals(etag, tableVersions.etag(DataTable.COUNTRY));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            assertNotEquals(etag, tableVersions.etag(DataTable.COUNTRY));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // --- ТЕСТ 4: GET за ID - ETag з версій таблиць (зміна назви зброї теж), версія рядка - у полі version ---
+    @Test
+    void testItemGet_TableEtagAndRowVersionField() throws Exception {
+        WeaponDeliveryService deliveryService = mock(WeaponDeliveryService.class);
+        when(deliveryService.getDeliveryViewById(eq(7L), any(Fields.class))).thenReturn(Optional.of(
+                new WeaponDeliveryView(7L, LocalDate.of(2024, 5, 1), 3, "planned", null, 1L, "M777", 2L, "Pentagon", 4L)));
+        MockMvc deliveries = MockMvcBuilders.standaloneSetup(new WeaponDeliveryRestController(deliveryService,
+                        mock(DeliveryImportService.class), new ObjectMapper()))
+                .addInterceptors(new ConditionalGetInterceptor(tableVersions))
+                .build();
+
+        String etag = deliveries.perform(get("/api/deliveries/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        tableVersions.etag(DataTable.DELIVERY, DataTable.WEAPON, DataTable.DONOR)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(4L, IfMatch.version("\"4\""));
+
+        deliveries.perform(get("/api/deliveries/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(deliveryService, times(1)).getDeliveryViewById(eq(7L), any(Fields.class));
+
+        // Перейменування зброї не змінює версію поставки, але назва у відповіді вже інша
+        tableVersions.bump(DataTable.WEAPON);
+        deliveries.perform(get("/api/deliveries/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(deliveryService, times(2)).getDeliveryViewById(eq(7L), any(Fields.class));
+    }
+}
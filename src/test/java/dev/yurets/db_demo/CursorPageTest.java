@@ -0,0 +1,79 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.pagination.Cursor;
+import dev.yurets.db_demo.pagination.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тести для keyset-пагінації (Cursor та CursorPage)
+ */
+class CursorPageTest {
+
+    // --- ТЕСТ 1: Курсор за ID кодується та розкодовується без втрат ---
+    @Test
+    void testIdCursor_RoundTrip() {
+        Cursor decoded = Cursor.decode(Cursor.ofId(42L).encode());
+
+        assertEquals(42L, decoded.getId());
+        assertNull(decoded.getDate());
+    }
+
+    // --- ТЕСТ 2: Курсор за (дата, ID) кодується та розкодовується без втрат ---
+    @Test
+    void testDateCursor_RoundTrip() {
+        LocalDate date = LocalDate.of(2023, 1, 10);
+
+        Cursor decoded = Cursor.decode(Cursor.of(date, 7L).encode());
+
+        assertEquals(date, decoded.getDate());
+        assertEquals(7L, decoded.getId());
+    }
+
+    // --- ТЕСТ 3: Підроблений курсор відхиляється ---
+    @Test
+    void testDecode_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(""));
+    }
+
+    // --- ТЕСТ 4: Курсор без дати не підходить для сортування за датою ---
+    @Test
+    void testRequireDate_IdCursor() {
+        Cursor cursor = Cursor.ofId(1L);
+
+        assertThrows(IllegalArgumentException.class, cursor::requireDate);
+    }
+
+    // --- ТЕСТ 5: Якщо БД повернула limit + 1 рядків - є наступна сторінка ---
+    @Test
+    void testPage_HasNext() {
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L, 3L), 2, Cursor::ofId);
+
+        assertEquals(List.of(1L, 2L), page.getItems());
+        assertTrue(page.hasNext());
+        assertEquals(2L, Cursor.decode(page.getNextCursor()).getId());
+    }
+
+    // --- ТЕСТ 6: Остання сторінка не має курсора ---
+    @Test
+    void testPage_LastPage() {
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L), 2, Cursor::ofId);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    // --- ТЕСТ 7: Нормалізація розміру сторінки ---
+    @Test
+    void testNormalizeLimit() {
+        assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.normalizeLimit(null));
+        assertEquals(CursorPage.MAX_LIMIT, CursorPage.normalizeLimit(100000));
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.normalizeLimit(0));
+    }
+}
@@ -0,0 +1,250 @@
+package dev.yurets.db_demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.bulk.DeliveryImportService;
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.dto.ImportReject;
+import dev.yurets.db_demo.dto.ImportReport;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.repository.DonorRepository;
+import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.WeaponDeliveryRepository;
+import dev.yurets.db_demo.repository.WeaponRepository;
+import dev.yurets.db_demo.search.SearchIndex;
+import dev.yurets.db_demo.search.SearchIndexLoader;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести масового імпорту поставок (POST /api/deliveries/import)
+ * На H2 рядки потрапляють у тимчасову таблицю пакетними INSERT замість COPY,
+ * далі той самий MERGE, що й на PostgreSQL. Кожен імпорт - окрема закомічена транзакція,
+ * як у запиті, тому дані прибираються вручну.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DeliveryImportService.class, ReferenceDataCache.class, TableVersions.class, SearchIndex.class,
+        SearchIndexLoader.class, InvalidationBus.class})
+class DeliveryImportTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private DeliveryImportService importService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PeriodRepository periodRepository;
+
+    @Autowired
+    private WeaponRepository weaponRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private WeaponDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Country country;
+    private Period period;
+    private Weapon weapon;
+    private Donor donor;
+
+    @BeforeEach
+    void setUp() {
+        country = countryRepository.save(new Country("Import Country", BigDecimal.TEN));
+        period = periodRepository.save(new Period("Import Period", LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 6, 30), BigDecimal.ONE, country));
+        weapon = weaponRepository.save(new Weapon("Artillery", "Import Howitzer", 10,
+                BigDecimal.ONE, BigDecimal.TEN, period));
+        donor = donorRepository.save(new Donor("Import Donor", "урядова", "import@test", country));
+        // Записи через репозиторії версій не змінюють, а довідники імпорту беруться з ReferenceDataCache
+        tableVersions.bump(DataTable.values());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryRepository.deleteAll(deliveryRepository.findByWeaponId(weapon.getId()));
+        donorRepository.delete(donor);
+        weaponRepository.delete(weapon);
+        periodRepository.delete(period);
+        countryRepository.delete(country);
+    }
+
+    // --- ТЕСТ 1: CSV - коректні рядки вставляються, некоректні потрапляють у звіт ---
+    @Test
+    void testCsvImport_InsertsValidRowsAndReportsRejects() {
+        long version = tableVersions.version(DataTable.DELIVERY);
+        String csv = "delivery_date,quantity_delivered,delivery_status,tracking_number,weapon_id,donor_name\r\n"
+                + "2024-02-01,5,planned,IMP-1," + weapon.getId() + ",import donor\r\n"
+                + "2024-02-02,3,delivered,\"IMP-2, партія \"\"А\"\"\"," + weapon.getId() + ",Import Donor\r\n"
+                + "2024-02-03,4,lost,IMP-3," + weapon.getId() + ",Import Donor\r\n"
+                + "2024-02-04,-1,planned,IMP-4," + weapon.getId() + ",Import Donor\r\n"
+                + "2024-02-05,1,planned,IMP-5,999999,Import Donor\r\n"
+                + "2024-02-06,1,planned,IMP-1," + weapon.getId() + ",Import Donor\r\n"
+                + "2024-02-07,1,planned\r\n"
+                + "\r\n"
+                + "2024-02-08,2,in_transit,," + weapon.getId() + ",Import Donor\r\n";
+
+        ImportReport report = importService.importDeliveries(stream(csv), DeliveryImportService.Format.CSV);
+
+        assertEquals(8, report.getReceived());
+        assertEquals(3, report.getInserted());
+        assertEquals(0, report.getUpdated());
+        assertEquals(5, report.getRejected());
+        Map<Long, String> rejects = report.getRejects().stream()
+                .collect(Collectors.toMap(ImportReject::getLine, ImportReject::getError));
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L), List.copyOf(rejects.keySet()).stream().sorted().toList());
+        assertTrue(rejects.get(4L).startsWith("Невірний статус"));
+        assertEquals("Кількість має бути додатною", rejects.get(5L));
+        assertEquals("Зброю з ID 999999 не знайдено!", rejects.get(6L));
+        assertTrue(rejects.get(7L).contains("повторюється"));
+        assertTrue(rejects.get(8L).startsWith("Очікувалось колонок"));
+
+        Map<String, Integer> quantities = deliveries();
+        assertEquals(5, quantities.get("IMP-1"));
+        assertEquals(3, quantities.get("IMP-2, партія \"А\""));
+        assertEquals(2, quantities.get(null));
+        // Індекс пошуку і версія таблиці оновлюються після коміту
+        assertFalse(searchIndex.search("IMP-2", null).isEmpty());
+        assertTrue(tableVersions.version(DataTable.DELIVERY) > version);
+    }
+
+    // --- ТЕСТ 2: NDJSON - повторний імпорт оновлює поставки за трекінг-номером ---
+    @Test
+    void testNdjsonImport_ReimportUpdatesByTrackingNumber() {
+        String first = "{\"deliveryDate\":\"2024-03-01\",\"quantityDelivered\":5,\"deliveryStatus\":\"planned\","
+                + "\"trackingNumber\":\"IMP-A\",\"weaponId\":" + weapon.getId() + ",\"donorId\":" + donor.getId() + "}\n"
+                + "{\"deliveryDate\":\"2024-03-02\",\"quantityDelivered\":7,\"deliveryStatus\":\"planned\","
+                + "\"trackingNumber\":\"IMP-B\",\"weaponName\":\"Import Howitzer\",\"donorId\":" + donor.getId() + "}\n";
+        ImportReport report = importService.importDeliveries(stream(first), DeliveryImportService.Format.NDJSON);
+        assertEquals(2, report.getInserted());
+
+        String second = "{\"deliveryDate\":\"2024-03-05\",\"quantityDelivered\":9,\"deliveryStatus\":\"delivered\","
+                + "\"trackingNumber\":\"IMP-A\",\"weaponId\":" + weapon.getId() + ",\"donorId\":" + donor.getId() + "}\n"
+                + "{not json\n"
+                + "{\"deliveryDate\":\"2024-03-06\",\"quantityDelivered\":1,\"deliveryStatus\":\"planned\","
+                + "\"trackingNumber\":\"IMP-C\",\"weaponId\":" + weapon.getId() + ",\"donorId\":" + donor.getId() + "}\n";
+        report = importService.importDeliveries(stream(second), DeliveryImportService.Format.NDJSON);
+
+        assertEquals(3, report.getReceived());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getRejected());
+        assertEquals(2, report.getRejects().get(0).getLine());
+        assertEquals(Map.of("IMP-A", 9, "IMP-B", 7, "IMP-C", 1), deliveries());
+    }
+
+    // --- ТЕСТ 3: CSV без обов'язкової колонки відхиляється цілком ---
+    @Test
+    void testCsvImport_MissingColumnFailsWholeFile() {
+        String csv = "delivery_date,quantity_delivered,weapon_id,donor_id\n2024-02-01,5,1,1\n";
+
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importDeliveries(stream(csv), DeliveryImportService.Format.CSV));
+        assertTrue(deliveries().isEmpty());
+    }
+
+    /**
+     * Трекінг-номер → кількість для поставок тестової зброї
+     */
+    // --- ТЕСТ 4: ID нових поставок щільні - одне значення послідовності на пул з 50 рядків ---
+    @Test
+    void testImport_AllocatesIdsByPool() {
+        StringBuilder csv = new StringBuilder("delivery_date,quantity_delivered,delivery_status,tracking_number,"
+                + "weapon_id,donor_id\n");
+        for (int i = 1; i <= 120; i++) {
+            csv.append("2024-04-01,1,planned,IMP-P").append(i).append(',').append(weapon.getId()).append(',')
+                    .append(donor.getId()).append('\n');
+        }
+        long before = nextId();
+
+        ImportReport report = importService.importDeliveries(stream(csv.toString()),
+                DeliveryImportService.Format.CSV);
+
+        assertEquals(120, report.getInserted());
+        // Три пули для 120 рядків і ще одне значення для перевірки, а не nextval на кожен рядок
+        assertEquals(before + 4 * 50, nextId());
+        Set<Long> ids = deliveryRepository.findByWeaponId(weapon.getId()).stream()
+                .map(WeaponDelivery::getId).collect(Collectors.toSet());
+        assertEquals(120, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id > before && id <= before + 150));
+    }
+
+    private long nextId() {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR weapon_deliveries_id_seq", Long.class);
+    }
+
+    private Map<String, Integer> deliveries() {
+        Map<String, Integer> result = new HashMap<>();
+        for (WeaponDelivery d : deliveryRepository.findByWeaponId(weapon.getId())) {
+            result.put(d.getTrackingNumber(), d.getQuantityDelivered());
+        }
+        return result;
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,135 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.cache.EntityCacheStats;
+import dev.yurets.db_demo.config.CacheConfig;
+import dev.yurets.db_demo.dto.CacheStats;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.repository.CountryRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести кешу другого рівня Hibernate (CacheConfig)
+ *
+ * Без спільної тестової транзакції: read-write кеш не віддає запис сесії, яка його поклала,
+ * тому кожне читання - окрема транзакція, як окремий HTTP-запит у застосунку.
+ * Читаються закомічені початкові дані MilitaryAidApplication.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheConfig.class, EntityCacheStats.class})
+class EntityCacheTest {
+
+    // Потрібен для початкових даних з MilitaryAidApplication (SecurityConfig у JPA-тесті не піднімається)
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private EntityCacheStats entityCacheStats;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Long countryId;
+    private Long weaponId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        countryId = countryRepository.findByName("USA").getId();
+        weaponId = transaction.execute(status -> entityManager()
+                .createQuery("SELECT MIN(w.id) FROM Weapon w", Long.class)
+                .getSingleResult());
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // --- ТЕСТ 1: findById - перше читання з БД, повторне з кешу ---
+    @Test
+    void testFindById_SecondReadFromCache() {
+        countryRepository.findById(countryId).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Country cached = countryRepository.findById(countryId).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("USA", cached.getName());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    // --- ТЕСТ 2: лінивий зв'язок Weapon → Period → Country вирішується з кешу ---
+    @Test
+    void testLazyAssociation_ResolvedFromCache() {
+        transaction.executeWithoutResult(status -> loadWeaponWithCountry());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        transaction.executeWithoutResult(status -> loadWeaponWithCountry());
+
+        // Зброя не кешується - повторно з БД читається лише вона
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    // --- ТЕСТ 3: статистика по регіонах ---
+    @Test
+    void testStats_ReportsHitsAndSize() {
+        countryRepository.findById(countryId).orElseThrow();
+        countryRepository.findById(countryId).orElseThrow();
+
+        CacheStats countries = entityCacheStats.getStats().get(0);
+        assertEquals(Country.class.getName(), countries.getName());
+        assertEquals(1, countries.getHits());
+        assertEquals(1, countries.getMisses());
+        assertTrue(countries.getSize() >= 1);
+        assertEquals(CacheConfig.ENTITY_REGIONS.size() + 1, entityCacheStats.getStats().size());
+    }
+
+    private void loadWeaponWithCountry() {
+        Weapon weapon = entityManager().find(Weapon.class, weaponId);
+        weapon.getPeriod().getCountry().getName();
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,86 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.cache.FragmentCache;
+import dev.yurets.db_demo.dto.CacheStats;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тести для кешу HTML-фрагментів сторінки /viewAll
+ */
+class FragmentCacheTest {
+
+    private TableVersions tableVersions;
+    private FragmentCache cache;
+
+    private final AtomicInteger countryRenders = new AtomicInteger();
+    private final AtomicInteger periodRenders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        // Без активної транзакції bump() змінює версію одразу
+        tableVersions = new TableVersions();
+        cache = new FragmentCache(tableVersions);
+    }
+
+    // --- ТЕСТ 1: Повторний запит віддає фрагмент без рендерингу ---
+    @Test
+    void testGet_RendersOnce() {
+        assertEquals("<div>1</div>", countries("countries:user"));
+        assertEquals("<div>1</div>", countries("countries:user"));
+
+        assertEquals(1, countryRenders.get());
+    }
+
+    // --- ТЕСТ 2: Зміна таблиці перерендерює тільки залежні фрагменти ---
+    @Test
+    void testGet_RerendersOnlyChangedSections() {
+        countries("countries:user");
+        periods("periods:user");
+
+        tableVersions.bump(DataTable.PERIOD);
+        countries("countries:user");
+        periods("periods:user");
+        assertEquals(1, countryRenders.get());
+        assertEquals(2, periodRenders.get());
+
+        // Період показується з назвою країни - зміна країн перерендерює обидва
+        tableVersions.bump(DataTable.COUNTRY);
+        assertEquals("<div>2</div>", countries("countries:user"));
+        periods("periods:user");
+        assertEquals(3, periodRenders.get());
+    }
+
+    // --- ТЕСТ 3: Різні ключі (ролі) кешуються окремо, статистика по ключах ---
+    @Test
+    void testGet_SeparateKeysAndStats() {
+        countries("countries:admin");
+        countries("countries:user");
+        countries("countries:user");
+
+        List<CacheStats> stats = cache.getStats();
+        assertEquals(2, stats.size());
+        assertEquals("countries:admin", stats.get(0).getName());
+        assertEquals(0, stats.get(0).getHits());
+        assertEquals("countries:user", stats.get(1).getName());
+        assertEquals(1, stats.get(1).getHits());
+        assertEquals(1, stats.get(1).getMisses());
+        assertEquals("<div>2</div>".length(), stats.get(1).getSize());
+    }
+
+    private String countries(String key) {
+        return cache.get(key, () -> "<div>" + countryRenders.incrementAndGet() + "</div>", DataTable.COUNTRY);
+    }
+
+    private String periods(String key) {
+        return cache.get(key, () -> "<div>" + periodRenders.incrementAndGet() + "</div>",
+                DataTable.PERIOD, DataTable.COUNTRY);
+    }
+}
@@ -0,0 +1,56 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести формату повідомлень інвалідації між вузлами (pg_notify)
+ */
+class InvalidationBusTest {
+
+    private static final String NODE = "node-1";
+
+    // --- ТЕСТ 1: Набір змін транзакції - одне повідомлення, вузол і зміни читаються назад ---
+    @Test
+    void testPayload_RoundTrip() {
+        List<String> payloads = InvalidationBus.payloads(NODE, List.of("Country:5", "Period:7", "Weapon:12"));
+
+        assertEquals(List.of("node-1;Country:5,Period:7,Weapon:12"), payloads);
+        assertEquals(NODE, InvalidationBus.node(payloads.get(0)));
+        assertEquals(List.of("Country:5", "Period:7", "Weapon:12"), InvalidationBus.changes(payloads.get(0)));
+    }
+
+    // --- ТЕСТ 2: Велика транзакція розбивається на кілька повідомлень у межах ліміту pg_notify ---
+    @Test
+    void testPayload_Chunked() {
+        List<String> changes = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            changes.add("WeaponDelivery:" + id);
+        }
+
+        List<String> payloads = InvalidationBus.payloads(NODE, changes);
+
+        assertTrue(payloads.size() > 1);
+        List<String> received = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() < 8000);
+            assertEquals(NODE, InvalidationBus.node(payload));
+            received.addAll(InvalidationBus.changes(payload));
+        }
+        assertEquals(changes, received);
+    }
+
+    // --- ТЕСТ 3: Порожній набір змін не надсилається, чужий формат не ламає розбір ---
+    @Test
+    void testPayload_Empty() {
+        assertTrue(InvalidationBus.payloads(NODE, List.of()).isEmpty());
+        assertEquals(List.of(), InvalidationBus.changes("node-1;"));
+        assertEquals("", InvalidationBus.node("garbage"));
+    }
+}
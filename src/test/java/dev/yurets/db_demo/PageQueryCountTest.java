@@ -0,0 +1,490 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.controller.MainController;
+import dev.yurets.db_demo.dto.AidRequestView;
+import dev.yurets.db_demo.dto.CacheStats;
+import dev.yurets.db_demo.dto.CountryTreeNode;
+import dev.yurets.db_demo.dto.DonorView;
+import dev.yurets.db_demo.dto.PeriodView;
+import dev.yurets.db_demo.dto.ReferenceItem;
+import dev.yurets.db_demo.dto.WeaponDeliveryView;
+import dev.yurets.db_demo.dto.WeaponView;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Donor;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.model.Weapon;
+import dev.yurets.db_demo.model.WeaponDelivery;
+import dev.yurets.db_demo.pagination.CursorPage;
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.repository.DonorRepository;
+import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
+import dev.yurets.db_demo.repository.WeaponRepository;
+import dev.yurets.db_demo.search.SearchQuery;
+import dev.yurets.db_demo.service.AidRequestService;
+import dev.yurets.db_demo.service.BundleService;
+import dev.yurets.db_demo.service.CountryService;
+import dev.yurets.db_demo.service.CountryTreeService;
+import dev.yurets.db_demo.service.DonorService;
+import dev.yurets.db_demo.service.PeriodService;
+import dev.yurets.db_demo.service.ViewTablesService;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.service.WeaponService;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести кількості SQL-запитів для веб-сторінок (/ та /viewAll) та пошуку в БД
+ * Кожен список має завантажуватись одним запитом разом зі зв'язками,
+ * незалежно від кількості рядків і від того, що вже є в контексті персистентності (без N+1)
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Import({MainController.class, CountryService.class, PeriodService.class, WeaponService.class,
+        DonorService.class, WeaponDeliveryService.class, AidRequestService.class, ViewTablesService.class, BundleService.class, CountryTreeService.class, ViewQueries.class, TableVersions.class, RequestCounters.class})
+class PageQueryCountTest {
+
+    private static final int COUNTRIES = 50;
+    private static final int PERIODS = 200;
+    private static final int WEAPONS = 1000;
+    private static final int DONORS = 300;
+    private static final int DELIVERIES = 3000;
+    private static final int REQUESTS = 1000;
+
+    // Потрібен для початкових даних з MilitaryAidApplication (SecurityConfig у JPA-тесті не піднімається)
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MainController mainController;
+
+    @Autowired
+    private ViewTablesService viewTablesService;
+
+    @Autowired
+    private PeriodService periodService;
+
+    @Autowired
+    private WeaponService weaponService;
+
+    @Autowired
+    private DonorService donorService;
+
+    @Autowired
+    private WeaponDeliveryService deliveryService;
+
+    @Autowired
+    private AidRequestService requestService;
+
+    @Autowired
+    private BundleService bundleService;
+
+    @Autowired
+    private CountryTreeService countryTreeService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PeriodRepository periodRepository;
+
+    @Autowired
+    private WeaponRepository weaponRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        seed();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // --- ТЕСТ 1: /viewAll - по одному запиту на кожну з 7 таблиць ---
+    @Test
+    void testViewAll_FixedQueryCount() {
+        ExtendedModelMap model = new ExtendedModelMap();
+
+        for (ViewTablesService.Section section : ViewTablesService.Section.values()) {
+            model.addAttribute(section.getName(), viewTablesService.load(section));
+        }
+        renderAssociations(model);
+
+        assertEquals(7, statistics.getPrepareStatementCount());
+    }
+
+    // --- ТЕСТ 2: головна сторінка - один запит на кожну секцію з пошуковим запитом ---
+    @Test
+    void testIndex_QueriesOnlySearchedSections() {
+        ExtendedModelMap model = new ExtendedModelMap();
+
+        mainController.index(null, "period", "weapon", null, "delivered", "country", model);
+        renderAssociations(model);
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertTrue(((List<?>) model.get("countries")).isEmpty());
+        assertTrue(((List<?>) model.get("donors")).isEmpty());
+    }
+
+    // --- ТЕСТ 3: пошук у БД - регістронезалежний і обмежений SearchQuery.LIMIT ---
+    @Test
+    void testSearch_CaseInsensitiveAndLimited() {
+        List<Weapon> found = weaponService.searchWeapons("WEAPON 99");
+        walkWeapons(found);
+
+        // "Weapon 99", "Weapon 990".."Weapon 999" - одним запитом разом з періодами
+        assertEquals(11, found.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(SearchQuery.LIMIT, weaponService.searchWeapons("weapon").size());
+    }
+
+    // --- ТЕСТ 4: символи % та _ у запиті шукаються буквально ---
+    @Test
+    void testSearch_EscapesWildcards() {
+        assertTrue(periodService.searchPeriods("%").isEmpty());
+        assertTrue(periodService.searchPeriods("_").isEmpty());
+        assertEquals(11, periodService.searchPeriods("period 5").size());
+    }
+
+    // --- ТЕСТ 5: кожен список окремо (порожній контекст) - один запит разом зі зв'язками ---
+    @Test
+    void testEachList_SingleQuery() {
+        assertSingleQuery(() -> walkPeriods(periodService.getAllPeriods()));
+        assertSingleQuery(() -> walkWeapons(weaponService.getAllWeapons()));
+        assertSingleQuery(() -> walkDonors(donorService.getAllDonors()));
+        assertSingleQuery(() -> walkDeliveries(deliveryService.getAllDeliveries()));
+        assertSingleQuery(() -> walkRequests(requestService.getAllRequests()));
+    }
+
+    // --- ТЕСТ 6: ?fields= - один запит, невибрані поля read-моделі не читаються ---
+    @Test
+    void testSparseFields_SelectsOnlyRequestedColumns() {
+        List<WeaponView> weapons = weaponService.getAllWeaponViews(Fields.parse("weaponName,countryName"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(weaponService.getAllWeaponViews(Fields.ALL).size(), weapons.size());
+        for (WeaponView w : weapons) {
+            assertNotNull(w.getWeaponName());
+            assertNotNull(w.getCountryName());
+            assertNull(w.getId());
+            assertNull(w.getPeriodName());
+        }
+    }
+
+    // --- ТЕСТ 7: ?fields= разом з keyset-пагінацією - ключ курсора читається завжди ---
+    @Test
+    void testSparseFields_Page() {
+        CursorPage<AidRequestView> first = requestService.getRequestsPage(null, 10, Fields.parse("status"));
+        CursorPage<AidRequestView> second = requestService.getRequestsPage(first.getNextCursor(), 10, Fields.parse("status"));
+        CursorPage<AidRequestView> full = requestService.getRequestsPage(first.getNextCursor(), 10, Fields.ALL);
+
+        assertEquals("PENDING", second.getItems().get(0).getStatus());
+        assertNull(second.getItems().get(0).getWeaponName());
+        assertEquals(full.getItems().get(0).getId(), second.getItems().get(0).getId());
+        assertEquals(full.getNextCursor(), second.getNextCursor());
+    }
+
+    // --- ТЕСТ 8: ?ids= - один запит незалежно від кількості ID ---
+    @Test
+    void testIds_SingleQuery() {
+        List<Long> ids = new ArrayList<>();
+        for (WeaponDeliveryView d : deliveryService.getDeliveriesPage(null, 200, Fields.of("id")).getItems()) {
+            ids.add(d.getId());
+        }
+        statistics.clear();
+
+        List<WeaponDeliveryView> found = deliveryService.getDeliveryViewsByIds(ids, Fields.ALL);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(200, found.size());
+        assertNotNull(found.get(0).getWeaponName());
+    }
+
+    // --- ТЕСТ 9: /api/bundle - по одному запиту на колекцію ---
+    @Test
+    void testBundle_QueryPerCollection() {
+        Map<String, List<?>> bundle = bundleService.getBundle(List.of("countries", "periods", "donors"));
+
+        assertEquals(List.of("countries", "periods", "donors"), List.copyOf(bundle.keySet()));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertThrows(IllegalArgumentException.class, () -> bundleService.getBundle(List.of("countries", "users")));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    // --- ТЕСТ 10: дерево країни - 4 запити незалежно від розміру, підсумки по рівнях ---
+    @Test
+    void testCountryTree_BoundedQueriesAndTotals() {
+        Long countryId = countryRepository.findByName("Country 0").getId();
+        entityManager.clear();
+        statistics.clear();
+
+        CountryTreeNode tree = countryTreeService.getCountryTree(countryId).orElseThrow();
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        // Періоди 0, 50, 100, 150 → по 5 одиниць зброї → по 3 поставки на одиницю
+        assertEquals(4, tree.getPeriods().size());
+        assertEquals(0, new BigDecimal("4").compareTo(tree.getTotalAidAmountUsd()));
+        assertEquals(0, new BigDecimal("200").compareTo(tree.getTotalCostUsd()));
+        assertEquals(60, tree.getDeliveredQuantity());
+        assertEquals(5, tree.getPeriods().get(0).getWeapons().size());
+        assertEquals(15, tree.getPeriods().get(0).getDeliveredQuantity());
+        assertEquals(3, tree.getPeriods().get(0).getWeapons().get(0).getDeliveries().size());
+    }
+
+    // --- ТЕСТ 11: довідники для випадаючих списків - повторне відображення без запитів до БД ---
+    @Test
+    void testReferenceDataCache_NoQueriesUntilTableChanges() {
+        // Свій екземпляр кешу: у тестовій транзакції bump() чекає коміту, тому версії змінюються вручну
+        long[] generation = {0};
+        TableVersions versions = new TableVersions() {
+            @Override
+            public String etag(DataTable... tables) {
+                return "\"" + generation[0] + "\"";
+            }
+        };
+        ReferenceDataCache cache = new ReferenceDataCache(countryRepository, periodRepository,
+                weaponRepository, donorRepository, versions);
+
+        loadDropdowns(cache);
+        assertEquals(4, statistics.getPrepareStatementCount());
+
+        List<ReferenceItem> periods = cache.getPeriods();
+        loadDropdowns(cache);
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertTrue(periods.size() >= PERIODS);
+        assertEquals("Country 0", periods.stream().filter(p -> p.getName().equals("Period 0"))
+                .findFirst().orElseThrow().getDetail());
+
+        generation[0]++;
+        loadDropdowns(cache);
+        assertEquals(8, statistics.getPrepareStatementCount());
+
+        CacheStats countries = cache.getStats().get(0);
+        assertEquals("countries", countries.getName());
+        assertEquals(2, countries.getMisses());
+        assertEquals(1, countries.getHits());
+        assertTrue(countries.getSize() >= COUNTRIES);
+    }
+
+    // --- ТЕСТ 12: пакетне створення - ID пулами з послідовності, INSERT пакетами по batch_size ---
+    @Test
+    void testCreateWeapons_BatchedInserts() {
+        Long periodId = periodRepository.findAll().get(0).getId();
+        List<Weapon> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Period period = new Period();
+            period.setId(periodId);
+            batch.add(new Weapon("Artillery", "Batch " + i, 1, BigDecimal.ONE, BigDecimal.ONE, period));
+        }
+        entityManager.clear();
+        statistics.clear();
+
+        List<Weapon> created = weaponService.createWeapons(batch);
+        entityManager.flush();
+
+        assertEquals(1000, statistics.getEntityInsertCount());
+        assertEquals(1000, created.stream().map(Weapon::getId).distinct().count());
+        // 1 запит періодів + 20 викликів послідовності + один INSERT, що виконується пакетами (замість 1000)
+        assertEquals(22, statistics.getPrepareStatementCount());
+
+        batch.get(7).setQuantity(0);
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> weaponService.createWeapons(batch));
+        assertTrue(error.getMessage().startsWith("Елемент 7: "));
+    }
+
+    // --- ТЕСТ 13: одиничне створення повертає збережену сутність - без повторного читання таблиці ---
+    @Test
+    void testCreateWeapon_ReturnsPersistedEntity() {
+        Long periodId = periodRepository.findAll().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Weapon created = weaponService.createWeapon("Artillery", "Single", 2,
+                BigDecimal.ONE, BigDecimal.valueOf(2), periodId);
+        entityManager.flush();
+
+        assertNotNull(created.getId());
+        assertEquals("Single", created.getWeaponName());
+        assertEquals(periodId, created.getPeriod().getId());
+        // Лише INSERT: період - з кешу другого рівня, ID - з уже виділеного пулу послідовності
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // --- ТЕСТ 14: read-моделі REST - один запит на список разом з назвами зв'язків, без лінивого завантаження ---
+    @Test
+    void testViews_SingleQueryWithResolvedNames() {
+        entityManager.clear();
+        statistics.clear();
+        List<PeriodView> periods = periodService.getAllPeriodViews(Fields.ALL);
+        List<WeaponView> weapons = weaponService.getAllWeaponViews(Fields.ALL);
+        List<DonorView> donors = donorService.getAllDonorViews(Fields.ALL);
+        List<WeaponDeliveryView> deliveries = deliveryService.getAllDeliveryViews(Fields.ALL);
+        List<AidRequestView> requests = requestService.getAllRequestViews(Fields.ALL);
+
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        // Початкові дані MilitaryAidApplication теж у списках - тому не менше, ніж засіяно
+        assertTrue(periods.size() >= PERIODS && weapons.size() >= WEAPONS && donors.size() >= DONORS
+                && deliveries.size() >= DELIVERIES && requests.size() >= REQUESTS);
+        assertTrue(periods.stream().allMatch(p -> p.getCountryName() != null));
+        assertTrue(weapons.stream().allMatch(w -> w.getPeriodName() != null));
+        assertTrue(donors.stream().allMatch(d -> d.getCountryName() != null));
+        assertTrue(deliveries.stream().allMatch(d -> d.getWeaponName() != null && d.getDonorName() != null));
+        assertTrue(requests.stream().allMatch(r -> r.getRequestingCountryName() != null && r.getPeriodName() != null));
+        // Запити без країни-донора теж у списку (LEFT JOIN), з донором - з його назвою
+        assertTrue(requests.stream().anyMatch(r -> r.getDonorCountryId() == null));
+        assertTrue(requests.stream().filter(r -> r.getDonorCountryId() != null)
+                .allMatch(r -> r.getDonorCountryName() != null));
+    }
+
+    private void assertSingleQuery(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+
+        action.run();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Пройти зв'язки так само, як це роблять шаблони webpage.html та view-tables.html
+     */
+    @SuppressWarnings("unchecked")
+    private void renderAssociations(ExtendedModelMap model) {
+        walkPeriods((List<Period>) model.get("periods"));
+        walkWeapons((List<Weapon>) model.get("weapons"));
+        walkDonors((List<Donor>) model.get("donors"));
+        walkDeliveries((List<WeaponDelivery>) model.get("deliveries"));
+        walkRequests((List<AidRequest>) model.get("requests"));
+    }
+
+    private void walkPeriods(List<Period> periods) {
+        for (Period p : periods) {
+            p.getCountry().getName();
+        }
+    }
+
+    private void walkWeapons(List<Weapon> weapons) {
+        for (Weapon w : weapons) {
+            w.getPeriod().getPeriodName();
+        }
+    }
+
+    private void walkDonors(List<Donor> donors) {
+        for (Donor d : donors) {
+            d.getCountry().getName();
+        }
+    }
+
+    private void walkDeliveries(List<WeaponDelivery> deliveries) {
+        for (WeaponDelivery d : deliveries) {
+            d.getWeapon().getWeaponName();
+            d.getDonor().getOrganizationName();
+        }
+    }
+
+    private void loadDropdowns(ReferenceDataCache cache) {
+        cache.getCountries();
+        cache.getPeriods();
+        cache.getWeapons();
+        cache.getDonors();
+    }
+
+    private void walkRequests(List<AidRequest> requests) {
+        for (AidRequest r : requests) {
+            r.getRequestingCountry().getName();
+            if (r.getDonorCountry() != null) {
+                r.getDonorCountry().getName();
+            }
+            r.getPeriod().getPeriodName();
+        }
+    }
+
+    private void seed() {
+        LocalDate start = LocalDate.of(2022, 1, 1);
+
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < COUNTRIES; i++) {
+            countries.add(entityManager.persist(new Country("Country " + i, BigDecimal.TEN)));
+        }
+
+        List<Period> periods = new ArrayList<>();
+        for (int i = 0; i < PERIODS; i++) {
+            periods.add(entityManager.persist(new Period("Period " + i, start, start.plusMonths(6),
+                    BigDecimal.ONE, countries.get(i % COUNTRIES))));
+        }
+
+        List<Weapon> weapons = new ArrayList<>();
+        for (int i = 0; i < WEAPONS; i++) {
+            weapons.add(entityManager.persist(new Weapon("Artillery", "Weapon " + i, 10,
+                    BigDecimal.ONE, BigDecimal.TEN, periods.get(i % PERIODS))));
+        }
+
+        List<Donor> donors = new ArrayList<>();
+        for (int i = 0; i < DONORS; i++) {
+            donors.add(entityManager.persist(new Donor("Donor " + i, "урядова", "donor" + i + "@test",
+                    countries.get(i % COUNTRIES))));
+        }
+
+        for (int i = 0; i < DELIVERIES; i++) {
+            entityManager.persist(new WeaponDelivery(start.plusDays(i % 700), 1, "delivered", "TRK-" + i,
+                    weapons.get(i % WEAPONS), donors.get(i % DONORS)));
+        }
+
+        for (int i = 0; i < REQUESTS; i++) {
+            Country donorCountry = i % 3 == 0 ? null : countries.get((i + 1) % COUNTRIES);
+            entityManager.persist(new AidRequest("Artillery", "Weapon " + i, 5, "HIGH", "PENDING",
+                    start.plusDays(i % 700), null, countries.get(i % COUNTRIES), donorCountry,
+                    periods.get(i % PERIODS)));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.cache.PrefixIndex;
+import dev.yurets.db_demo.dto.LookupItem;
+import dev.yurets.db_demo.dto.ReferenceItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести індексу автодоповнення (відсортований масив + бінарний пошук)
+ */
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex(List.of(
+            new ReferenceItem(1L, "M777 Howitzer", "Artillery"),
+            new ReferenceItem(2L, "Javelin Anti-Tank Missile", "Anti-Tank"),
+            new ReferenceItem(3L, "Leopard 2 Tank", "Tank"),
+            new ReferenceItem(4L, "javelin Block 1", "Anti-Tank"),
+            new ReferenceItem(5L, "HIMARS", "Artillery")));
+
+    // --- ТЕСТ 1: Префікс без урахування регістру, результати за алфавітом, підпис з уточненням ---
+    @Test
+    void testFind_Prefix() {
+        List<LookupItem> found = index.find("JAV", 10);
+
+        assertEquals(List.of(2L, 4L), ids(found));
+        assertEquals("Javelin Anti-Tank Missile (Anti-Tank)", found.get(0).getLabel());
+        assertEquals(List.of(4L), ids(index.find("javelin b", 10)));
+    }
+
+    // --- ТЕСТ 2: Порожній префікс - перші записи за алфавітом, limit обмежує відповідь ---
+    @Test
+    void testFind_EmptyPrefixAndLimit() {
+        assertEquals(List.of(5L, 2L, 4L, 3L, 1L), ids(index.find(null, 10)));
+        assertEquals(List.of(5L, 2L), ids(index.find("", 2)));
+        assertEquals(List.of(2L), ids(index.find("j", 1)));
+    }
+
+    // --- ТЕСТ 3: Немає збігів (до першого, після останнього, між записами) ---
+    @Test
+    void testFind_NoMatch() {
+        assertTrue(index.find("a", 10).isEmpty());
+        assertTrue(index.find("zzz", 10).isEmpty());
+        assertTrue(index.find("k", 10).isEmpty());
+        assertTrue(new PrefixIndex(List.of()).find("m", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<LookupItem> items) {
+        return items.stream().map(LookupItem::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,139 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.coalescing.RequestCoalescer;
+import dev.yurets.db_demo.dto.CoalescingStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести об'єднання однакових одночасних читань (single-flight)
+ */
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    // --- ТЕСТ 1: Одночасні виклики з однаковим ключем - одне читання, один результат на всіх ---
+    @Test
+    void testConcurrentCalls_ShareOneExecution() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(new MockEnvironment());
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> rows = List.of("row");
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<Object> leader = pool.submit(() -> call(coalescer, "deliveries", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                release.await();
+                return rows;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<?>[] followers = new Future<?>[CALLERS - 1];
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = pool.submit(() -> call(coalescer, "deliveries", () -> {
+                    executions.incrementAndGet();
+                    return List.of();
+                }));
+            }
+            // Усі чекають на першого
+            waitForCoalesced(coalescer, CALLERS - 1);
+            release.countDown();
+
+            assertSame(rows, leader.get(5, TimeUnit.SECONDS));
+            for (Future<?> follower : followers) {
+                assertSame(rows, follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        CoalescingStats stats = coalescer.getStats().get(0);
+        assertEquals(CALLERS, stats.getCalls());
+        assertEquals(1, stats.getExecutions());
+        assertEquals(CALLERS - 1, stats.getCoalesced());
+        assertEquals((double) (CALLERS - 1) / CALLERS, stats.getRatio());
+    }
+
+    // --- ТЕСТ 2: Після завершення читання результат не кешується, вимкнений метод не об'єднується ---
+    @Test
+    void testSequentialAndDisabled() throws Throwable {
+        MockEnvironment environment = new MockEnvironment().withProperty("app.coalescing.weapons.enabled", "false");
+        RequestCoalescer coalescer = new RequestCoalescer(environment);
+
+        coalescer.execute("requests", "key", () -> "first");
+        assertEquals("second", coalescer.execute("requests", "key", () -> "second"));
+        coalescer.execute("weapons", "key", () -> "w");
+
+        List<CoalescingStats> stats = coalescer.getStats();
+        assertEquals("requests", stats.get(0).getName());
+        assertEquals(2, stats.get(0).getExecutions());
+        assertEquals("weapons", stats.get(1).getName());
+        assertFalse(stats.get(1).isEnabled());
+        assertEquals(0, stats.get(1).getRatio());
+    }
+
+    // --- ТЕСТ 3: Виняток читання отримують усі, хто чекав, а ключ звільняється ---
+    @Test
+    void testException_PropagatedToWaiters() throws Throwable {
+        RequestCoalescer coalescer = new RequestCoalescer(new MockEnvironment());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = pool.submit(() -> call(coalescer, "periods", () -> {
+                started.countDown();
+                release.await();
+                throw new IllegalArgumentException("boom");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Object> follower = pool.submit(() -> call(coalescer, "periods", () -> "unused"));
+            waitForCoalesced(coalescer, 1);
+            release.countDown();
+
+            for (Future<Object> future : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals("ok", coalescer.execute("periods", "key", () -> "ok"));
+    }
+
+    private static Object call(RequestCoalescer coalescer, String name, RequestCoalescer.Flight flight) throws Exception {
+        try {
+            return coalescer.execute(name, "key", flight);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitForCoalesced(RequestCoalescer coalescer, long coalesced) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescer.getStats().get(0).getCoalesced() < coalesced && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
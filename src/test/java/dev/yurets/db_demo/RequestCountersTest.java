@@ -0,0 +1,156 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.dto.RequestCount;
+import dev.yurets.db_demo.dto.RequestStats;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.repository.AidRequestRepository;
+import dev.yurets.db_demo.stats.RequestCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тести in-memory лічильників запитів (статус × пріоритет × країна)
+ */
+class RequestCountersTest {
+
+    private AidRequestRepository repository;
+    private RequestCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AidRequestRepository.class);
+        when(repository.countByStatusPriorityCountry()).thenReturn(List.of(
+                new RequestCount("PENDING", "URGENT", 1L, 3),
+                new RequestCount("PENDING", "LOW", 2L, 1),
+                new RequestCount("APPROVED", "URGENT", 2L, 2)));
+        counters = new RequestCounters(repository, mock(ObjectProvider.class));
+        counters.load();
+    }
+
+    // --- ТЕСТ 1: Наповнення з GROUP BY - будь-який зріз з одного лічильника ---
+    @Test
+    void testLoad_AllSlices() {
+        assertEquals(6, counters.count(null, null, null));
+        assertEquals(4, counters.count("PENDING", null, null));
+        assertEquals(5, counters.count(null, "URGENT", null));
+        assertEquals(3, counters.count(null, null, 2L));
+        assertEquals(2, counters.count("APPROVED", null, 2L));
+        assertEquals(0, counters.count("REJECTED", "URGENT", 1L));
+    }
+
+    // --- ТЕСТ 2: Створення, зміна статусу та видалення переносять запит між клітинками ---
+    @Test
+    void testMove() {
+        AidRequest request = request(1L, "HIGH");
+        counters.move(null, RequestCounters.cellOf(request));
+        assertEquals(7, counters.count(null, null, null));
+        assertEquals(5, counters.count("PENDING", null, null));
+
+        RequestCounters.Cell before = RequestCounters.cellOf(request);
+        request.setStatus("REJECTED");
+        counters.move(before, RequestCounters.cellOf(request));
+        assertEquals(4, counters.count("PENDING", null, null));
+        assertEquals(1, counters.count("REJECTED", "HIGH", 1L));
+        assertEquals(7, counters.count(null, null, null));
+
+        counters.move(RequestCounters.cellOf(request), null);
+        assertEquals(0, counters.count("REJECTED", null, null));
+        assertEquals(6, counters.count(null, null, null));
+    }
+
+    // --- ТЕСТ 3: Розбивка враховує фільтри інших вимірів, невідомі значення - помилка ---
+    @Test
+    void testGetStats() {
+        RequestStats all = counters.getStats(null, null, null);
+        assertEquals(6, all.getTotal());
+        assertEquals(0, all.getByStatus().get("DELIVERED"));
+        assertEquals(Map.of(1L, 3L, 2L, 3L), all.getByCountry());
+
+        RequestStats pending = counters.getStats("pending", null, null);
+        assertEquals(4, pending.getTotal());
+        assertEquals(2, pending.getByStatus().get("APPROVED"));
+        assertEquals(3, pending.getByPriority().get("URGENT"));
+        assertEquals(Map.of(1L, 3L, 2L, 1L), pending.getByCountry());
+
+        assertThrows(IllegalArgumentException.class, () -> counters.getStats("DONE", null, null));
+        assertThrows(IllegalArgumentException.class, () -> counters.getStats(null, "ASAP", null));
+    }
+
+    // --- ТЕСТ 4: Перенесення транзакції - після коміту, одним зсувом; інший вузол застосовує той самий зсув ---
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMove_PublishedToOtherNodes() {
+        InvalidationBus bus = mock(InvalidationBus.class);
+        ObjectProvider<InvalidationBus> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(bus);
+        doCallRealMethod().when(provider).ifAvailable(any());
+        RequestCounters local = new RequestCounters(repository, provider);
+        local.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            local.move(null, RequestCounters.cellOf(request(1L, "HIGH")));
+            local.move(null, RequestCounters.cellOf(request(1L, "HIGH")));
+            assertEquals(6, local.count(null, null, null));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(8, local.count(null, null, null));
+
+        ArgumentCaptor<Collection<String>> changes = ArgumentCaptor.forClass(Collection.class);
+        verify(bus).publishCommitted(changes.capture());
+        assertEquals(List.of("RequestCount:>PENDING|HIGH|1=2"), List.copyOf(changes.getValue()));
+
+        changes.getValue().forEach(counters::applyRemote);
+        counters.applyRemote("RequestCount:broken");
+        assertEquals(8, counters.count(null, null, null));
+        assertEquals(2, counters.count("PENDING", "HIGH", 1L));
+    }
+
+    // --- ТЕСТ 5: Перенесення під час повного перерахування не губляться ---
+    @Test
+    void testLoad_KeepsConcurrentMoves() {
+        when(repository.countByStatusPriorityCountry()).thenAnswer(invocation -> {
+            // Зміна, закомічена вже після того, як GROUP BY прочитав дані
+            counters.move(null, RequestCounters.cellOf(request(2L, "LOW")));
+            return List.of(new RequestCount("PENDING", "URGENT", 1L, 3));
+        });
+
+        counters.load();
+
+        assertEquals(4, counters.count(null, null, null));
+        assertEquals(1, counters.count("PENDING", "LOW", 2L));
+    }
+
+    private static AidRequest request(Long countryId, String priority) {
+        Country country = new Country("Country " + countryId, BigDecimal.ZERO);
+        country.setId(countryId);
+        return new AidRequest("Artillery", "M777 Howitzer", 10, priority, "PENDING",
+                LocalDate.now(), null, country, null, null);
+    }
+}
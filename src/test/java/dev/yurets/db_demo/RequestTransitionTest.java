@@ -0,0 +1,175 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.bulk.RequestTransitionService;
+import dev.yurets.db_demo.bulk.RequestTransitionService.Action;
+import dev.yurets.db_demo.cluster.InvalidationBus;
+import dev.yurets.db_demo.dto.TransitionReport;
+import dev.yurets.db_demo.dto.TransitionSkip;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.repository.AidRequestRepository;
+import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.DataTable;
+import dev.yurets.db_demo.version.TableVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести масових переходів статусу запитів (POST /api/requests/bulk/{action})
+ * На H2 замість UPDATE ... RETURNING - SELECT ... FOR UPDATE і UPDATE за ID.
+ * Лічильники оновлюються після коміту, тому кожен перехід - окрема закомічена транзакція,
+ * а дані прибираються вручну.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RequestTransitionService.class, RequestCounters.class, TableVersions.class, InvalidationBus.class})
+class RequestTransitionTest {
+
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private RequestTransitionService transitionService;
+
+    @Autowired
+    private RequestCounters requestCounters;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PeriodRepository periodRepository;
+
+    @Autowired
+    private AidRequestRepository requestRepository;
+
+    private Country recipient;
+    private Country donor;
+    private Period period;
+    private AidRequest urgent;
+    private AidRequest urgentWithoutDonor;
+    private AidRequest low;
+    private AidRequest approved;
+
+    @BeforeEach
+    void setUp() {
+        recipient = countryRepository.save(new Country("Bulk Recipient", BigDecimal.TEN));
+        donor = countryRepository.save(new Country("Bulk Donor", BigDecimal.TEN));
+        period = periodRepository.save(new Period("Bulk Period", LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 12, 31), BigDecimal.ONE, recipient));
+        urgent = request("URGENT", "PENDING", donor);
+        urgentWithoutDonor = request("URGENT", "PENDING", null);
+        low = request("LOW", "PENDING", donor);
+        approved = request("URGENT", "APPROVED", donor);
+        requestCounters.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // За ID, а не сутностями: після переходу їхня @Version застаріла
+        requestRepository.deleteAllById(List.of(urgent.getId(), urgentWithoutDonor.getId(), low.getId(),
+                approved.getId()));
+        periodRepository.delete(period);
+        countryRepository.deleteAll(List.of(recipient, donor));
+    }
+
+    // --- ТЕСТ 1: схвалення за фільтром - тільки PENDING з донором, решта у звіті ---
+    @Test
+    void testApproveByFilter_TransitionsOnlyEligible() {
+        long version = tableVersions.version(DataTable.REQUEST);
+
+        TransitionReport report = transitionService.transition(Action.APPROVE, null, "urgent",
+                recipient.getId(), null, null);
+
+        assertEquals(List.of(urgent.getId()), report.getTransitioned());
+        assertEquals(1, report.getSkipped().size());
+        assertEquals(urgentWithoutDonor.getId(), report.getSkipped().get(0).getId());
+        assertEquals("APPROVED", status(urgent));
+        assertEquals("PENDING", status(urgentWithoutDonor));
+        // Лічильники і версія таблиці - після коміту, без перезавантаження
+        assertEquals(2, requestCounters.count("PENDING", null, recipient.getId()));
+        assertEquals(2, requestCounters.count("APPROVED", "URGENT", recipient.getId()));
+        assertTrue(tableVersions.version(DataTable.REQUEST) > version);
+    }
+
+    // --- ТЕСТ 2: відхилення за ID - причина для кожного пропущеного ID ---
+    @Test
+    void testRejectByIds_ReportsSkippedWithReasons() {
+        TransitionReport report = transitionService.transition(Action.REJECT,
+                List.of(low.getId(), urgent.getId(), approved.getId(), 999999L), null, null, null, " Дублікат ");
+
+        assertEquals(List.of(urgent.getId(), low.getId()), report.getTransitioned());
+        Map<Long, String> skipped = report.getSkipped().stream()
+                .collect(Collectors.toMap(TransitionSkip::getId, TransitionSkip::getReason));
+        assertEquals("Поточний статус APPROVED, потрібен PENDING", skipped.get(approved.getId()));
+        assertEquals("Запит не знайдено", skipped.get(999999L));
+        assertEquals("REJECTED", status(low));
+        assertEquals("Дублікат", requestRepository.findById(low.getId()).orElseThrow().getRejectionReason());
+        assertEquals(2, requestCounters.count("REJECTED", null, recipient.getId()));
+
+        // Повторний виклик нічого не змінює - запити вже не в PENDING
+        report = transitionService.transition(Action.REJECT, List.of(low.getId()), null, null, null, null);
+        assertTrue(report.getTransitioned().isEmpty());
+        assertEquals(2, requestCounters.count("REJECTED", null, recipient.getId()));
+    }
+
+    // --- ТЕСТ 3: ID разом з фільтром, порожній вибір і невідома дія ---
+    @Test
+    void testInvalidSelection() {
+        TransitionReport report = transitionService.transition(Action.APPROVE, List.of(low.getId()), "URGENT",
+                null, null, null);
+        assertTrue(report.getTransitioned().isEmpty());
+        assertEquals("Не відповідає фільтру", report.getSkipped().get(0).getReason());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transitionService.transition(Action.APPROVE, List.of(), null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> transitionService.transition(Action.APPROVE, null, "SOON", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> Action.parse("archive"));
+        assertEquals("PENDING", status(low));
+    }
+
+    private AidRequest request(String priority, String status, Country donorCountry) {
+        return requestRepository.save(new AidRequest("Artillery", "Bulk " + priority, 1, priority, status,
+                LocalDate.of(2024, 2, 1), null, recipient, donorCountry, period));
+    }
+
+    private String status(AidRequest request) {
+        return requestRepository.findById(request.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,187 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.controller.AidRequestController;
+import dev.yurets.db_demo.model.AidRequest;
+import dev.yurets.db_demo.model.Country;
+import dev.yurets.db_demo.model.Period;
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.repository.AidRequestRepository;
+import dev.yurets.db_demo.repository.CountryRepository;
+import dev.yurets.db_demo.repository.PeriodRepository;
+import dev.yurets.db_demo.repository.ViewQueries;
+import dev.yurets.db_demo.service.AidRequestService;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.version.TableVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести оптимістичного блокування запитів на допомогу (@Version, If-Match)
+ * і переходів статусу як compare-and-set: з кількох одночасних рецензентів
+ * змінює статус рівно один, решта отримують конфлікт замість тихого перезапису.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AidRequestService.class, WeaponDeliveryService.class, ViewQueries.class, TableVersions.class,
+        RequestCounters.class})
+class RequestVersioningTest {
+
+    private static final int REVIEWERS = 8;
+
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private AidRequestService requestService;
+
+    @Autowired
+    private RequestCounters requestCounters;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PeriodRepository periodRepository;
+
+    @Autowired
+    private AidRequestRepository requestRepository;
+
+    private Country recipient;
+    private Country donor;
+    private Period period;
+    private AidRequest request;
+
+    @BeforeEach
+    void setUp() {
+        recipient = countryRepository.save(new Country("Version Recipient", BigDecimal.TEN));
+        donor = countryRepository.save(new Country("Version Donor", BigDecimal.TEN));
+        period = periodRepository.save(new Period("Version Period", LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 12, 31), BigDecimal.ONE, recipient));
+        request = requestRepository.save(new AidRequest("Artillery", "Version Howitzer", 4, "HIGH", "PENDING",
+                LocalDate.of(2024, 3, 1), null, recipient, donor, period));
+        requestCounters.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteById(request.getId());
+        periodRepository.delete(period);
+        countryRepository.deleteAll(List.of(recipient, donor));
+    }
+
+    // --- ТЕСТ 1: одночасні схвалення і відхилення - статус змінює рівно один рецензент ---
+    @Test
+    void testConcurrentReviewers_ExactlyOneTransitionWins() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REVIEWERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < REVIEWERS; i++) {
+            boolean approve = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    if (approve) {
+                        requestService.approveRequest(request.getId(), null);
+                    } else {
+                        requestService.rejectRequest(request.getId(), null, "Паралельний рецензент");
+                    }
+                    return true;
+                } catch (OptimisticLockingFailureException | IllegalStateException e) {
+                    // Або CAS не знайшов рядок у прочитаному стані, або статус уже не PENDING
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int won = 0;
+        for (Future<Boolean> result : results) {
+            won += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, won);
+        AidRequest saved = requestRepository.findById(request.getId()).orElseThrow();
+        assertEquals(1L, saved.getVersion());
+        assertEquals(0, requestCounters.count("PENDING", null, recipient.getId()));
+        assertEquals(1, requestCounters.count(saved.getStatus(), "HIGH", recipient.getId()));
+    }
+
+    // --- ТЕСТ 2: If-Match - застаріла версія відхиляється, актуальна приймається ---
+    @Test
+    void testExpectedVersion_StaleIsRejected() {
+        Long read = request.getVersion();
+        requestService.updateRequest(request.getId(), read, "Artillery", "Version Howitzer", 6, "URGENT",
+                null, recipient.getId(), donor.getId(), period.getId());
+        assertEquals(read + 1, requestRepository.findById(request.getId()).orElseThrow().getVersion());
+
+        // Другий клієнт читав ту саму версію - його зміна не перезаписує першу
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> requestService.rejectRequest(request.getId(), read, "Застаріла форма"));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> requestService.updateRequest(request.getId(), read, "Artillery", "Version Howitzer", 2,
+                        "LOW", null, recipient.getId(), donor.getId(), period.getId()));
+
+        requestService.approveRequest(request.getId(), read + 1);
+        AidRequest saved = requestRepository.findById(request.getId()).orElseThrow();
+        assertEquals("APPROVED", saved.getStatus());
+        assertEquals(6, saved.getRequestedQuantity());
+        assertEquals(read + 2, saved.getVersion());
+        assertTrue(requestService.getRequestViewById(request.getId(),
+                Fields.ALL).orElseThrow().getVersion() > read);
+    }
+
+    // --- ТЕСТ 3: веб-форма - схвалення за посиланням зі старою версією не виконується ---
+    @Test
+    void testWebApprove_StaleLinkIsRejected() {
+        AidRequestController controller = new AidRequestController(requestService, null, null);
+        Long shown = request.getVersion();
+        requestService.updateRequest(request.getId(), shown, "Artillery", "Version Howitzer", 5, "HIGH",
+                null, recipient.getId(), donor.getId(), period.getId());
+
+        RedirectAttributesModelMap attributes = new RedirectAttributesModelMap();
+        controller.approveRequest(request.getId(), shown, attributes);
+        assertTrue(attributes.getFlashAttributes().containsKey("error"));
+        assertEquals("PENDING", requestRepository.findById(request.getId()).orElseThrow().getStatus());
+
+        attributes = new RedirectAttributesModelMap();
+        controller.approveRequest(request.getId(), shown + 1, attributes);
+        assertTrue(attributes.getFlashAttributes().containsKey("message"));
+        assertEquals("APPROVED", requestRepository.findById(request.getId()).orElseThrow().getStatus());
+    }
+}
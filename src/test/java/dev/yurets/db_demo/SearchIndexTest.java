@@ -0,0 +1,102 @@
+package dev.yurets.db_demo;
+
+import dev.yurets.db_demo.dto.SearchHit;
+import dev.yurets.db_demo.search.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тести для in-memory триграмного пошукового індексу
+ */
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.put("country", 1L, Map.of("name", "USA"));
+        index.put("weapon", 2L, Map.of("weaponName", "Javelin Anti-Tank Missile"));
+        index.put("delivery", 2L, Map.of("trackingNumber", "USA-JAV-002"));
+        index.put("donor", 2L, Map.of("organizationName", "US Agency for International Development"));
+    }
+
+    // --- ТЕСТ 1: Пошук за фрагментом без урахування регістру ---
+    @Test
+    void testSearch_Fragment() {
+        List<SearchHit> hits = index.search("JAV", null);
+
+        assertEquals(2, hits.size());
+        assertEquals("weapon", hits.get(0).getType());
+        assertEquals("delivery", hits.get(1).getType());
+    }
+
+    // --- ТЕСТ 2: Точний збіг вище за збіг на початку значення ---
+    @Test
+    void testSearch_Ranking() {
+        List<SearchHit> hits = index.search("usa", null);
+
+        assertEquals("country", hits.get(0).getType());
+        assertEquals("USA", hits.get(0).getValue());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    // --- ТЕСТ 3: Триграми збігаються, але підрядка немає - не результат ---
+    @Test
+    void testSearch_NoFalsePositives() {
+        index.put("period", 9L, Map.of("periodName", "abcd bcde"));
+
+        assertTrue(index.search("abcde", null).isEmpty());
+    }
+
+    // --- ТЕСТ 4: Короткий запит (менше 3 символів) ---
+    @Test
+    void testSearch_ShortQuery() {
+        assertEquals(3, index.search("us", null).size());
+    }
+
+    // --- ТЕСТ 5: Оновлення та видалення документа ---
+    @Test
+    void testPutAndRemove() {
+        index.put("weapon", 2L, Map.of("weaponName", "Leopard 2 Tank"));
+        assertEquals(1, index.search("jav", null).size());
+        assertEquals(1, index.search("leopard", null).size());
+
+        index.remove("weapon", 2L);
+        assertTrue(index.search("leopard", null).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    // --- ТЕСТ 6: Обмеження кількості результатів та валідація ---
+    @Test
+    void testSearch_LimitAndValidation() {
+        assertEquals(1, index.search("us", 1).size());
+        assertThrows(IllegalArgumentException.class, () -> index.search(" ", null));
+        assertThrows(IllegalArgumentException.class, () -> index.search("usa", 0));
+    }
+
+    // --- ТЕСТ 7: Перебудування - пошук бачить старі дані до підміни, зміни за час перебудування не губляться ---
+    @Test
+    void testRebuild_SwapsAndReplaysChanges() {
+        index.beginRebuild();
+        SearchIndex fresh = new SearchIndex();
+        fresh.put("country", 1L, Map.of("name", "USA"));
+        fresh.put("weapon", 2L, Map.of("weaponName", "Javelin Anti-Tank Missile"));
+
+        // Поки новий індекс наповнюється, робочий повний і приймає зміни
+        assertEquals(4, index.size());
+        index.put("weapon", 3L, Map.of("weaponName", "Leopard 2 Tank"));
+        index.remove("country", 1L);
+
+        index.replaceWith(fresh);
+        assertEquals(2, index.size());
+        assertEquals(1, index.search("leopard", null).size());
+        assertTrue(index.search("usa", null).isEmpty());
+        assertTrue(index.search("development", null).isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package dev.yurets.db_demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.cache.ReferenceDataCache;
+import dev.yurets.db_demo.cluster.InvalidationSubscriber;
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.search.SearchIndex;
+import dev.yurets.db_demo.search.SearchIndexLoader;
+import dev.yurets.db_demo.security.ApiTokenIndex;
+import dev.yurets.db_demo.service.AidRequestService;
+import dev.yurets.db_demo.service.CountryService;
+import dev.yurets.db_demo.service.CountryTreeService;
+import dev.yurets.db_demo.service.DonorService;
+import dev.yurets.db_demo.service.PeriodService;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import dev.yurets.db_demo.service.WeaponService;
+import dev.yurets.db_demo.stats.RequestCounters;
+import dev.yurets.db_demo.warmup.StartupWarmup;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Тести критерію завершення прогріву (p99 тривалості раунду) і його місця серед слухачів старту
+ */
+class StartupWarmupTest {
+
+    // --- ТЕСТ 1: p99 - найбільше значення в малій вибірці, ранг округлюється вгору ---
+    @Test
+    void testPercentile() {
+        long[] samples = new long[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = 100 - i;
+        }
+        assertEquals(99, StartupWarmup.percentile(samples, 0.99));
+        assertEquals(50, StartupWarmup.percentile(samples, 0.5));
+        assertEquals(7, StartupWarmup.percentile(new long[]{3, 7, 5}, 0.99));
+        assertEquals(0, StartupWarmup.percentile(new long[0], 0.99));
+    }
+
+    // --- ТЕСТ 2: Стабільний стан - p99 двох пачок поспіль у межах допуску ---
+    @Test
+    void testIsSteady() {
+        assertTrue(StartupWarmup.isSteady(1000, 1080, 0.1));
+        assertTrue(StartupWarmup.isSteady(1000, 950, 0.1));
+        assertFalse(StartupWarmup.isSteady(1000, 600, 0.1));
+        assertFalse(StartupWarmup.isSteady(1000, 1200, 0.1));
+    }
+
+    // --- ТЕСТ 3: Прогрів - останній слухач старту, після підписки і завантаження індексу, лічильників, токенів ---
+    @Test
+    void testOrder_WarmupAfterLoaders() throws Exception {
+        int warmup = order(StartupWarmup.class, "warmUp");
+        int subscribe = order(InvalidationSubscriber.class, "start");
+
+        for (int load : new int[]{order(SearchIndexLoader.class, "rebuild"), order(RequestCounters.class, "load"),
+                order(ApiTokenIndex.class, "load")}) {
+            assertTrue(subscribe < load);
+            assertTrue(load < warmup);
+        }
+    }
+
+    // --- ТЕСТ 4: max-duration перевіряється перед кожним раундом, а не тільки після пачки ---
+    @Test
+    void testDeadline_CheckedBeforeEachRound() {
+        AidRequestService requestService = mock(AidRequestService.class);
+        // Повільний крок: пачка з 25 раундів тривала б ~1 с
+        when(requestService.getAllRequestViews(any(Fields.class))).thenAnswer(invocation -> {
+            Thread.sleep(40);
+            return List.of();
+        });
+        StartupWarmup warmup = new StartupWarmup(mock(ReferenceDataCache.class), mock(CountryService.class),
+                mock(CountryTreeService.class), mock(PeriodService.class), mock(WeaponService.class),
+                mock(DonorService.class), mock(WeaponDeliveryService.class), requestService,
+                mock(SearchIndex.class), mock(RequestCounters.class), new ObjectMapper());
+        ReflectionTestUtils.setField(warmup, "enabled", true);
+        ReflectionTestUtils.setField(warmup, "maxRounds", 500);
+        ReflectionTestUtils.setField(warmup, "batch", 25);
+        ReflectionTestUtils.setField(warmup, "maxDuration", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(warmup, "tolerance", 0.1);
+
+        warmup.warmUp();
+
+        verify(requestService, atMost(5)).getAllRequestViews(any(Fields.class));
+    }
+
+    private static int order(Class<?> type, String method) throws NoSuchMethodException {
+        return type.getMethod(method).getAnnotation(Order.class).value();
+    }
+}
@@ -0,0 +1,92 @@
+package dev.yurets.db_demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.yurets.db_demo.bulk.DeliveryImportService;
+import dev.yurets.db_demo.controller.rest.StreamResponses;
+import dev.yurets.db_demo.controller.rest.WeaponDeliveryRestController;
+import dev.yurets.db_demo.projection.Fields;
+import dev.yurets.db_demo.service.WeaponDeliveryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тести для потокових відповідей (?stream=json | ndjson)
+ */
+class StreamResponsesTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Consumer<Consumer<Map<String, Integer>>> twoRows = rows -> {
+        rows.accept(Map.of("id", 1));
+        rows.accept(Map.of("id", 2));
+    };
+
+    // --- ТЕСТ 1: ndjson - один об'єкт на рядок ---
+    @Test
+    void testNdjson() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = StreamResponses.ok("ndjson", mapper, twoRows);
+
+        assertEquals(StreamResponses.NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", render(response));
+    }
+
+    // --- ТЕСТ 2: json - звичайний JSON-масив ---
+    @Test
+    void testJsonArray() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = StreamResponses.ok("json", mapper, twoRows);
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("[{\"id\":1},{\"id\":2}]", render(response));
+    }
+
+    // --- ТЕСТ 3: ?fields= - у кожному рядку тільки запитані поля ---
+    @Test
+    void testNdjson_SparseFields() throws Exception {
+        Consumer<Consumer<Map<String, Object>>> rows = out -> out.accept(Map.of("id", 1, "status", "PENDING"));
+
+        ResponseEntity<StreamingResponseBody> response = StreamResponses.ok("ndjson", Fields.parse("status,unknown"), mapper, rows);
+
+        assertEquals("{\"status\":\"PENDING\"}\n", render(response));
+    }
+
+    // --- ТЕСТ 4: Невідомий формат відхиляється до початку запису ---
+    @Test
+    void testUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> StreamResponses.ok("xml", mapper, twoRows));
+    }
+
+    // --- ТЕСТ 5: ?ids= разом з ?stream= - 400, а не неоднозначний обробник (500) ---
+    @Test
+    void testStreamWithIds_BadRequest() throws Exception {
+        WeaponDeliveryService deliveryService = mock(WeaponDeliveryService.class);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new WeaponDeliveryRestController(deliveryService,
+                mock(DeliveryImportService.class), mapper)).build();
+
+        mockMvc.perform(get("/api/deliveries").param("ids", "1,2").param("stream", "ndjson"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/deliveries").param("ids", "1,2"))
+                .andExpect(status().isOk());
+        verify(deliveryService, never()).streamDeliveryViews(any(), any());
+    }
+
+    private String render(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}